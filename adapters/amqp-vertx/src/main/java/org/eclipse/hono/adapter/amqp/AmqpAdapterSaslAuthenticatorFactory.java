@@ -72,6 +72,7 @@ public class AmqpAdapterSaslAuthenticatorFactory implements ProtonSaslAuthentica
     private final ProtocolAdapterProperties config;
     private final HonoClient tenantServiceClient;
     private final HonoClient credentialsServiceClient;
+    private final DeviceCertificateValidator certValidator = new DeviceCertificateValidator();
 
     /**
      * Creates a new SASL authenticator factory for an authentication provider. If the AMQP adapter supports
@@ -93,7 +94,7 @@ public class AmqpAdapterSaslAuthenticatorFactory implements ProtonSaslAuthentica
 
     @Override
     public ProtonSaslAuthenticator create() {
-        return new AmqpAdapterSaslAuthenticator(tenantServiceClient, credentialsServiceClient, config);
+        return new AmqpAdapterSaslAuthenticator(tenantServiceClient, credentialsServiceClient, config, certValidator);
     }
 
     /**
@@ -106,6 +107,7 @@ public class AmqpAdapterSaslAuthenticatorFactory implements ProtonSaslAuthentica
         private final ProtocolAdapterProperties config;
         private final HonoClient tenantServiceClient;
         private final HonoClient credentialsServiceClient;
+        private final DeviceCertificateValidator certValidator;
 
         private Sasl sasl;
         private boolean succeeded;
@@ -113,12 +115,16 @@ public class AmqpAdapterSaslAuthenticatorFactory implements ProtonSaslAuthentica
         private Certificate[] peerCertificateChain;
         private HonoClientBasedAuthProvider usernamePasswordAuthProvider;
         private HonoClientBasedAuthProvider clientCertAuthProvider;
-        private DeviceCertificateValidator certValidator;
 
-        AmqpAdapterSaslAuthenticator(final HonoClient tenantServiceClient, final HonoClient credentialsServiceClient, final ProtocolAdapterProperties config) {
+        AmqpAdapterSaslAuthenticator(
+                final HonoClient tenantServiceClient,
+                final HonoClient credentialsServiceClient,
+                final ProtocolAdapterProperties config,
+                final DeviceCertificateValidator certValidator) {
             this.tenantServiceClient = tenantServiceClient;
             this.credentialsServiceClient = credentialsServiceClient;
             this.config = config;
+            this.certValidator = certValidator;
         }
 
         @Override
@@ -262,9 +268,6 @@ public class AmqpAdapterSaslAuthenticatorFactory implements ProtonSaslAuthentica
         }
 
         private DeviceCertificateValidator getValidator() {
-            if (certValidator == null) {
-                certValidator = new DeviceCertificateValidator();
-            }
             return certValidator;
         }
     }
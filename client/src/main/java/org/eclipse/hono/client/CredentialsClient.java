@@ -13,6 +13,8 @@
 
 package org.eclipse.hono.client;
 
+import java.util.Objects;
+
 import io.vertx.core.json.JsonObject;
 import org.eclipse.hono.util.CredentialsObject;
 
@@ -68,4 +70,50 @@ public interface CredentialsClient extends RequestResponseClient {
      * @see RequestResponseClient#setRequestTimeout(long)
      */
     Future<CredentialsObject> get(String type, String authId, JsonObject clientContext);
+
+    /**
+     * Removes credentials from this client's response cache.
+     * <p>
+     * This method should be invoked if credentials provided by a device could not be
+     * validated against the credentials on record, because the credentials on record
+     * might have been changed in the meantime. The next invocation of
+     * {@link #get(String, String)} will then retrieve the credentials from the service again.
+     * <p>
+     * This method does nothing if the client does not cache responses.
+     * <p>
+     * This default implementation simply invokes {@link #invalidate(String, String, JsonObject)}
+     * with an empty client context.
+     *
+     * @param type The type of credentials to remove.
+     * @param authId The authentication identifier used in the credentials to remove.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    default void invalidate(final String type, final String authId) {
+        invalidate(type, authId, new JsonObject());
+    }
+
+    /**
+     * Removes credentials from this client's response cache.
+     * <p>
+     * This method should be invoked if credentials provided by a device could not be
+     * validated against the credentials on record, because the credentials on record
+     * might have been changed in the meantime. The next invocation of
+     * {@link #get(String, String, JsonObject)} will then retrieve the credentials from
+     * the service again.
+     * <p>
+     * This method does nothing if the client does not cache responses.
+     * <p>
+     * This default implementation does nothing, which is suitable for clients
+     * that do not cache responses.
+     *
+     * @param type The type of credentials to remove.
+     * @param authId The authentication identifier used in the credentials to remove.
+     * @param clientContext The bag of properties that has been used to retrieve the credentials.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    default void invalidate(final String type, final String authId, final JsonObject clientContext) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(authId);
+        Objects.requireNonNull(clientContext);
+    }
 }
@@ -19,6 +19,7 @@ import java.util.function.Consumer;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.client.impl.HonoClientImpl;
+import org.eclipse.hono.client.impl.PooledHonoClientImpl;
 import org.eclipse.hono.config.ClientConfigProperties;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -459,12 +460,20 @@ public interface HonoClient {
      * <p>
      * <strong>Note:</strong> Instances of {@link ClientConfigProperties} are not thread safe and not immutable. They
      * must not be modified after calling this method.
+     * <p>
+     * If the <em>maxConnections</em> property of the given configuration is greater than 1, the returned
+     * client opens a separate connection to the server for each vert.x {@code Context} it is used from,
+     * up to the configured number of connections.
      *
      * @param vertx The vertx instance to use. May be {@code null}, in which case a new instance will be created.
      * @param clientConfigProperties The client properties to use. Must not be {@code null}.
      * @return A new instance of a <em>Hono Client</em>.
      */
     static HonoClient newClient(final Vertx vertx, final ClientConfigProperties clientConfigProperties) {
-        return new HonoClientImpl(vertx, clientConfigProperties);
+        if (clientConfigProperties.getMaxConnections() > 1) {
+            return new PooledHonoClientImpl(vertx, clientConfigProperties);
+        } else {
+            return new HonoClientImpl(vertx, clientConfigProperties);
+        }
     }
 }
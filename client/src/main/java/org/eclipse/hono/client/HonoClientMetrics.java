@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client;
+
+/**
+ * A collector for metrics of a {@link HonoClient}.
+ */
+public interface HonoClientMetrics {
+
+    /**
+     * Reports a link to a peer having been established.
+     * 
+     * @param endpoint The name of the endpoint that the link has been established
+     *                 to, e.g. <em>telemetry</em> or <em>registration</em>.
+     * @param durationMillis The time it took to establish the link in milliseconds.
+     */
+    void reportLinkEstablished(String endpoint, long durationMillis);
+
+    /**
+     * Reports a link to a peer having been closed by the client because it has
+     * been idle for too long or because the maximum number of links has been reached.
+     * 
+     * @param endpoint The name of the endpoint that the link has been established
+     *                 to, e.g. <em>telemetry</em> or <em>registration</em>.
+     */
+    void incrementEvictedLinks(String endpoint);
+
+    /**
+     * Reports a request to a peer having been coalesced with an identical
+     * request that is already in flight instead of being sent to the peer.
+     * 
+     * @param endpoint The name of the endpoint that the request is targeted
+     *                 at, e.g. <em>tenant</em> or <em>registration</em>.
+     */
+    void incrementCoalescedRequests(String endpoint);
+}
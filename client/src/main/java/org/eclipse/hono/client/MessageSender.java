@@ -13,12 +13,15 @@
 
 package org.eclipse.hono.client;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.qpid.proton.message.Message;
 
 import io.opentracing.SpanContext;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.proton.ProtonDelivery;
@@ -214,6 +217,94 @@ public interface MessageSender {
         return sendAndWaitForOutcome(message);
     }
 
+    /**
+     * Sends a batch of AMQP 1.0 messages to the endpoint configured for this client.
+     * <p>
+     * This default implementation simply returns the result of {@link #send(List, SpanContext)}.
+     * 
+     * @param messages The messages to send.
+     * @return A future indicating the outcome of the operation.
+     *         See {@link #send(List, SpanContext)} for details.
+     * @throws NullPointerException if messages is {@code null}.
+     */
+    default CompositeFuture send(List<Message> messages) {
+        return send(messages, null);
+    }
+
+    /**
+     * Sends a batch of AMQP 1.0 messages to the peer and waits for the dispositions
+     * indicating the outcome of the transfers.
+     * <p>
+     * This default implementation simply returns the result of {@link #sendAndWaitForOutcome(List, SpanContext)}.
+     * 
+     * @param messages The messages to send.
+     * @return A future indicating the outcome of the operation.
+     *         See {@link #sendAndWaitForOutcome(List, SpanContext)} for details.
+     * @throws NullPointerException if messages is {@code null}.
+     */
+    default CompositeFuture sendAndWaitForOutcome(List<Message> messages) {
+        return sendAndWaitForOutcome(messages, null);
+    }
+
+    /**
+     * Sends a batch of AMQP 1.0 messages to the endpoint configured for this client.
+     * <p>
+     * This default implementation simply invokes {@link #send(Message, SpanContext)}
+     * for each of the messages.
+     * 
+     * @param messages The messages to send.
+     * @param context The currently active OpenTracing span. An implementation
+     *         should use this as the parent for any span it creates for tracing
+     *         the execution of this operation.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be completed once the outcome of sending each of the
+     *         messages is known. The outcome of sending the message at position <em>i</em>
+     *         in the given list is available from the future's {@code resultAt(i)},
+     *         {@code succeeded(i)} and {@code cause(i)} methods. The outcomes correspond
+     *         to the outcomes of the future returned by {@link #send(Message, SpanContext)}.
+     *         <p>
+     *         The future will be succeeded if all messages have been sent successfully.
+     *         Otherwise, it will be failed with the cause of (one of) the failed sending
+     *         operations.
+     * @throws NullPointerException if messages is {@code null}.
+     */
+    default CompositeFuture send(List<Message> messages, SpanContext context) {
+        return CompositeFuture.join(messages.stream()
+                .map(message -> send(message, context))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sends a batch of AMQP 1.0 messages to the peer and waits for the dispositions
+     * indicating the outcome of the transfers.
+     * <p>
+     * This default implementation simply invokes {@link #sendAndWaitForOutcome(Message, SpanContext)}
+     * for each of the messages.
+     * 
+     * @param messages The messages to send.
+     * @param context The currently active OpenTracing span. An implementation
+     *         should use this as the parent for any span it creates for tracing
+     *         the execution of this operation.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be completed once the outcome of sending each of the
+     *         messages is known. The outcome of sending the message at position <em>i</em>
+     *         in the given list is available from the future's {@code resultAt(i)},
+     *         {@code succeeded(i)} and {@code cause(i)} methods. The outcomes correspond
+     *         to the outcomes of the future returned by {@link #sendAndWaitForOutcome(Message, SpanContext)}.
+     *         <p>
+     *         The future will be succeeded if all messages have been accepted by the peer.
+     *         Otherwise, it will be failed with the cause of (one of) the failed sending
+     *         operations.
+     * @throws NullPointerException if messages is {@code null}.
+     */
+    default CompositeFuture sendAndWaitForOutcome(List<Message> messages, SpanContext context) {
+        return CompositeFuture.join(messages.stream()
+                .map(message -> sendAndWaitForOutcome(message, context))
+                .collect(Collectors.toList()));
+    }
+
     /**
      * Sends a message for a given device to the endpoint configured for this client.
      * 
@@ -13,7 +13,15 @@
 
 package org.eclipse.hono.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 import io.opentracing.SpanContext;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
 
@@ -102,6 +110,60 @@ public interface RegistrationClient extends RequestResponseClient {
         return assertRegistration(deviceId, gatewayId);
     }
 
+    /**
+     * Asserts that multiple devices are registered and <em>enabled</em>.
+     * <p>
+     * This default implementation invokes {@link #assertRegistration(String, String, SpanContext)}
+     * for each of the devices. Implementations should override this method in order to
+     * assert the registration of all devices by means of a single request to the service.
+     * 
+     * @param deviceIds The IDs of the devices to get the assertions for.
+     * @param gatewayId The gateway that wants to act on behalf of the devices.
+     *                  <p>
+     *                  If not {@code null}, the service will verify that the gateway
+     *                  is enabled and authorized to <em>act on behalf of</em> each of the
+     *                  given devices before asserting the device's registration status.
+     * @param context The currently active OpenTracing span. An implementation
+     *         should use this as the parent for any span it creates for tracing
+     *         the execution of this operation.
+     * @return A future indicating the result of the operation.
+     *         <p>
+     *         The future will succeed with a map containing the assertions of those devices
+     *         that are registered and enabled (and that the gateway is authorized for), keyed by
+     *         device ID. Each assertion contains values as defined in
+     *         <a href="https://www.eclipse.org/hono/api/device-registration-api/#assert-device-registration">
+     *         Assert Device Registration</a>. Devices for which the service has returned a
+     *         client error status code are not contained in the map.
+     *         <p>
+     *         Otherwise, the future will fail with a {@link ServiceInvocationException} containing
+     *         the (error) status code returned by the service.
+     * @throws NullPointerException if device IDs is {@code null}.
+     * @see RequestResponseClient#setRequestTimeout(long)
+     */
+    default Future<Map<String, JsonObject>> assertRegistrations(
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(deviceIds);
+
+        final Map<String, JsonObject> assertions = new HashMap<>();
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>(deviceIds.size());
+        for (final String deviceId : deviceIds) {
+            results.add(assertRegistration(deviceId, gatewayId, context)
+                    .map(assertion -> assertions.put(deviceId, assertion))
+                    .recover(t -> {
+                        if (t instanceof ClientErrorException) {
+                            return Future.succeededFuture();
+                        } else {
+                            return Future.failedFuture(t);
+                        }
+                    }));
+        }
+        return CompositeFuture.all(results).map(ok -> assertions);
+    }
+
     /**
      * Gets registration information for a device.
      *
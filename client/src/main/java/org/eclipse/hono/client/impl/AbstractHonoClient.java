@@ -96,6 +96,8 @@ public abstract class AbstractHonoClient {
      */
     protected Tracer tracer;
 
+    private Handler<Void> usageHandler;
+
     /**
      * Creates a client for a vert.x context.
      * 
@@ -228,6 +230,39 @@ public abstract class AbstractHonoClient {
         }
     }
 
+    /**
+     * Sets the handler to notify whenever this client is being used for
+     * interacting with the peer.
+     *
+     * @param handler The handler or {@code null} if usage should not be reported.
+     */
+    final void setUsageHandler(final Handler<Void> handler) {
+        this.usageHandler = handler;
+    }
+
+    /**
+     * Notifies the usage handler (if set) that this client is being used
+     * for interacting with the peer.
+     */
+    protected final void recordUsage() {
+        if (usageHandler != null) {
+            usageHandler.handle(null);
+        }
+    }
+
+    /**
+     * Checks if this client is waiting for the outcome of an interaction with the peer.
+     * <p>
+     * Clients with pending work should not be closed in order to not lose the outcome.
+     * <p>
+     * This default implementation always returns {@code false}.
+     *
+     * @return {@code true} if the client has pending work.
+     */
+    boolean hasPendingWork() {
+        return false;
+    }
+
     /**
      * Closes this client's sender and receiver links to Hono.
      * Link resources will be freed after the links are closed.
@@ -14,8 +14,10 @@ package org.eclipse.hono.client.impl;
 
 import java.net.HttpURLConnection;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,13 +25,17 @@ import java.util.UUID;
 
 import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Rejected;
+import org.apache.qpid.proton.amqp.transport.AmqpError;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
+import org.apache.qpid.proton.amqp.transport.ErrorCondition;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.cache.ExpiringValueCache;
 import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.client.HonoClientMetrics;
 import org.eclipse.hono.client.RequestResponseClient;
 import org.eclipse.hono.client.RequestResponseClientConfigProperties;
 import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.client.StatusCodeMapper;
 import org.eclipse.hono.config.ClientConfigProperties;
 import org.eclipse.hono.tracing.MessageAnnotationsInjectAdapter;
@@ -79,8 +85,26 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
                             HttpURLConnection.HTTP_MOVED_PERM,
                             HttpURLConnection.HTTP_GONE
     };
+    /**
+     * The number of ticks of the timing wheel that the request timeout is divided into.
+     */
+    private static final int TIMEOUT_TICKS_PER_REQUEST_TIMEOUT = 10;
+    /**
+     * The minimum duration of a tick of the timing wheel.
+     */
+    private static final long MIN_TIMEOUT_TICK_MILLIS = 10;
+    /**
+     * The number of slots of the timing wheel.
+     */
+    private static final int TIMEOUT_WHEEL_SLOTS = 64;
 
     private final Map<Object, TriTuple<Handler<AsyncResult<R>>, Object, Span>> replyMap = new HashMap<>();
+    /**
+     * The handlers waiting for the outcome of an in-flight request, indexed by
+     * the request's cache key.
+     */
+    private final Map<Object, List<Handler<AsyncResult<R>>>> pendingRequests = new HashMap<>();
+    private HonoClientMetrics metrics = NoopHonoClientMetrics.getInstance();
     private final String replyToAddress;
     private final String targetAddress;
     private final String tenantId;
@@ -91,6 +115,15 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
     private ExpiringValueCache<Object, R> responseCache;
 
     private long requestTimeoutMillis;
+    /**
+     * The wheel used for timing out requests for which no response has been received.
+     */
+    private HashedTimingWheel timeoutWheel;
+    /**
+     * The timeouts of the requests for which no response has been received,
+     * indexed by correlation ID.
+     */
+    private final Map<Object, HashedTimingWheel.Timeout> requestTimeouts = new HashMap<>();
 
     /**
      * Creates a request-response client.
@@ -306,6 +339,9 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
      * allow for unanswered requests piling up in the client, which eventually may cause the
      * client to run out of memory.
      * <p>
+     * Requests are timed out with a granularity of a tenth of this value (but at least 10 milliseconds),
+     * i.e. a request may be failed slightly later than after the given amount of time.
+     * <p>
      * The default value of this property is 200 milliseconds.
      * 
      * @param timoutMillis The number of milliseconds after which a request is considered to have timed out.
@@ -316,8 +352,11 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
 
         if (timoutMillis < 0) {
             throw new IllegalArgumentException("request timeout must be >= 0");
-        } else {
+        } else if (this.requestTimeoutMillis != timoutMillis) {
             this.requestTimeoutMillis = timoutMillis;
+            // requests that have already been scheduled on the
+            // current wheel will still time out as before
+            this.timeoutWheel = null;
         }
     }
 
@@ -419,13 +458,14 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         // 1. the handler for processing the response and
         // 2. the key to use for caching the response
         // 3. the Opentracing span covering the execution
-        final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = replyMap.remove(message.getCorrelationId());
+        final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = removeReplyHandler(message.getCorrelationId());
 
         if (handler == null) {
             LOG.debug("discarding unexpected response [reply-to: {}, correlation ID: {}]",
                     replyToAddress, message.getCorrelationId());
             ProtonHelper.rejected(delivery, true);
         } else {
+            recordUsage();
             final R response = getRequestResponseResult(message);
             final Span span = handler.three();
             if (response == null) {
@@ -433,6 +473,9 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
                         replyToAddress, message.getCorrelationId());
                 TracingHelper.logError(span, "response from peer released (no status code)");
                 ProtonHelper.released(delivery, true);
+                // also completes the handlers of requests coalesced with this request
+                handler.one().handle(Future.failedFuture(new ServerErrorException(
+                        HttpURLConnection.HTTP_INTERNAL_ERROR, "malformed response (no status code)")));
             } else {
                 LOG.debug("received response [reply-to: {}, subject: {}, correlation ID: {}, status: {}]",
                         replyToAddress, message.getSubject(), message.getCorrelationId(), response.getStatus());
@@ -464,7 +507,7 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         if (result.succeeded()) {
             throw new IllegalArgumentException("result must be failed");
         } else {
-            final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = replyMap.remove(correlationId);
+            final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = removeReplyHandler(correlationId);
             if (handler == null) {
                 // response has already been processed
             } else {
@@ -476,6 +519,22 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         }
     }
 
+    /**
+     * Removes the handler registered for a request and cancels the request's timeout.
+     *
+     * @param correlationId The correlation id of the request.
+     * @return The handler or {@code null} if no request with the given correlation id
+     *         is outstanding.
+     */
+    private TriTuple<Handler<AsyncResult<R>>, Object, Span> removeReplyHandler(final Object correlationId) {
+
+        final HashedTimingWheel.Timeout timeout = requestTimeouts.remove(correlationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return replyMap.remove(correlationId);
+    }
+
     private R getRequestResponseResult(final Message message) {
 
         final Integer status = MessageHelper.getApplicationProperty(
@@ -666,8 +725,8 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
      * Creates a request message for a payload and headers and sends it to the peer.
      * <p>
      * This method first checks if the sender has any credit left. If not, the result handler is failed immediately.
-     * Otherwise, the request message is sent and a timer is started which fails the result handler,
-     * if no response is received within <em>requestTimeoutMillis</em> milliseconds.
+     * Otherwise, the request message is sent and scheduled on this client's timing wheel which fails the
+     * result handler, if no response is received within <em>requestTimeoutMillis</em> milliseconds.
      * 
      * @param action The operation that the request is supposed to trigger/invoke.
      * @param properties The headers to include in the request message as AMQP application properties.
@@ -710,9 +769,13 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
     /**
      * Sends a request message via this client's sender link to the peer.
      * <p>
-     * This method first checks if the sender has any credit left. If not, the result handler is failed immediately.
-     * Otherwise, the request message is sent and a timer is started which fails the result handler,
-     * if no response is received within <em>requestTimeoutMillis</em> milliseconds.
+     * If a cache key is given and a request with the same key is already in flight,
+     * the message is not sent at all. The result handler is instead notified
+     * about the outcome of the in-flight request.
+     * <p>
+     * This method then checks if the sender has any credit left. If not, the result handler is failed immediately.
+     * Otherwise, the request message is sent and scheduled on this client's timing wheel which fails the
+     * result handler, if no response is received within <em>requestTimeoutMillis</em> milliseconds.
      * 
      * @param request The message to send.
      * @param resultHandler The handler to notify about the outcome of the request.
@@ -733,7 +796,15 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         }
 
         executeOrRunOnContext(res -> {
-            if (sender.sendQueueFull()) {
+            final List<Handler<AsyncResult<R>>> waitingHandlers = cacheKey == null ? null : pendingRequests.get(cacheKey);
+            if (waitingHandlers != null) {
+                // an identical request is already in flight, share its outcome
+                LOG.debug("coalescing request with in-flight request [target: {}, subject: {}, cache key: {}]",
+                        targetAddress, request.getSubject(), cacheKey);
+                TracingHelper.TAG_COALESCED.set(currentSpan, true);
+                metrics.incrementCoalescedRequests(getName());
+                waitingHandlers.add(resultHandler);
+            } else if (sender.sendQueueFull()) {
                 LOG.debug("cannot send request to peer, no credit left for link [target: {}]", targetAddress);
                 resultHandler.handle(Future.failedFuture(new ServerErrorException(
                         HttpURLConnection.HTTP_UNAVAILABLE, "no credit available for sending request")));
@@ -746,9 +817,11 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
                 details.put(TracingHelper.TAG_CREDIT.getKey(), sender.getCredit());
                 details.put(TracingHelper.TAG_QOS.getKey(), sender.getQoS().toString());
                 currentSpan.log(details);
-                final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = TriTuple.of(resultHandler, cacheKey, currentSpan);
+                final TriTuple<Handler<AsyncResult<R>>, Object, Span> handler = TriTuple.of(
+                        getCoalescingHandler(cacheKey, resultHandler), cacheKey, currentSpan);
                 tracer.inject(currentSpan.context(), Format.Builtin.TEXT_MAP, new MessageAnnotationsInjectAdapter(request));
                 replyMap.put(correlationId, handler);
+                recordUsage();
 
                 sender.send(request, deliveryUpdated -> {
                     final Future<R> failedResult = Future.future();
@@ -758,7 +831,7 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
                         if (rejected.getError() != null) {
                             LOG.debug("service did not accept request [target address: {}, subject: {}, correlation ID: {}]: {}",
                                     targetAddress, request.getSubject(), correlationId, rejected.getError());
-                            failedResult.fail(StatusCodeMapper.from(rejected.getError()));
+                            failedResult.fail(getRejectionCause(rejected.getError()));
                             cancelRequest(correlationId, failedResult);
                         } else {
                             LOG.debug("service did not accept request [target address: {}, subject: {}, correlation ID: {}]",
@@ -777,11 +850,8 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
                         cancelRequest(correlationId, failedResult);
                     }
                 });
-                if (requestTimeoutMillis > 0) {
-                    context.owner().setTimer(requestTimeoutMillis, tid -> {
-                        cancelRequest(correlationId, Future.failedFuture(new ServerErrorException(
-                                HttpURLConnection.HTTP_UNAVAILABLE, "request timed out after " + requestTimeoutMillis + "ms")));
-                    });
+                if (requestTimeoutMillis > 0 && replyMap.containsKey(correlationId)) {
+                    requestTimeouts.put(correlationId, getTimeoutWheel().schedule(correlationId, requestTimeoutMillis));
                 }
                 if (LOG.isDebugEnabled()) {
                     final String deviceId = MessageHelper.getDeviceId(request);
@@ -802,6 +872,91 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         });
     }
 
+    /**
+     * Maps the error condition contained in the rejection of a request message
+     * to an exception.
+     * <p>
+     * A request rejected because the peer cannot decode it or does not implement
+     * the requested operation is mapped to a <em>400 Bad Request</em> or <em>501 Not Implemented</em>
+     * error respectively. All other conditions are mapped using {@link StatusCodeMapper#from(ErrorCondition)}.
+     *
+     * @param error The error condition.
+     * @return The exception.
+     */
+    private static ServiceInvocationException getRejectionCause(final ErrorCondition error) {
+
+        if (AmqpError.DECODE_ERROR.equals(error.getCondition())) {
+            return new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST, error.getDescription());
+        } else if (AmqpError.NOT_IMPLEMENTED.equals(error.getCondition())) {
+            return new ServerErrorException(HttpURLConnection.HTTP_NOT_IMPLEMENTED, error.getDescription());
+        } else {
+            return StatusCodeMapper.from(error);
+        }
+    }
+
+    /**
+     * Gets the timing wheel to use for timing out requests.
+     * <p>
+     * The wheel is created on first use. Its tick duration is derived from
+     * the current request timeout.
+     *
+     * @return The wheel.
+     */
+    private HashedTimingWheel getTimeoutWheel() {
+
+        if (timeoutWheel == null) {
+            final long timeoutMillis = requestTimeoutMillis;
+            final long tickMillis = Math.max(MIN_TIMEOUT_TICK_MILLIS, timeoutMillis / TIMEOUT_TICKS_PER_REQUEST_TIMEOUT);
+            timeoutWheel = new HashedTimingWheel(context.owner(), tickMillis, TIMEOUT_WHEEL_SLOTS, correlationId -> {
+                cancelRequest(correlationId, Future.failedFuture(new ServerErrorException(
+                        HttpURLConnection.HTTP_UNAVAILABLE, "request timed out after " + timeoutMillis + "ms")));
+            });
+        }
+        return timeoutWheel;
+    }
+
+    /**
+     * Registers a request as being in flight so that identical requests issued
+     * before its outcome is known can share the outcome instead of being sent
+     * to the peer as well.
+     *
+     * @param cacheKey The key identifying the request or {@code null} if the
+     *                 request cannot be shared.
+     * @param resultHandler The handler to notify about the outcome of the request.
+     * @return The handler to register for the request. The handler notifies
+     *         the given handler and all handlers of requests that have been
+     *         coalesced with the request in the meantime.
+     */
+    private Handler<AsyncResult<R>> getCoalescingHandler(
+            final Object cacheKey,
+            final Handler<AsyncResult<R>> resultHandler) {
+
+        if (cacheKey == null) {
+            return resultHandler;
+        } else {
+            pendingRequests.put(cacheKey, new ArrayList<>());
+            return result -> {
+                final List<Handler<AsyncResult<R>>> waitingHandlers = pendingRequests.remove(cacheKey);
+                resultHandler.handle(result);
+                if (waitingHandlers != null) {
+                    waitingHandlers.forEach(h -> h.handle(result));
+                }
+            };
+        }
+    }
+
+    /**
+     * Sets the collector to report the number of coalesced requests to.
+     * <p>
+     * If not set explicitly, the number of coalesced requests will not be reported.
+     *
+     * @param metrics The metrics collector.
+     * @throws NullPointerException if metrics is {@code null}.
+     */
+    final void setMetrics(final HonoClientMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
     /**
      * Checks if this client's sender and receiver links are open.
      * 
@@ -813,12 +968,34 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         return sender != null && sender.isOpen() && receiver != null && receiver.isOpen();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A request-response client has pending work if it is waiting for
+     * responses to requests that it has sent.
+     */
+    @Override
+    final boolean hasPendingWork() {
+        return !replyMap.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All requests that are still waiting for a response are failed
+     * with a {@link ServerErrorException}.
+     */
     @Override
     public final void close(final Handler<AsyncResult<Void>> closeHandler) {
 
         Objects.requireNonNull(closeHandler);
         LOG.debug("closing request-response client ...");
-        closeLinks(closeHandler);
+        executeOrRunOnContext(cancel -> {
+            // copy the correlation IDs because cancelling removes the requests from the map
+            new ArrayList<>(replyMap.keySet()).forEach(correlationId -> cancelRequest(correlationId, Future.failedFuture(
+                    new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "client has been closed"))));
+            cancel.complete();
+        }).setHandler(cancelled -> closeLinks(closeHandler));
     }
 
     /**
@@ -896,6 +1073,20 @@ public abstract class AbstractRequestResponseClient<R extends RequestResponseRes
         }
     }
 
+    /**
+     * Removes a response from the cache.
+     * <p>
+     * If the cache key is {@code null} or no cache is configured then this method does nothing.
+     * 
+     * @param key The key of the response to remove.
+     */
+    protected final void removeFromCache(final Object key) {
+
+        if (responseCache != null && key != null) {
+            responseCache.remove(key);
+        }
+    }
+
     private boolean isCacheableStatusCode(final int code) {
         return Arrays.binarySearch(CACHEABLE_STATUS_CODES, code) >= 0;
     }
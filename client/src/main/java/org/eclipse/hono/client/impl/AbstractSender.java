@@ -16,13 +16,16 @@ package org.eclipse.hono.client.impl;
 import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,11 +51,13 @@ import io.opentracing.Tracer;
 import io.opentracing.propagation.Format;
 import io.opentracing.tag.Tags;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.proton.ProtonDelivery;
 import io.vertx.proton.ProtonHelper;
+import io.vertx.proton.ProtonQoS;
 import io.vertx.proton.ProtonSender;
 
 /**
@@ -82,6 +87,7 @@ abstract public class AbstractSender extends AbstractHonoClient implements Messa
     protected final String targetAddress;
 
     private Handler<Void> drainHandler;
+    private int unsettledDeliveries = 0;
     private boolean registrationAssertionRequired;
 
     /**
@@ -161,6 +167,46 @@ abstract public class AbstractSender extends AbstractHonoClient implements Messa
         return sender.isOpen();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A sender has pending work if it has sent messages which have not
+     * been settled by the peer yet.
+     */
+    @Override
+    final boolean hasPendingWork() {
+        return unsettledDeliveries > 0;
+    }
+
+    /**
+     * Sends a message over this sender's link.
+     * <p>
+     * Subclasses should use this method instead of sending the message
+     * over the link directly in order to keep track of unsettled deliveries.
+     *
+     * @param message The message to send.
+     * @param deliveryUpdateHandler The handler to notify about updates of
+     *                              the delivery's remote state.
+     * @return The delivery.
+     */
+    protected final ProtonDelivery sendOverLink(
+            final Message message,
+            final Handler<ProtonDelivery> deliveryUpdateHandler) {
+
+        recordUsage();
+        if (sender.getQoS() != ProtonQoS.AT_LEAST_ONCE) {
+            return sender.send(message, deliveryUpdateHandler);
+        }
+        unsettledDeliveries++;
+        return sender.send(message, deliveryUpdated -> {
+            // the handler is not invoked anymore once the delivery has been settled
+            if (deliveryUpdated.remotelySettled()) {
+                unsettledDeliveries--;
+            }
+            deliveryUpdateHandler.handle(deliveryUpdated);
+        });
+    }
+
     @Override
     @Deprecated
     public final Future<ProtonDelivery> send(final Message rawMessage, final Handler<Void> capacityAvailableHandler) {
@@ -200,15 +246,7 @@ abstract public class AbstractSender extends AbstractHonoClient implements Messa
 
         Objects.requireNonNull(rawMessage);
 
-        if (!isRegistrationAssertionRequired()) {
-            MessageHelper.getAndRemoveRegistrationAssertion(rawMessage);
-        }
-
-        final Span span = startSpan(parent, rawMessage);
-        Tags.MESSAGE_BUS_DESTINATION.set(span, targetAddress);
-        span.setTag(MessageHelper.APP_PROPERTY_TENANT_ID, tenantId);
-        span.setTag(MessageHelper.APP_PROPERTY_DEVICE_ID, MessageHelper.getDeviceId(rawMessage));
-        tracer.inject(span.context(), Format.Builtin.TEXT_MAP, new MessageAnnotationsInjectAdapter(rawMessage));
+        final Span span = prepareMessage(parent, rawMessage, this::startSpan);
 
         return executeOrRunOnContext(result -> {
             if (sender.sendQueueFull()) {
@@ -222,6 +260,110 @@ abstract public class AbstractSender extends AbstractHonoClient implements Messa
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The messages are sent using {@link #sendMessage(Message, Span)} as part of a single
+     * task on this sender's vert.x context. No message is sent at all if the sender does not have
+     * enough credit for sending all messages of the batch.
+     */
+    @Override
+    public final CompositeFuture send(final List<Message> messages, final SpanContext parent) {
+
+        return sendBatch(messages, parent, this::startSpan, this::sendMessage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This default implementation simply returns the result of {@link #send(List, SpanContext)}.
+     * Subclasses whose {@link #sendMessage(Message, Span)} method does not wait for the outcome
+     * of the transfer should override this method.
+     */
+    @Override
+    public CompositeFuture sendAndWaitForOutcome(final List<Message> messages, final SpanContext parent) {
+
+        return send(messages, parent);
+    }
+
+    /**
+     * Sends a batch of AMQP 1.0 messages to the peer this client is configured for.
+     * <p>
+     * All messages are sent as part of a single task on this sender's vert.x context.
+     * If the sender does not have enough credit for sending all of the messages,
+     * none of them is sent and the outcome of all messages is a {@link ServerErrorException}.
+     * 
+     * @param messages The messages to send.
+     * @param parent The currently active OpenTracing span or {@code null} if not available.
+     * @param spanFactory The function to use for creating the span for a message.
+     * @param sendOperation The function to use for sending a single message.
+     * @return A future indicating the outcome of the operation.
+     *         The outcome of sending the message at position <em>i</em> in the given list
+     *         is available from the future's {@code resultAt(i)}, {@code succeeded(i)}
+     *         and {@code cause(i)} methods.
+     * @throws NullPointerException if messages, any of the messages or any of the functions is {@code null}.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected final CompositeFuture sendBatch(
+            final List<Message> messages,
+            final SpanContext parent,
+            final BiFunction<SpanContext, Message, Span> spanFactory,
+            final BiFunction<Message, Span, Future<ProtonDelivery>> sendOperation) {
+
+        Objects.requireNonNull(messages);
+        Objects.requireNonNull(spanFactory);
+        Objects.requireNonNull(sendOperation);
+
+        final List<Span> spans = new ArrayList<>(messages.size());
+        final List<Future> results = new ArrayList<>(messages.size());
+        for (final Message rawMessage : messages) {
+            spans.add(prepareMessage(parent, Objects.requireNonNull(rawMessage), spanFactory));
+            results.add(Future.<ProtonDelivery> future());
+        }
+
+        this.<Void> executeOrRunOnContext(batchSent -> {
+            if (sender.getCredit() < messages.size()) {
+                final ServiceInvocationException e = new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE,
+                        "not enough credit available for batch");
+                batchSent.fail(e);
+            } else {
+                LOG.trace("sending batch of {} messages [credit: {}]", messages.size(), sender.getCredit());
+                for (int i = 0; i < messages.size(); i++) {
+                    final Future<ProtonDelivery> result = results.get(i);
+                    sendOperation.apply(messages.get(i), spans.get(i)).setHandler(result.completer());
+                }
+                batchSent.complete();
+            }
+        }).setHandler(batchSent -> {
+            if (batchSent.failed()) {
+                for (int i = 0; i < messages.size(); i++) {
+                    final Span span = spans.get(i);
+                    logError(span, batchSent.cause());
+                    span.finish();
+                    results.get(i).tryFail(batchSent.cause());
+                }
+            }
+        });
+        return CompositeFuture.join(results);
+    }
+
+    private Span prepareMessage(
+            final SpanContext parent,
+            final Message rawMessage,
+            final BiFunction<SpanContext, Message, Span> spanFactory) {
+
+        if (!isRegistrationAssertionRequired()) {
+            MessageHelper.getAndRemoveRegistrationAssertion(rawMessage);
+        }
+
+        final Span span = spanFactory.apply(parent, rawMessage);
+        Tags.MESSAGE_BUS_DESTINATION.set(span, targetAddress);
+        span.setTag(MessageHelper.APP_PROPERTY_TENANT_ID, tenantId);
+        span.setTag(MessageHelper.APP_PROPERTY_DEVICE_ID, MessageHelper.getDeviceId(rawMessage));
+        tracer.inject(span.context(), Format.Builtin.TEXT_MAP, new MessageAnnotationsInjectAdapter(rawMessage));
+        return span;
+    }
+
     @Override
     public final Future<ProtonDelivery> send(final String deviceId, final byte[] payload, final String contentType, final String registrationAssertion) {
         return send(deviceId, null, payload, contentType, registrationAssertion);
@@ -406,7 +548,7 @@ abstract public class AbstractSender extends AbstractHonoClient implements Messa
         details.put(TracingHelper.TAG_QOS.getKey(), sender.getQoS().toString());
         currentSpan.log(details);
 
-        sender.send(message, deliveryUpdated -> {
+        sendOverLink(message, deliveryUpdated -> {
             final DeliveryState remoteState = deliveryUpdated.getRemoteState();
             if (deliveryUpdated.remotelySettled()) {
                 if (Accepted.class.isInstance(remoteState)) {
@@ -20,6 +20,7 @@ import java.util.UUID;
 
 import io.vertx.core.buffer.Buffer;
 
+import org.eclipse.hono.cache.CacheProvider;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.CredentialsClient;
 import org.eclipse.hono.client.StatusCodeMapper;
@@ -28,6 +29,7 @@ import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.CredentialsConstants;
 import org.eclipse.hono.util.CredentialsObject;
 import org.eclipse.hono.util.CredentialsResult;
+import org.eclipse.hono.util.TriTuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +41,8 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonReceiver;
+import io.vertx.proton.ProtonSender;
 
 /**
  * A Vertx-Proton based client for Hono's Credentials API.
@@ -60,6 +64,21 @@ public class CredentialsClientImpl extends AbstractRequestResponseClient<Credent
         super(context, config, tenantId);
     }
 
+    /**
+     * Creates a new client for accessing the Credentials service.
+     * 
+     * @param context The vert.x context to use for interacting with the service.
+     * @param config The configuration properties.
+     * @param tenantId The identifier of the tenant for which the client should be created.
+     * @param sender The AMQP link to use for sending requests to the service.
+     * @param receiver The AMQP link to use for receiving responses from the service.
+     */
+    protected CredentialsClientImpl(final Context context, final ClientConfigProperties config, final String tenantId,
+            final ProtonSender sender, final ProtonReceiver receiver) {
+
+        super(context, config, tenantId, sender, receiver);
+    }
+
     @Override
     protected final String getName() {
 
@@ -110,16 +129,19 @@ public class CredentialsClientImpl extends AbstractRequestResponseClient<Credent
      *
      * @param context The vert.x context to run all interactions with the server on.
      * @param clientConfig The configuration properties to use.
+     * @param cacheProvider A factory for cache instances for credentials results. If {@code null}
+     *                     the client will not cache any results from the Credentials service.
      * @param con The AMQP connection to the server.
      * @param tenantId The tenant for which credentials are handled.
      * @param senderCloseHook A handler to invoke if the peer closes the sender link unexpectedly.
      * @param receiverCloseHook A handler to invoke if the peer closes the receiver link unexpectedly.
      * @param creationHandler The handler to invoke with the outcome of the creation attempt.
-     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws NullPointerException if any of the parameters other than cache provider is {@code null}.
      */
     public static final void create(
             final Context context,
             final ClientConfigProperties clientConfig,
+            final CacheProvider cacheProvider,
             final ProtonConnection con,
             final String tenantId,
             final Handler<String> senderCloseHook,
@@ -128,6 +150,9 @@ public class CredentialsClientImpl extends AbstractRequestResponseClient<Credent
 
         LOG.debug("creating new credentials client for [{}]", tenantId);
         final CredentialsClientImpl client = new CredentialsClientImpl(context, clientConfig, tenantId);
+        if (cacheProvider != null) {
+            client.setResponseCache(cacheProvider.getCache(CredentialsClientImpl.getTargetAddress(tenantId)));
+        }
         client.createLinks(con, senderCloseHook, receiverCloseHook).setHandler(s -> {
             if (s.succeeded()) {
                 LOG.debug("successfully created credentials client for [{}]", tenantId);
@@ -153,21 +178,32 @@ public class CredentialsClientImpl extends AbstractRequestResponseClient<Credent
      * Invokes the <em>Get Credentials</em> operation of Hono's
      * <a href="https://www.eclipse.org/hono/api/Credentials-API">Credentials API</a>
      * on the service represented by the <em>sender</em> and <em>receiver</em> links.
+     * <p>
+     * The response is taken from the client's cache if it contains a non-expired
+     * response for the same type, authentication identifier and client context.
      */
     @Override
     public final Future<CredentialsObject> get(final String type, final String authId, final JsonObject clientContext) {
 
         Objects.requireNonNull(type);
         Objects.requireNonNull(authId);
-
-        final Future<CredentialsResult<CredentialsObject>> responseTracker = Future.future();
-        final JsonObject specification = new JsonObject()
-                .put(CredentialsConstants.FIELD_TYPE, type)
-                .put(CredentialsConstants.FIELD_AUTH_ID, authId)
-                .mergeIn(clientContext);
-
-        createAndSendRequest(CredentialsConstants.CredentialsAction.get.toString(), specification.toBuffer(), responseTracker.completer());
-        return responseTracker.map(response -> {
+        Objects.requireNonNull(clientContext);
+
+        final TriTuple<String, String, JsonObject> key = getCacheKey(type, authId, clientContext);
+        return getResponseFromCache(key).recover(cacheMiss -> {
+            final Future<CredentialsResult<CredentialsObject>> responseTracker = Future.future();
+            final JsonObject specification = new JsonObject()
+                    .put(CredentialsConstants.FIELD_TYPE, type)
+                    .put(CredentialsConstants.FIELD_AUTH_ID, authId)
+                    .mergeIn(clientContext);
+
+            createAndSendRequest(
+                    CredentialsConstants.CredentialsAction.get.toString(),
+                    specification.toBuffer(),
+                    responseTracker.completer(),
+                    key);
+            return responseTracker;
+        }).map(response -> {
             switch(response.getStatus()) {
             case HttpURLConnection.HTTP_OK:
                 return response.getPayload();
@@ -178,4 +214,35 @@ public class CredentialsClientImpl extends AbstractRequestResponseClient<Credent
             }
         });
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void invalidate(final String type, final String authId) {
+        invalidate(type, authId, new JsonObject());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void invalidate(final String type, final String authId, final JsonObject clientContext) {
+
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(authId);
+        Objects.requireNonNull(clientContext);
+
+        removeFromCache(getCacheKey(type, authId, clientContext));
+    }
+
+    private static TriTuple<String, String, JsonObject> getCacheKey(
+            final String type,
+            final String authId,
+            final JsonObject clientContext) {
+
+        // use a copy of the client context so that later changes made by the
+        // caller do not affect the key's hash code
+        return TriTuple.of(type, authId, clientContext.copy());
+    }
 }
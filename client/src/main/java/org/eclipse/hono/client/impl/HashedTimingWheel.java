@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * A hashed timing wheel for expiring keys after a delay.
+ * <p>
+ * The wheel consists of a fixed number of slots, each covering one <em>tick</em>.
+ * Scheduling a key adds it to the slot that the wheel will have advanced to when the
+ * delay has elapsed, which is an O(1) operation. A single periodic vert.x timer advances
+ * the wheel by one slot per tick and passes all keys of the slot whose delay has elapsed
+ * to the expiration handler. The timer is only running while keys are scheduled.
+ * <p>
+ * Keys expire with the granularity of a tick, i.e. a key scheduled with a delay of
+ * <em>d</em> milliseconds expires after at least <em>d</em> but less than
+ * <em>d + 2 * tick</em> milliseconds. A scheduled key can be cancelled using the
+ * {@link Timeout} returned when scheduling it, e.g. when a response to a request has
+ * been received. Cancellation is an O(1) operation as well, the cancelled key is removed
+ * from its slot when the wheel advances to the slot. The timer is stopped as soon as
+ * there are no more keys that have been scheduled but neither expired nor cancelled.
+ * <p>
+ * This class is not thread safe. All methods are expected to be invoked on the vert.x
+ * Context that the wheel is used on.
+ */
+final class HashedTimingWheel {
+
+    private final Vertx vertx;
+    private final long tickMillis;
+    private final ArrayDeque<Timeout>[] slots;
+    private final Handler<Object> expirationHandler;
+
+    private int currentSlot = 0;
+    private int size = 0;
+    private long timerId = -1;
+
+    /**
+     * Creates a new wheel.
+     *
+     * @param vertx The vert.x instance to use for advancing the wheel.
+     * @param tickMillis The duration of a tick in milliseconds.
+     * @param numberOfSlots The number of slots of the wheel.
+     * @param expirationHandler The handler to invoke with expired keys.
+     * @throws NullPointerException if vert.x or handler are {@code null}.
+     * @throws IllegalArgumentException if tick duration or number of slots are not positive.
+     */
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(
+            final Vertx vertx,
+            final long tickMillis,
+            final int numberOfSlots,
+            final Handler<Object> expirationHandler) {
+
+        if (tickMillis <= 0 || numberOfSlots <= 0) {
+            throw new IllegalArgumentException("tick duration and number of slots must be > 0");
+        }
+        this.vertx = Objects.requireNonNull(vertx);
+        this.expirationHandler = Objects.requireNonNull(expirationHandler);
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayDeque[numberOfSlots];
+        for (int i = 0; i < numberOfSlots; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Gets the duration of a tick.
+     *
+     * @return The number of milliseconds.
+     */
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Gets the number of keys that have been scheduled but have neither expired
+     * nor been cancelled yet.
+     *
+     * @return The number of keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a key for expiration.
+     *
+     * @param key The key.
+     * @param delayMillis The number of milliseconds after which the key expires.
+     * @return The handle to use for cancelling the expiration of the key.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    Timeout schedule(final Object key, final long delayMillis) {
+
+        Objects.requireNonNull(key);
+        // the current tick has already partially elapsed, so we need to wait for
+        // one additional tick in order to not expire the key prematurely
+        final long ticks = (Math.max(0, delayMillis) + tickMillis - 1) / tickMillis + 1;
+        final int slot = (int) ((currentSlot + ticks) % slots.length);
+        final Timeout timeout = new Timeout(key, (ticks - 1) / slots.length);
+        slots[slot].addLast(timeout);
+        size++;
+        if (timerId == -1) {
+            timerId = vertx.setPeriodic(tickMillis, tid -> advance());
+        }
+        return timeout;
+    }
+
+    private void advance() {
+
+        currentSlot = (currentSlot + 1) % slots.length;
+        final List<Object> expiredKeys = new ArrayList<>();
+        final Iterator<Timeout> entries = slots[currentSlot].iterator();
+        while (entries.hasNext()) {
+            final Timeout entry = entries.next();
+            if (entry.done) {
+                // cancelled
+                entries.remove();
+            } else if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+            } else {
+                entries.remove();
+                entry.done = true;
+                size--;
+                expiredKeys.add(entry.key);
+            }
+        }
+        stopTimerIfEmpty();
+        // the handler may schedule new keys
+        expiredKeys.forEach(expirationHandler::handle);
+    }
+
+    private void stopTimerIfEmpty() {
+
+        if (size == 0 && timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+            // remove cancelled keys which would otherwise remain
+            // in their slots until the timer is started again
+            for (final ArrayDeque<Timeout> slot : slots) {
+                slot.clear();
+            }
+        }
+    }
+
+    /**
+     * A scheduled key.
+     */
+    final class Timeout {
+
+        private final Object key;
+        private long remainingRounds;
+        private boolean done = false;
+
+        private Timeout(final Object key, final long remainingRounds) {
+            this.key = key;
+            this.remainingRounds = remainingRounds;
+        }
+
+        /**
+         * Cancels the expiration of the key.
+         * <p>
+         * The expiration handler will not be invoked for the key anymore.
+         * This method does nothing if the key has already expired or
+         * has already been cancelled.
+         */
+        void cancel() {
+
+            if (!done) {
+                done = true;
+                size--;
+                stopTimerIfEmpty();
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -38,6 +39,7 @@ import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.CommandClient;
 import org.eclipse.hono.client.CredentialsClient;
 import org.eclipse.hono.client.HonoClient;
+import org.eclipse.hono.client.HonoClientMetrics;
 import org.eclipse.hono.client.MessageConsumer;
 import org.eclipse.hono.client.MessageSender;
 import org.eclipse.hono.client.RegistrationClient;
@@ -104,7 +106,12 @@ public class HonoClientImpl implements HonoClient {
     protected volatile Context context;
 
     private final Map<String, RequestResponseClient> activeRequestResponseClients = new HashMap<>();
-    private final Map<String, Boolean> creationLocks = new HashMap<>();
+    private final Map<String, List<Future<Object>>> pendingCreations = new HashMap<>();
+    /**
+     * The points in time at which the senders and request-response clients have last been
+     * used, in order of last usage.
+     */
+    private final Map<String, Long> linkUsage = new LinkedHashMap<>(16, 0.75f, true);
     private final List<Handler<Void>> creationRequests = new ArrayList<>();
     private final AtomicBoolean connecting = new AtomicBoolean(false);
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
@@ -118,6 +125,8 @@ public class HonoClientImpl implements HonoClient {
     private AtomicInteger connectAttempts;
     private List<Symbol> offeredCapabilities = Collections.emptyList();
     private Tracer tracer = NoopTracerFactory.create();
+    private long idleLinkCheckTimerId = -1;
+    private HonoClientMetrics metrics = NoopHonoClientMetrics.getInstance();
 
     /**
      * Creates a new client for a set of configuration properties.
@@ -188,6 +197,19 @@ public class HonoClientImpl implements HonoClient {
         this.tracer = Objects.requireNonNull(opentracingTracer);
     }
 
+    /**
+     * Sets the collector to report metrics about the links established by this client to.
+     * <p>
+     * If not set explicitly, metrics will not be reported.
+     * 
+     * @param metrics The metrics collector.
+     * @throws NullPointerException if metrics is {@code null}.
+     */
+    @Autowired(required = false)
+    public final void setMetrics(final HonoClientMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
     /**
      * Gets the OpenTracing {@code Tracer} to use for tracing the processing
      * of messages received from or sent to devices.
@@ -390,6 +412,7 @@ public class HonoClientImpl implements HonoClient {
                                                     "client is already shut down")));
                                 } else {
                                     setConnection(newConnection);
+                                    startIdleLinkCheck();
                                     connectionHandler.handle(Future.succeededFuture(this));
                                 }
                             }
@@ -452,6 +475,11 @@ public class HonoClientImpl implements HonoClient {
 
         activeSenders.clear();
         activeRequestResponseClients.clear();
+        linkUsage.clear();
+        if (idleLinkCheckTimerId >= 0) {
+            vertx.cancelTimer(idleLinkCheckTimerId);
+            idleLinkCheckTimerId = -1;
+        }
         failAllCreationRequests();
         // make sure we make configured number of attempts to re-connect
         connectAttempts = new AtomicInteger(0);
@@ -536,6 +564,7 @@ public class HonoClientImpl implements HonoClient {
             TelemetrySenderImpl.create(context, clientConfigProperties, connection, tenantId, deviceId,
                     onSenderClosed -> {
                         activeSenders.remove(TelemetrySenderImpl.getTargetAddress(tenantId, deviceId));
+                        linkUsage.remove(TelemetrySenderImpl.getTargetAddress(tenantId, deviceId));
                     },
                     result.completer(), tracer);
             return result;
@@ -573,6 +602,7 @@ public class HonoClientImpl implements HonoClient {
             EventSenderImpl.create(context, clientConfigProperties, connection, tenantId, deviceId,
                     onSenderClosed -> {
                         activeSenders.remove(EventSenderImpl.getTargetAddress(tenantId, deviceId));
+                        linkUsage.remove(EventSenderImpl.getTargetAddress(tenantId, deviceId));
                     },
                     result.completer(), tracer);
             return result;
@@ -609,39 +639,10 @@ public class HonoClientImpl implements HonoClient {
         final MessageSender sender = activeSenders.get(key);
         if (sender != null && sender.isOpen()) {
             LOG.debug("reusing existing message sender [target: {}, credit: {}]", key, sender.getCredit());
+            recordLinkUsage(key);
             result.tryComplete(sender);
-        } else if (!creationLocks.computeIfAbsent(key, k -> Boolean.FALSE)) {
-            // register a handler to be notified if the underlying connection to the server fails
-            // so that we can fail the result handler passed in
-            final Handler<Void> connectionFailureHandler = connectionLost -> {
-                // remove lock so that next attempt to open a sender doesn't fail
-                creationLocks.remove(key);
-                result.tryFail(
-                        new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "no connection to service"));
-            };
-            creationRequests.add(connectionFailureHandler);
-            creationLocks.put(key, Boolean.TRUE);
-            LOG.debug("creating new message sender for {}", key);
-
-            newSenderSupplier.get().setHandler(creationAttempt -> {
-                creationLocks.remove(key);
-                creationRequests.remove(connectionFailureHandler);
-                if (creationAttempt.succeeded()) {
-                    final MessageSender newSender = creationAttempt.result();
-                    LOG.debug("successfully created new message sender for {}", key);
-                    activeSenders.put(key, newSender);
-                    result.complete(newSender);
-                } else {
-                    LOG.debug("failed to create new message sender for {}", key, creationAttempt.cause());
-                    activeSenders.remove(key);
-                    result.tryFail(creationAttempt.cause());
-                }
-            });
-
         } else {
-            LOG.debug("already trying to create a message sender for {}", key);
-            result.tryFail(new ServerErrorException(
-                    HttpURLConnection.HTTP_UNAVAILABLE, "no connection to service"));
+            getOrCreateLink(key, newSenderSupplier, activeSenders, result);
         }
     }
 
@@ -786,6 +787,7 @@ public class HonoClientImpl implements HonoClient {
             CredentialsClientImpl.create(
                     context,
                     clientConfigProperties,
+                    cacheProvider,
                     connection,
                     tenantId,
                     this::removeCredentialsClient,
@@ -812,6 +814,7 @@ public class HonoClientImpl implements HonoClient {
     private void removeActiveRequestResponseClient(final String targetAddress) {
 
         final RequestResponseClient client = activeRequestResponseClients.remove(targetAddress);
+        linkUsage.remove(targetAddress);
         if (client != null) {
             client.close(s -> {
             });
@@ -1002,39 +1005,199 @@ public class HonoClientImpl implements HonoClient {
         final RequestResponseClient client = activeRequestResponseClients.get(key);
         if (client != null && client.isOpen()) {
             LOG.debug("reusing existing client [target: {}]", key);
+            recordLinkUsage(key);
             result.complete(client);
-        } else if (!creationLocks.computeIfAbsent(key, k -> Boolean.FALSE)) {
-
-            // register a handler to be notified if the underlying connection to the server fails
-            // so that we can fail the result handler passed in
-            final Handler<Void> connectionFailureHandler = connectionLost -> {
-                // remove lock so that next attempt to open a sender doesn't fail
-                creationLocks.remove(key);
-                result.tryFail(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "no connection to service"));
-            };
-            creationRequests.add(connectionFailureHandler);
-            creationLocks.put(key, Boolean.TRUE);
-            LOG.debug("creating new client [target: {}]", key);
-
-            clientSupplier.get().setHandler(creationAttempt -> {
-                if (creationAttempt.succeeded()) {
-                    LOG.debug("successfully created new client [target: {}]", key);
-                    activeRequestResponseClients.put(key, creationAttempt.result());
-                    result.tryComplete(creationAttempt.result());
-                } else {
-                    LOG.debug("failed to create new client [target: {}]", key, creationAttempt.cause());
-                    activeRequestResponseClients.remove(key);
-                    result.tryFail(creationAttempt.cause());
-                }
-                creationLocks.remove(key);
-                creationRequests.remove(connectionFailureHandler);
+        } else {
+            getOrCreateLink(key, clientSupplier, activeRequestResponseClients, result);
+        }
+    }
+
+    /**
+     * Creates a new link or waits for an attempt to create a link for the same
+     * key that is already in progress.
+     * <p>
+     * Concurrent requests for the same key share the outcome of the first attempt.
+     * A concurrent request is failed with a {@link ServerErrorException} if the
+     * attempt has not completed within the configured <em>linkEstablishmentTimeout</em>.
+     * 
+     * @param key The key to look-up the link by.
+     * @param linkSupplier The factory to use for creating the link.
+     * @param activeLinks The map to put the new link to.
+     * @param result The future to complete with the link.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void getOrCreateLink(
+            final String key,
+            final Supplier<Future<T>> linkSupplier,
+            final Map<String, ? super T> activeLinks,
+            final Future<T> result) {
+
+        final List<Future<Object>> pendingRequests = pendingCreations.get(key);
+        if (pendingRequests != null) {
+            LOG.debug("waiting for ongoing attempt to create link [target: {}]", key);
+            final Future<Object> waiter = Future.future();
+            final long timerId = vertx.setTimer(clientConfigProperties.getLinkEstablishmentTimeout(), id -> {
+                pendingRequests.remove(waiter);
+                waiter.tryFail(new ServerErrorException(
+                        HttpURLConnection.HTTP_UNAVAILABLE, "timed out waiting for link to be established"));
+            });
+            waiter.setHandler(attempt -> {
+                vertx.cancelTimer(timerId);
+                result.handle((AsyncResult<T>) attempt);
             });
+            pendingRequests.add(waiter);
+            return;
+        }
 
-        } else {
-            LOG.debug("already trying to create a client [target: {}]", key);
-            result.fail(new ServerErrorException(
-                    HttpURLConnection.HTTP_UNAVAILABLE, "no connection to service"));
+        final List<Future<Object>> requests = new ArrayList<>();
+        requests.add((Future<Object>) result);
+        pendingCreations.put(key, requests);
+
+        // register a handler to be notified if the underlying connection to the server fails
+        // so that we can fail all pending requests
+        final Handler<Void> connectionFailureHandler = connectionLost -> {
+            // remove requests so that next attempt to open a link doesn't wait
+            pendingCreations.remove(key, requests);
+            completePendingRequests(requests, Future.failedFuture(
+                    new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "no connection to service")));
+        };
+        creationRequests.add(connectionFailureHandler);
+        LOG.debug("creating new link [target: {}]", key);
+        final long start = System.nanoTime();
+
+        linkSupplier.get().setHandler(creationAttempt -> {
+            creationRequests.remove(connectionFailureHandler);
+            pendingCreations.remove(key, requests);
+            if (creationAttempt.succeeded()) {
+                LOG.debug("successfully created new link [target: {}]", key);
+                metrics.reportLinkEstablished(
+                        getEndpoint(key),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                activeLinks.put(key, creationAttempt.result());
+                if (creationAttempt.result() instanceof AbstractHonoClient) {
+                    ((AbstractHonoClient) creationAttempt.result()).setUsageHandler(used -> recordLinkUsage(key));
+                }
+                if (creationAttempt.result() instanceof AbstractRequestResponseClient) {
+                    ((AbstractRequestResponseClient<?>) creationAttempt.result()).setMetrics(metrics);
+                }
+                recordLinkUsage(key);
+                evictLeastRecentlyUsedLinks(key);
+            } else {
+                LOG.debug("failed to create new link [target: {}]", key, creationAttempt.cause());
+                activeLinks.remove(key);
+            }
+            completePendingRequests(requests, (AsyncResult<Object>) creationAttempt);
+        });
+    }
+
+    private void recordLinkUsage(final String key) {
+        if (clientConfigProperties.getMaxLinks() >= 0 || clientConfigProperties.getLinkIdleTimeout() > 0) {
+            linkUsage.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Closes the least recently used senders and request-response clients
+     * until the number of open links does not exceed the configured
+     * <em>maxLinks</em> anymore.
+     * <p>
+     * Links that are waiting for the outcome of messages or requests are not closed.
+     *
+     * @param newLink The key of the link that has just been created. This link is not closed.
+     */
+    private void evictLeastRecentlyUsedLinks(final String newLink) {
+
+        if (clientConfigProperties.getMaxLinks() < 0) {
+            return;
+        }
+        final Iterator<String> keys = linkUsage.keySet().iterator();
+        while (activeSenders.size() + activeRequestResponseClients.size() > clientConfigProperties.getMaxLinks()
+                && keys.hasNext()) {
+            final String key = keys.next();
+            if (!key.equals(newLink) && !hasPendingWork(key)) {
+                keys.remove();
+                evictLink(key, "maximum number of links reached");
+            }
+        }
+    }
+
+    private void startIdleLinkCheck() {
+
+        final long idleTimeout = clientConfigProperties.getLinkIdleTimeout();
+        if (idleTimeout > 0 && idleLinkCheckTimerId < 0) {
+            // the timer is started on the connection's context
+            idleLinkCheckTimerId = vertx.setPeriodic(idleTimeout, tid -> evictIdleLinks());
+        }
+    }
+
+    /**
+     * Closes all senders and request-response clients that have not been used
+     * within the configured <em>linkIdleTimeout</em>.
+     * <p>
+     * Links that are waiting for the outcome of messages or requests are not closed.
+     */
+    private void evictIdleLinks() {
+
+        final long lastUsageThreshold = System.currentTimeMillis() - clientConfigProperties.getLinkIdleTimeout();
+        final Iterator<Map.Entry<String, Long>> entries = linkUsage.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<String, Long> entry = entries.next();
+            if (entry.getValue() > lastUsageThreshold) {
+                // all remaining links have been used more recently
+                break;
+            } else if (!hasPendingWork(entry.getKey())) {
+                entries.remove();
+                evictLink(entry.getKey(), "link has been idle");
+            }
+        }
+    }
+
+    private boolean hasPendingWork(final String key) {
+
+        final Object link = Optional.<Object>ofNullable(activeSenders.get(key)).orElse(activeRequestResponseClients.get(key));
+        return link instanceof AbstractHonoClient && ((AbstractHonoClient) link).hasPendingWork();
+    }
+
+    private void evictLink(final String key, final String reason) {
+
+        final MessageSender sender = activeSenders.remove(key);
+        if (sender instanceof AbstractHonoClient) {
+            ((AbstractHonoClient) sender).setUsageHandler(null);
+        }
+        if (sender != null) {
+            LOG.debug("closing message sender [target: {}, reason: {}]", key, reason);
+            sender.close(s -> {});
+            metrics.incrementEvictedLinks(getEndpoint(key));
+        }
+        final RequestResponseClient client = activeRequestResponseClients.remove(key);
+        if (client instanceof AbstractHonoClient) {
+            ((AbstractHonoClient) client).setUsageHandler(null);
+        }
+        if (client != null) {
+            LOG.debug("closing client [target: {}, reason: {}]", key, reason);
+            client.close(s -> {});
+            metrics.incrementEvictedLinks(getEndpoint(key));
+        }
+    }
+
+    private static String getEndpoint(final String key) {
+        final int idx = key.indexOf('/');
+        return idx < 0 ? key : key.substring(0, idx);
+    }
+
+    private static void completePendingRequests(
+            final List<Future<Object>> requests,
+            final AsyncResult<Object> outcome) {
+
+        // copy the requests because waiters that time out remove themselves from the list
+        for (final Future<Object> request : new ArrayList<>(requests)) {
+            if (outcome.succeeded()) {
+                request.tryComplete(outcome.result());
+            } else {
+                request.tryFail(outcome.cause());
+            }
         }
+        requests.clear();
     }
 
     /**
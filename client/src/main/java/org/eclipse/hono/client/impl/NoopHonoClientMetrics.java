@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client.impl;
+
+import org.eclipse.hono.client.HonoClientMetrics;
+
+/**
+ * A metrics collector that discards all metrics.
+ */
+final class NoopHonoClientMetrics implements HonoClientMetrics {
+
+    private static final NoopHonoClientMetrics INSTANCE = new NoopHonoClientMetrics();
+
+    private NoopHonoClientMetrics() {
+        // prevent instantiation
+    }
+
+    /**
+     * Gets the singleton instance.
+     * 
+     * @return The instance.
+     */
+    static NoopHonoClientMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void reportLinkEstablished(final String endpoint, final long durationMillis) {
+        // do nothing
+    }
+
+    @Override
+    public void incrementEvictedLinks(final String endpoint) {
+        // do nothing
+    }
+
+    @Override
+    public void incrementCoalescedRequests(final String endpoint) {
+        // do nothing
+    }
+}
@@ -0,0 +1,563 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.hono.client.impl;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.message.Message;
+import org.eclipse.hono.cache.CacheProvider;
+import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.client.CommandClient;
+import org.eclipse.hono.client.CredentialsClient;
+import org.eclipse.hono.client.HonoClient;
+import org.eclipse.hono.client.HonoClientMetrics;
+import org.eclipse.hono.client.MessageConsumer;
+import org.eclipse.hono.client.MessageSender;
+import org.eclipse.hono.client.RegistrationClient;
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.TenantClient;
+import org.eclipse.hono.config.ClientConfigProperties;
+import org.eclipse.hono.connection.ConnectionFactory;
+import org.eclipse.hono.util.HonoProtonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import io.opentracing.Tracer;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.proton.ProtonClientOptions;
+import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonDelivery;
+
+/**
+ * A client for Hono's APIs that uses multiple connections to the peer.
+ * <p>
+ * The client opens a separate connection, represented by a {@link HonoClientImpl},
+ * for each vert.x {@code Context} that it is invoked from until the
+ * <em>maxConnections</em> property of the configuration is reached.
+ * Each connection is established on and bound to the Context that it has been
+ * opened for, so that invocations from that Context do not need to be handed
+ * over to another event loop thread. Invocations from any other Context, or from
+ * a non vert.x thread, are routed to one of the existing connections based on the
+ * invoking Context.
+ * <p>
+ * Links are not shared among connections, i.e. a sender for a tenant will be
+ * opened on each connection that it is requested on.
+ */
+public final class PooledHonoClientImpl implements HonoClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledHonoClientImpl.class);
+
+    private final Vertx vertx;
+    private final ConnectionFactory connectionFactory;
+    private final ClientConfigProperties clientConfigProperties;
+    private final List<Shard> shards = new ArrayList<>();
+    private final Map<Context, Shard> shardsByContext = new HashMap<>();
+
+    private boolean connectRequested = false;
+    private boolean shutDown = false;
+    private ProtonClientOptions clientOptions;
+    private Handler<ProtonConnection> disconnectHandler;
+    private CacheProvider cacheProvider;
+    private Tracer tracer;
+    private HonoClientMetrics metrics;
+
+    /**
+     * Creates a new client for a set of configuration properties.
+     * <p>
+     * This constructor creates a connection factory using
+     * {@link ConnectionFactory#newConnectionFactory(Vertx, ClientConfigProperties)}.
+     *
+     * @param vertx The Vert.x instance to execute the client on, if {@code null} a new Vert.x instance is used.
+     * @param clientConfigProperties The configuration properties to use.
+     * @throws NullPointerException if clientConfigProperties is {@code null}
+     */
+    public PooledHonoClientImpl(final Vertx vertx, final ClientConfigProperties clientConfigProperties) {
+        this(vertx, null, clientConfigProperties);
+    }
+
+    /**
+     * Creates a new client for a set of configuration properties.
+     * <p>
+     * <em>NB</em> Make sure to always use the same set of configuration properties for both the connection factory as
+     * well as the Hono client in order to prevent unexpected behavior.
+     *
+     * @param vertx The Vert.x instance to execute the client on, if {@code null} a new Vert.x instance is used.
+     * @param connectionFactory The factory to use for creating the AMQP connections to the Hono server.
+     * @param clientConfigProperties The configuration properties to use.
+     * @throws NullPointerException if clientConfigProperties is {@code null}
+     */
+    public PooledHonoClientImpl(final Vertx vertx, final ConnectionFactory connectionFactory,
+            final ClientConfigProperties clientConfigProperties) {
+
+        this.clientConfigProperties = Objects.requireNonNull(clientConfigProperties);
+        if (vertx != null) {
+            this.vertx = vertx;
+        } else {
+            this.vertx = Vertx.vertx();
+        }
+        if (connectionFactory != null) {
+            this.connectionFactory = connectionFactory;
+        } else {
+            this.connectionFactory = ConnectionFactory.newConnectionFactory(this.vertx, clientConfigProperties);
+        }
+    }
+
+    /**
+     * Sets a provider for creating cache instances to be used in Hono clients.
+     *
+     * @param cacheProvider The cache provider.
+     * @throws NullPointerException if manager is {@code null}.
+     */
+    public void setCacheProvider(final CacheProvider cacheProvider) {
+        this.cacheProvider = Objects.requireNonNull(cacheProvider);
+    }
+
+    /**
+     * Sets the OpenTracing {@code Tracer} to use for tracing messages
+     * published by devices across Hono's components.
+     * <p>
+     * If not set explicitly, the {@code NoopTracer} from OpenTracing will
+     * be used.
+     *
+     * @param opentracingTracer The tracer.
+     * @throws NullPointerException if tracer is {@code null}.
+     */
+    @Autowired(required = false)
+    public void setTracer(final Tracer opentracingTracer) {
+        this.tracer = Objects.requireNonNull(opentracingTracer);
+    }
+
+    /**
+     * Sets the collector to report metrics about the links established by this client to.
+     * <p>
+     * If not set explicitly, metrics will not be reported.
+     *
+     * @param metrics The metrics collector.
+     * @throws NullPointerException if metrics is {@code null}.
+     */
+    @Autowired(required = false)
+    public void setMetrics(final HonoClientMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Gets the number of connections that this client currently manages.
+     *
+     * @return The number of connections.
+     */
+    int getNumberOfConnections() {
+        synchronized (shards) {
+            return shards.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This client is considered connected if all of its connections are established.
+     */
+    @Override
+    public Future<Void> isConnected() {
+
+        final List<Shard> currentShards = getShards();
+        if (currentShards.isEmpty()) {
+            return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "not connected"));
+        } else {
+            return CompositeFuture.all(currentShards.stream()
+                    .map(shard -> shard.client.isConnected())
+                    .collect(Collectors.toList()))
+                    .map(ok -> (Void) null);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<HonoClient> connect() {
+        return connect(null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<HonoClient> connect(final ProtonClientOptions options) {
+        return connect(Objects.requireNonNull(options), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<HonoClient> connect(final Handler<ProtonConnection> disconnectHandler) {
+        return connect(null, Objects.requireNonNull(disconnectHandler));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Establishes a connection for the current vert.x Context or, if invoked from
+     * a non vert.x thread, for a newly created Context. If connections have already been
+     * opened, all of them are (re-)connected instead.
+     */
+    @Override
+    public Future<HonoClient> connect(
+            final ProtonClientOptions options,
+            final Handler<ProtonConnection> disconnectHandler) {
+
+        final List<Shard> shardsToConnect = new ArrayList<>();
+        synchronized (shards) {
+            if (shutDown) {
+                return Future.failedFuture(
+                        new ClientErrorException(HttpURLConnection.HTTP_CONFLICT, "client is already shut down"));
+            }
+            this.connectRequested = true;
+            this.clientOptions = options;
+            this.disconnectHandler = disconnectHandler;
+            if (shards.isEmpty()) {
+                shardsToConnect.add(addShard(vertx.getOrCreateContext()));
+            } else {
+                shardsToConnect.addAll(shards);
+            }
+        }
+        return CompositeFuture.all(shardsToConnect.stream()
+                .map(shard -> connectShard(shard))
+                .collect(Collectors.toList()))
+                .map(ok -> (HonoClient) this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect() {
+        for (final Shard shard : removeShards(false)) {
+            shard.client.disconnect();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect(final Handler<AsyncResult<Void>> completionHandler) {
+        Objects.requireNonNull(completionHandler);
+        closeShards(removeShards(false), HonoClient::disconnect, completionHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        for (final Shard shard : removeShards(true)) {
+            shard.client.shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown(final Handler<AsyncResult<Void>> completionHandler) {
+        Objects.requireNonNull(completionHandler);
+        closeShards(removeShards(true), HonoClient::shutdown, completionHandler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsCapability(final Symbol capability) {
+        final List<Shard> currentShards = getShards();
+        return !currentShards.isEmpty() && currentShards.get(0).client.supportsCapability(capability);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageSender> getOrCreateTelemetrySender(final String tenantId) {
+        return getClient().compose(client -> client.getOrCreateTelemetrySender(tenantId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageSender> getOrCreateTelemetrySender(final String tenantId, final String deviceId) {
+        return getClient().compose(client -> client.getOrCreateTelemetrySender(tenantId, deviceId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageSender> getOrCreateEventSender(final String tenantId) {
+        return getClient().compose(client -> client.getOrCreateEventSender(tenantId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageSender> getOrCreateEventSender(final String tenantId, final String deviceId) {
+        return getClient().compose(client -> client.getOrCreateEventSender(tenantId, deviceId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageConsumer> createTelemetryConsumer(
+            final String tenantId,
+            final Consumer<Message> telemetryConsumer,
+            final Handler<Void> closeHandler) {
+        return getClient().compose(client -> client.createTelemetryConsumer(tenantId, telemetryConsumer, closeHandler));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageConsumer> createEventConsumer(
+            final String tenantId,
+            final Consumer<Message> eventConsumer,
+            final Handler<Void> closeHandler) {
+        return getClient().compose(client -> client.createEventConsumer(tenantId, eventConsumer, closeHandler));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<MessageConsumer> createEventConsumer(
+            final String tenantId,
+            final BiConsumer<ProtonDelivery, Message> eventConsumer,
+            final Handler<Void> closeHandler) {
+        return getClient().compose(client -> client.createEventConsumer(tenantId, eventConsumer, closeHandler));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<RegistrationClient> getOrCreateRegistrationClient(final String tenantId) {
+        return getClient().compose(client -> client.getOrCreateRegistrationClient(tenantId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<CredentialsClient> getOrCreateCredentialsClient(final String tenantId) {
+        return getClient().compose(client -> client.getOrCreateCredentialsClient(tenantId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<TenantClient> getOrCreateTenantClient() {
+        return getClient().compose(client -> client.getOrCreateTenantClient());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<CommandClient> getOrCreateCommandClient(final String tenantId, final String deviceId) {
+        return getClient().compose(client -> client.getOrCreateCommandClient(tenantId, deviceId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<CommandClient> getOrCreateCommandClient(final String tenantId, final String deviceId,
+            final String replyId) {
+        return getClient().compose(client -> client.getOrCreateCommandClient(tenantId, deviceId, replyId));
+    }
+
+    //-----------------------------------< private methods >---
+
+    /**
+     * Gets the client to use for the current vert.x Context.
+     * <p>
+     * A new connection is opened for the current Context if none has been
+     * opened for it yet and the maximum number of connections has not been
+     * reached yet.
+     *
+     * @return A future that will be completed with the connected client.
+     */
+    private Future<HonoClient> getClient() {
+
+        final Context currentContext = Vertx.currentContext();
+        final Shard newShard;
+        final Future<HonoClient> result;
+        synchronized (shards) {
+            if (!connectRequested) {
+                return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "not connected"));
+            }
+            final Shard existingShard = currentContext == null ? null : shardsByContext.get(currentContext);
+            if (existingShard != null) {
+                return existingShard.getClient();
+            } else if (currentContext != null && shards.size() < clientConfigProperties.getMaxConnections()) {
+                newShard = addShard(currentContext);
+                result = newShard.getClient();
+            } else if (shards.isEmpty()) {
+                return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "not connected"));
+            } else {
+                final Object affinityKey = currentContext == null ? Thread.currentThread() : currentContext;
+                return shards.get(Math.floorMod(affinityKey.hashCode(), shards.size())).getClient();
+            }
+        }
+        connectShard(newShard);
+        return result;
+    }
+
+    private Shard addShard(final Context context) {
+
+        final HonoClientImpl client = new HonoClientImpl(vertx, connectionFactory, clientConfigProperties);
+        if (cacheProvider != null) {
+            client.setCacheProvider(cacheProvider);
+        }
+        if (tracer != null) {
+            client.setTracer(tracer);
+        }
+        if (metrics != null) {
+            client.setMetrics(metrics);
+        }
+        final Shard shard = new Shard(context, client);
+        shards.add(shard);
+        shardsByContext.put(context, shard);
+        LOG.debug("opening connection [#{}] to server [{}:{}]", shards.size(), connectionFactory.getHost(),
+                connectionFactory.getPort());
+        return shard;
+    }
+
+    private Future<HonoClient> connectShard(final Shard shard) {
+
+        final ProtonClientOptions options;
+        final Handler<ProtonConnection> connectionLossHandler;
+        synchronized (shards) {
+            options = clientOptions;
+            connectionLossHandler = disconnectHandler;
+        }
+        final Future<HonoClient> result = Future.future();
+        // the client uses the Context that it has been connected on
+        // for all further interactions with the peer
+        HonoProtonHelper.<HonoClient> executeOrRunOnContext(
+                shard.context,
+                connectAttempt -> shard.client.connect(options, connectionLossHandler).setHandler(connectAttempt))
+        .setHandler(attempt -> {
+            final List<Future<HonoClient>> waitingRequests;
+            synchronized (shards) {
+                if (attempt.succeeded()) {
+                    shard.connected = true;
+                } else if (!shard.connected && shards.remove(shard)) {
+                    // make sure that a new connection is opened on the next invocation
+                    shardsByContext.remove(shard.context);
+                }
+                waitingRequests = new ArrayList<>(shard.waitingRequests);
+                shard.waitingRequests.clear();
+            }
+            waitingRequests.forEach(request -> request.handle(attempt));
+            result.handle(attempt);
+        });
+        return result;
+    }
+
+    private List<Shard> getShards() {
+        synchronized (shards) {
+            return new ArrayList<>(shards);
+        }
+    }
+
+    private List<Shard> removeShards(final boolean shutdown) {
+        synchronized (shards) {
+            final List<Shard> result = new ArrayList<>(shards);
+            shards.clear();
+            shardsByContext.clear();
+            connectRequested = false;
+            shutDown |= shutdown;
+            return result;
+        }
+    }
+
+    private static void closeShards(
+            final List<Shard> shardsToClose,
+            final BiConsumer<HonoClient, Handler<AsyncResult<Void>>> closeOperation,
+            final Handler<AsyncResult<Void>> completionHandler) {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>();
+        for (final Shard shard : shardsToClose) {
+            final Future<Void> result = Future.future();
+            closeOperation.accept(shard.client, result.completer());
+            results.add(result);
+        }
+        CompositeFuture.all(results).map(ok -> (Void) null).setHandler(completionHandler);
+    }
+
+    /**
+     * A connection to the peer that is bound to a vert.x Context.
+     */
+    private static final class Shard {
+
+        private final Context context;
+        private final HonoClientImpl client;
+        private final List<Future<HonoClient>> waitingRequests = new ArrayList<>();
+        private boolean connected = false;
+
+        private Shard(final Context context, final HonoClientImpl client) {
+            this.context = context;
+            this.client = client;
+        }
+
+        /**
+         * Gets the client of this shard.
+         * <p>
+         * Must be invoked while holding the lock on the list of shards.
+         *
+         * @return A future that will be completed with the client once its
+         *         initial connection attempt has succeeded.
+         */
+        private Future<HonoClient> getClient() {
+            if (connected) {
+                return Future.succeededFuture(client);
+            } else {
+                final Future<HonoClient> result = Future.future();
+                waitingRequests.add(result);
+                return result;
+            }
+        }
+    }
+}
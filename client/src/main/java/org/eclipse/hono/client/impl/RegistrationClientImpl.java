@@ -14,15 +14,21 @@
 package org.eclipse.hono.client.impl;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.hono.cache.CacheProvider;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.RegistrationClient;
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.client.StatusCodeMapper;
 import org.eclipse.hono.config.ClientConfigProperties;
 import org.eclipse.hono.tracing.TracingHelper;
@@ -43,6 +49,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonConnection;
 import io.vertx.proton.ProtonReceiver;
@@ -359,4 +366,157 @@ public class RegistrationClientImpl extends AbstractRequestResponseClient<Regist
             }
         });
     }
+
+    /**
+     * Invokes the <em>Assert Registration of multiple Devices</em> operation of Hono's
+     * <a href="https://www.eclipse.org/hono/api/Device-Registration-API">Device Registration API</a>
+     * on the service represented by the <em>sender</em> and <em>receiver</em> links.
+     * <p>
+     * Assertions are looked up in and added to the response cache on a per device basis,
+     * using the same keys as {@link #assertRegistration(String, String, SpanContext)}.
+     * A request is sent to the service for the devices that are not contained in the cache only.
+     * <p>
+     * If the service does not support the operation, i.e. if it rejects the request message
+     * as being malformed or as not authorized or indicates that the operation is not implemented,
+     * the registrations of the devices are asserted individually instead. The request fails with
+     * the status code returned by the service for any other error response.
+     */
+    @Override
+    public final Future<Map<String, JsonObject>> assertRegistrations(
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext parent) {
+
+        Objects.requireNonNull(deviceIds);
+
+        final Span span = newChildSpan(parent, "assert Device Registrations");
+        span.setTag(MessageHelper.APP_PROPERTY_GATEWAY_ID, gatewayId);
+        final Map<String, RegistrationResult> results = new HashMap<>();
+        final Set<String> misses = new LinkedHashSet<>();
+        for (final String deviceId : deviceIds) {
+            final Future<RegistrationResult> cachedResult = getResponseFromCache(getAssertionCacheKey(deviceId, gatewayId));
+            if (cachedResult.succeeded()) {
+                results.put(deviceId, cachedResult.result());
+            } else {
+                misses.add(deviceId);
+            }
+        }
+        TracingHelper.TAG_CACHE_HIT.set(span, misses.isEmpty());
+
+        final Future<Map<String, RegistrationResult>> allResults;
+        if (misses.isEmpty()) {
+            allResults = Future.succeededFuture(results);
+        } else {
+            final Future<RegistrationResult> batchResult = Future.future();
+            final Map<String, Object> properties = new HashMap<>();
+            if (gatewayId != null) {
+                properties.put(MessageHelper.APP_PROPERTY_GATEWAY_ID, gatewayId);
+            }
+            final JsonObject payload = new JsonObject()
+                    .put(RegistrationConstants.FIELD_DEVICE_IDS, new JsonArray(new ArrayList<>(misses)));
+            createAndSendRequest(
+                    RegistrationConstants.ACTION_ASSERT_BATCH,
+                    properties,
+                    payload.toBuffer(),
+                    RegistrationConstants.CONTENT_TYPE_APPLICATION_JSON,
+                    batchResult.completer(),
+                    null,
+                    span);
+            allResults = batchResult.recover(t -> {
+                if (isBatchOperationNotSupported(t)) {
+                    return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_NOT_IMPLEMENTED));
+                } else {
+                    return Future.failedFuture(t);
+                }
+            }).compose(result -> {
+                if (result.getStatus() == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+                    // service does not support batch assertions
+                    span.log("falling back to asserting registration of devices individually");
+                    return assertIndividually(misses, gatewayId, span.context())
+                            .map(assertions -> {
+                                assertions.forEach((deviceId, assertion) -> results.put(
+                                        deviceId, RegistrationResult.from(HttpURLConnection.HTTP_OK, assertion)));
+                                return results;
+                            });
+                } else if (result.getStatus() != HttpURLConnection.HTTP_OK || result.getPayload() == null) {
+                    return Future.failedFuture(StatusCodeMapper.from(result));
+                }
+                for (final String deviceId : misses) {
+                    final RegistrationResult deviceResult = getDeviceResult(result.getPayload().getJsonObject(deviceId));
+                    addToCache(getAssertionCacheKey(deviceId, gatewayId), deviceResult);
+                    results.put(deviceId, deviceResult);
+                }
+                return Future.succeededFuture(results);
+            });
+        }
+
+        return allResults.map(r -> {
+            final Map<String, JsonObject> assertions = new HashMap<>();
+            r.forEach((deviceId, result) -> {
+                if (result.isOk()) {
+                    assertions.put(deviceId, result.getPayload());
+                } else if (result.getStatus() >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                    throw StatusCodeMapper.from(result);
+                }
+            });
+            span.finish();
+            return assertions;
+        }).recover(t -> {
+            TracingHelper.logError(span, t);
+            span.finish();
+            return Future.failedFuture(t);
+        });
+    }
+
+    /**
+     * Checks if the failure of a batch assertion request indicates that the service
+     * does not support the operation.
+     * <p>
+     * This is the case if the service has rejected the request message as being malformed,
+     * which is how services that do not know the operation reject requests having an unknown
+     * subject, if the service has rejected the request message as not authorized, which is
+     * the case if the client has not been granted permission to execute the operation, or
+     * if the service does not implement the operation.
+     *
+     * @param failure The cause of the failure.
+     * @return {@code true} if the operation is not supported.
+     */
+    private static boolean isBatchOperationNotSupported(final Throwable failure) {
+
+        switch (ServiceInvocationException.extractStatusCode(failure)) {
+        case HttpURLConnection.HTTP_BAD_REQUEST:
+        case HttpURLConnection.HTTP_FORBIDDEN:
+        case HttpURLConnection.HTTP_NOT_IMPLEMENTED:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private Future<Map<String, JsonObject>> assertIndividually(
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext parent) {
+
+        return RegistrationClient.super.assertRegistrations(deviceIds, gatewayId, parent);
+    }
+
+    private static TriTuple<String, String, String> getAssertionCacheKey(final String deviceId, final String gatewayId) {
+        return TriTuple.of(RegistrationConstants.ACTION_ASSERT, deviceId, gatewayId);
+    }
+
+    private static RegistrationResult getDeviceResult(final JsonObject entry) {
+
+        if (entry == null) {
+            throw new ServerErrorException(HttpURLConnection.HTTP_INTERNAL_ERROR, "response lacks device result");
+        }
+        final Integer status = entry.getInteger(RegistrationConstants.FIELD_STATUS);
+        if (status == null) {
+            throw new ServerErrorException(HttpURLConnection.HTTP_INTERNAL_ERROR, "device result lacks status code");
+        }
+        return RegistrationResult.from(
+                status,
+                entry.getJsonObject(RegistrationConstants.FIELD_PAYLOAD),
+                CacheDirective.from(entry.getString(RegistrationConstants.FIELD_CACHE_CONTROL)));
+    }
 }
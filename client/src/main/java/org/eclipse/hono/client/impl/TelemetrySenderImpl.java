@@ -15,6 +15,7 @@ package org.eclipse.hono.client.impl;
 
 import java.net.HttpURLConnection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -38,6 +39,7 @@ import io.opentracing.log.Fields;
 import io.opentracing.propagation.Format;
 import io.opentracing.tag.Tags;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -168,6 +170,20 @@ public final class TelemetrySenderImpl extends AbstractSender {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The messages are sent using {@link #sendMessageAndWaitForOutcome(Message, Span)}
+     * as part of a single task on this sender's vert.x context.
+     */
+    @Override
+    public CompositeFuture sendAndWaitForOutcome(final List<Message> messages, final SpanContext parent) {
+
+        // we create child spans (instead of following spans) because we depend
+        // on the outcome of the sending operation
+        return sendBatch(messages, parent, this::startChildSpan, this::sendMessageAndWaitForOutcome);
+    }
+
     /**
      * Sends an AMQP 1.0 message to the peer this client is configured for.
      * 
@@ -200,7 +216,7 @@ public final class TelemetrySenderImpl extends AbstractSender {
         details.put(TracingHelper.TAG_QOS.getKey(), sender.getQoS().toString());
         currentSpan.log(details);
 
-        final ProtonDelivery result = sender.send(message, deliveryUpdated -> {
+        final ProtonDelivery result = sendOverLink(message, deliveryUpdated -> {
             final DeliveryState remoteState = deliveryUpdated.getRemoteState();
             if (deliveryUpdated.remotelySettled()) {
                 if (Accepted.class.isInstance(remoteState)) {
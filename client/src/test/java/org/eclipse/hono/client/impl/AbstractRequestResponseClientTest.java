@@ -24,6 +24,7 @@ import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.vertx.core.buffer.Buffer;
 import org.apache.qpid.proton.amqp.messaging.Data;
@@ -31,6 +32,7 @@ import org.apache.qpid.proton.amqp.messaging.Rejected;
 import org.apache.qpid.proton.amqp.transport.Target;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.cache.ExpiringValueCache;
+import org.eclipse.hono.client.HonoClientMetrics;
 import org.eclipse.hono.client.RequestResponseClientConfigProperties;
 import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.config.ClientConfigProperties;
@@ -156,8 +158,41 @@ public class AbstractRequestResponseClientTest  {
         assertThat(body.getBytes(), is(payload.toBuffer().getBytes()));
         assertThat(messageCaptor.getValue().getApplicationProperties(), is(notNullValue()));
         assertThat(messageCaptor.getValue().getApplicationProperties().getValue().get("test-key"), is("test-value"));
-        // and a timer has been set to time out the request after 200 ms
-        verify(vertx).setTimer(eq(200L), any(Handler.class));
+        // and the request has been scheduled for timing out using ticks of 20 ms
+        verify(vertx).setPeriodic(eq(20L), any(Handler.class));
+        verify(vertx, never()).setTimer(anyLong(), any(Handler.class));
+    }
+
+    /**
+     * Verifies that the timeout of a request is cancelled when the response
+     * to the request is received.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHandleResponseCancelsRequestTimeout(final TestContext ctx) {
+
+        // GIVEN a request-response client that times out requests after 200 ms
+        client.setRequestTimeout(200);
+        when(vertx.setPeriodic(anyLong(), any(Handler.class))).thenReturn(5L);
+
+        // and a request that has been sent to the peer
+        final Async responseReceived = ctx.async();
+        client.createAndSendRequest("get", (Buffer) null, ctx.asyncAssertSuccess(result -> responseReceived.complete()));
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+        verify(vertx).setPeriodic(eq(20L), any(Handler.class));
+
+        // WHEN the response is received
+        final Message response = ProtonHelper.message("result");
+        MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        response.setCorrelationId(messageCaptor.getValue().getMessageId());
+        client.handleResponse(mock(ProtonDelivery.class), response);
+
+        // THEN the timer for timing out requests is stopped
+        responseReceived.await();
+        verify(vertx).cancelTimer(5L);
     }
 
     /**
@@ -220,6 +255,7 @@ public class AbstractRequestResponseClientTest  {
         // THEN the response is passed to the handler registered with the request
         responseReceived.await();
         verify(vertx, never()).setTimer(anyLong(), any(Handler.class));
+        verify(vertx, never()).setPeriodic(anyLong(), any(Handler.class));
     }
 
     /**
@@ -235,20 +271,50 @@ public class AbstractRequestResponseClientTest  {
 
         // GIVEN a request-response client which times out requests after 200 ms
         client.setRequestTimeout(200);
+        final AtomicReference<Handler<Long>> tickHandler = new AtomicReference<>();
+        when(vertx.setPeriodic(anyLong(), any(Handler.class))).thenAnswer(invocation -> {
+            tickHandler.set(invocation.getArgument(1));
+            return 5L;
+        });
 
         // WHEN no response is received for a request sent to the peer
-        doAnswer(invocation -> {
-            // do not wait 200ms before running the timeout task but instead
-            // run it immediately
-            final Handler<Long> task = invocation.getArgument(1);
-            task.handle(1L);
-            return null;
-        }).when(vertx).setTimer(anyLong(), any(Handler.class));
         final Async requestFailure = ctx.async();
         client.createAndSendRequest("request", null, (Buffer) null, ctx.asyncAssertFailure(t -> {
             ctx.assertTrue(ServerErrorException.class.isInstance(t));
             requestFailure.complete();
         }));
+        // within 10 ticks of 20 ms
+        for (int i = 0; i < 10; i++) {
+            tickHandler.get().handle(5L);
+        }
+        ctx.assertFalse(requestFailure.isCompleted());
+        // and after the partially elapsed tick during which the request has been sent
+        tickHandler.get().handle(5L);
+
+        // THEN the request handler is failed
+        requestFailure.await();
+        // and the timer for advancing the timing wheel is stopped
+        verify(vertx).cancelTimer(5L);
+    }
+
+    /**
+     * Verifies that requests which are still waiting for a response are failed
+     * when the client is closed.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testCloseFailsPendingRequests(final TestContext ctx) {
+
+        // GIVEN a request-response client which has sent a request
+        final Async requestFailure = ctx.async();
+        client.createAndSendRequest("request", null, (Buffer) null, ctx.asyncAssertFailure(t -> {
+            ctx.assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, ((ServerErrorException) t).getErrorCode());
+            requestFailure.complete();
+        }));
+
+        // WHEN the client is closed before a response has been received
+        client.close(closed -> {});
 
         // THEN the request handler is failed
         requestFailure.await();
@@ -416,6 +482,88 @@ public class AbstractRequestResponseClientTest  {
         verify(cache, never()).put(eq("cacheKey"), any(SimpleRequestResponseResult.class), any(Duration.class));
     }
 
+    /**
+     * Verifies that the client does not send a request to the peer if a request
+     * with the same cache key is already in flight but instead completes both
+     * requests with the response to the in-flight request.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCreateAndSendRequestCoalescesRequestsWithSameCacheKey(final TestContext ctx) {
+
+        // GIVEN a request that has been sent to the peer
+        final HonoClientMetrics metrics = mock(HonoClientMetrics.class);
+        client.setMetrics(metrics);
+        final Async responsesReceived = ctx.async(2);
+        client.createAndSendRequest("get", (Buffer) null, ctx.asyncAssertSuccess(result -> {
+            ctx.assertEquals(HttpURLConnection.HTTP_OK, result.getStatus());
+            responsesReceived.countDown();
+        }), "cacheKey");
+
+        // WHEN sending an identical request before the response has been received
+        client.createAndSendRequest("get", (Buffer) null, ctx.asyncAssertSuccess(result -> {
+            ctx.assertEquals(HttpURLConnection.HTTP_OK, result.getStatus());
+            responsesReceived.countDown();
+        }), "cacheKey");
+
+        // THEN only the first request is sent to the peer
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+        // and the coalesced request is reported to the metrics
+        verify(metrics).incrementCoalescedRequests("peer");
+
+        // and both requests are completed with the response to the first request
+        final Message response = ProtonHelper.message("result");
+        MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        response.setCorrelationId(messageCaptor.getValue().getMessageId());
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        client.handleResponse(delivery, response);
+        responsesReceived.await();
+
+        // and a subsequent request is sent to the peer again
+        client.createAndSendRequest("get", (Buffer) null, s -> {}, "cacheKey");
+        verify(sender, times(2)).send(any(Message.class), any(Handler.class));
+    }
+
+    /**
+     * Verifies that the client fails a request and all requests coalesced with it
+     * if the response lacks a status code and that a subsequent request with
+     * the same cache key is sent to the peer again.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHandleResponseFailsCoalescedRequestsForMalformedResponse(final TestContext ctx) {
+
+        // GIVEN a request that has been sent to the peer
+        // and an identical request that has been coalesced with it
+        final Async requestsFailed = ctx.async(2);
+        client.createAndSendRequest("get", (Buffer) null, ctx.asyncAssertFailure(t -> {
+            ctx.assertEquals(HttpURLConnection.HTTP_INTERNAL_ERROR, ((ServerErrorException) t).getErrorCode());
+            requestsFailed.countDown();
+        }), "cacheKey");
+        client.createAndSendRequest("get", (Buffer) null, ctx.asyncAssertFailure(t -> {
+            requestsFailed.countDown();
+        }), "cacheKey");
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+
+        // WHEN a response is received that does not contain a status code
+        final Message response = ProtonHelper.message("result");
+        response.setCorrelationId(messageCaptor.getValue().getMessageId());
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        client.handleResponse(delivery, response);
+
+        // THEN both requests are failed
+        requestsFailed.await();
+        // and a subsequent request with the same cache key is sent to the peer again
+        client.createAndSendRequest("get", (Buffer) null, s -> {}, "cacheKey");
+        verify(sender, times(2)).send(any(Message.class), any(Handler.class));
+    }
+
     private AbstractRequestResponseClient<SimpleRequestResponseResult> getClient(final String tenant, final ProtonSender sender, final ProtonReceiver receiver) {
 
         return new AbstractRequestResponseClient<SimpleRequestResponseResult>(context, new ClientConfigProperties(), tenant, sender, receiver) {
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+
+import org.apache.qpid.proton.message.Message;
+import org.eclipse.hono.cache.ExpiringValueCache;
+import org.eclipse.hono.client.RequestResponseClientConfigProperties;
+import org.eclipse.hono.util.CacheDirective;
+import org.eclipse.hono.util.CredentialsConstants;
+import org.eclipse.hono.util.CredentialsObject;
+import org.eclipse.hono.util.CredentialsResult;
+import org.eclipse.hono.util.MessageHelper;
+import org.eclipse.hono.util.TriTuple;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.proton.ProtonDelivery;
+import io.vertx.proton.ProtonHelper;
+import io.vertx.proton.ProtonReceiver;
+import io.vertx.proton.ProtonSender;
+
+
+/**
+ * Tests verifying behavior of {@link CredentialsClientImpl}.
+ *
+ */
+@RunWith(VertxUnitRunner.class)
+public class CredentialsClientImplTest {
+
+    /**
+     * Time out test cases after 5 seconds.
+     */
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(5);
+
+    private Vertx vertx;
+    private Context context;
+    private ProtonSender sender;
+    private CredentialsClientImpl client;
+    private ExpiringValueCache<Object, CredentialsResult<CredentialsObject>> cache;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+
+        vertx = mock(Vertx.class);
+        context = HonoClientUnitTestHelper.mockContext(vertx);
+        final ProtonReceiver receiver = HonoClientUnitTestHelper.mockProtonReceiver();
+        sender = HonoClientUnitTestHelper.mockProtonSender();
+
+        cache = mock(ExpiringValueCache.class);
+        final RequestResponseClientConfigProperties config = new RequestResponseClientConfigProperties();
+        client = new CredentialsClientImpl(context, config, "tenant", sender, receiver);
+    }
+
+    /**
+     * Verifies that on a cache miss the client retrieves credentials
+     * from the Credentials service and puts them to the cache.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetCredentialsAddsResponseToCacheOnCacheMiss(final TestContext ctx) {
+
+        // GIVEN a client with an empty cache
+        client.setResponseCache(cache);
+        final JsonObject credentialsObject = newCredentialsResult("device", "auth-id");
+
+        // WHEN getting credentials
+        final Async get = ctx.async();
+        client.get(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id").setHandler(ctx.asyncAssertSuccess(credentials -> {
+            ctx.assertEquals("device", credentials.getDeviceId());
+            get.complete();
+        }));
+
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+        final Message response = ProtonHelper.message(credentialsObject.encode());
+        MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        MessageHelper.addCacheDirective(response, CacheDirective.maxAgeDirective(60));
+        response.setCorrelationId(messageCaptor.getValue().getMessageId());
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        client.handleResponse(delivery, response);
+
+        // THEN the credentials have been added to the cache
+        get.await();
+        verify(cache).put(
+                eq(TriTuple.of(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id", new JsonObject())),
+                any(CredentialsResult.class),
+                eq(Duration.ofSeconds(60)));
+    }
+
+    /**
+     * Verifies that credentials are taken from the cache if the cache contains
+     * a response for the same type and authentication identifier.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetCredentialsReturnsValueFromCache(final TestContext ctx) {
+
+        // GIVEN a client with a cache containing credentials
+        client.setResponseCache(cache);
+        final CredentialsResult<CredentialsObject> credentialsResult = client.getResult(
+                HttpURLConnection.HTTP_OK, "application/json", newCredentialsResult("device", "auth-id").toBuffer(), null);
+        when(cache.get(eq(TriTuple.of(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id", new JsonObject()))))
+            .thenReturn(credentialsResult);
+
+        // WHEN getting credentials
+        client.get(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id").setHandler(ctx.asyncAssertSuccess(result -> {
+            // THEN the credentials are read from the cache
+            assertThat(result.getDeviceId(), is("device"));
+            verify(sender, never()).send(any(Message.class), any(Handler.class));
+        }));
+    }
+
+    /**
+     * Verifies that invalidating credentials removes them from the cache.
+     */
+    @Test
+    public void testInvalidateRemovesResponseFromCache() {
+
+        // GIVEN a client with a cache
+        client.setResponseCache(cache);
+
+        // WHEN invalidating credentials
+        client.invalidate(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id");
+
+        // THEN the credentials are removed from the cache
+        verify(cache).remove(eq(TriTuple.of(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "auth-id", new JsonObject())));
+    }
+
+    private static JsonObject newCredentialsResult(final String deviceId, final String authId) {
+
+        return new JsonObject()
+                .put(CredentialsConstants.FIELD_PAYLOAD_DEVICE_ID, deviceId)
+                .put(CredentialsConstants.FIELD_TYPE, CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD)
+                .put(CredentialsConstants.FIELD_AUTH_ID, authId);
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Tests verifying behavior of {@link HashedTimingWheel}.
+ *
+ */
+public class HashedTimingWheelTest {
+
+    private Vertx vertx;
+    private AtomicReference<Handler<Long>> tickHandler;
+    private List<Object> expiredKeys;
+    private HashedTimingWheel wheel;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+
+        vertx = mock(Vertx.class);
+        tickHandler = new AtomicReference<>();
+        when(vertx.setPeriodic(anyLong(), any(Handler.class))).thenAnswer(invocation -> {
+            tickHandler.set(invocation.getArgument(1));
+            return 1L;
+        });
+        expiredKeys = new ArrayList<>();
+        // a wheel with four slots of 10 ms each
+        wheel = new HashedTimingWheel(vertx, 10, 4, expiredKeys::add);
+    }
+
+    /**
+     * Verifies that keys whose delay exceeds a full revolution of the wheel
+     * do not expire prematurely.
+     */
+    @Test
+    public void testScheduleSupportsDelaysExceedingWheelRevolution() {
+
+        // GIVEN a key that expires after 25 ms and another one that
+        // expires after 95 ms, i.e. more than two revolutions of the wheel
+        wheel.schedule("short", 25);
+        wheel.schedule("long", 95);
+
+        // WHEN the wheel advances by four ticks
+        advance(4);
+        // THEN only the first key has expired
+        assertEquals(Arrays.asList("short"), expiredKeys);
+
+        // and WHEN the wheel advances another 6 ticks
+        advance(6);
+        // THEN the second key has not expired yet
+        assertEquals(1, expiredKeys.size());
+
+        // but expires on the next tick
+        advance(1);
+        assertEquals(Arrays.asList("short", "long"), expiredKeys);
+    }
+
+    /**
+     * Verifies that the wheel's timer is only running while keys are scheduled.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testTimerIsStoppedWhenWheelIsEmpty() {
+
+        // GIVEN a wheel with a single scheduled key
+        wheel.schedule("key", 10);
+        verify(vertx).setPeriodic(eq(10L), any(Handler.class));
+
+        // WHEN the key expires
+        advance(2);
+
+        // THEN the timer is stopped
+        assertTrue(wheel.size() == 0);
+        verify(vertx).cancelTimer(1L);
+
+        // and is restarted when scheduling another key
+        wheel.schedule("other key", 10);
+        verify(vertx, times(2)).setPeriodic(eq(10L), any(Handler.class));
+    }
+
+    /**
+     * Verifies that a cancelled key does not expire and that the wheel's timer
+     * is stopped once all scheduled keys have been cancelled.
+     */
+    @Test
+    public void testCancelPreventsExpirationAndStopsTimer() {
+
+        // GIVEN a wheel with two scheduled keys
+        final HashedTimingWheel.Timeout first = wheel.schedule("first", 10);
+        final HashedTimingWheel.Timeout second = wheel.schedule("second", 10);
+
+        // WHEN the first key is cancelled
+        first.cancel();
+
+        // THEN only the second key expires
+        advance(2);
+        assertEquals(Arrays.asList("second"), expiredKeys);
+        verify(vertx).cancelTimer(1L);
+
+        // and WHEN a key is scheduled and cancelled before it expires
+        final HashedTimingWheel.Timeout third = wheel.schedule("third", 30);
+        third.cancel();
+
+        // THEN the timer is stopped without waiting for the key's slot
+        assertEquals(0, wheel.size());
+        verify(vertx, times(2)).cancelTimer(1L);
+        // and cancelling an expired key has no effect
+        second.cancel();
+        assertEquals(0, wheel.size());
+    }
+
+    private void advance(final int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tickHandler.get().handle(1L);
+        }
+    }
+}
@@ -19,8 +19,14 @@ import static org.mockito.Mockito.*;
 import java.net.HttpURLConnection;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Received;
+import org.apache.qpid.proton.message.Message;
 
 import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.client.HonoClientMetrics;
 import org.eclipse.hono.client.MessageSender;
 import org.eclipse.hono.client.RegistrationClient;
 import org.eclipse.hono.client.RequestResponseClient;
@@ -46,6 +52,8 @@ import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.proton.ProtonClientOptions;
 import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonDelivery;
+import io.vertx.proton.ProtonSender;
 
 /**
  * Test cases verifying the behavior of {@code HonoClient}.
@@ -175,33 +183,45 @@ public class HonoClientImplTest {
     }
 
     /**
-     * Verifies that a concurrent request to create a request-response client fails the given
-     * future for tracking the attempt.
+     * Verifies that a concurrent request to create a request-response client waits for the
+     * ongoing attempt to create the client and shares its outcome.
      * 
      * @param ctx The helper to use for running async tests.
      */
     @Test
-    public void testGetOrCreateRequestResponseClientFailsIfInvokedConcurrently(final TestContext ctx) {
+    public void testGetOrCreateRequestResponseClientWaitsForConcurrentAttempt(final TestContext ctx) {
 
         // GIVEN a client that already tries to create a registration client for "tenant"
+        final HonoClientMetrics metrics = mock(HonoClientMetrics.class);
+        client.setMetrics(metrics);
         final Async connected = ctx.async();
         client.connect(new ProtonClientOptions()).setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
         connected.await();
 
+        final Future<RequestResponseClient> creationAttempt = Future.future();
+        final Async firstAttempt = ctx.async();
         client.getOrCreateRequestResponseClient(
                 "registration/tenant",
-                () -> Future.future());
+                () -> creationAttempt).setHandler(ctx.asyncAssertSuccess(c -> firstAttempt.complete()));
 
         // WHEN an additional, concurrent attempt is made to create a client for "tenant"
+        final Async concurrentAttempt = ctx.async();
         client.getOrCreateRequestResponseClient(
                 "registration/tenant",
                 () -> {
                     ctx.fail("should not create concurrent client");
                     return Future.succeededFuture(mock(RegistrationClient.class));
-                }).setHandler(ctx.asyncAssertFailure(t -> {
-                    // THEN the concurrent attempt fails without any attempt being made to create another client
-                    ctx.assertTrue(ServerErrorException.class.isInstance(t));
-                }));
+                }).setHandler(ctx.asyncAssertSuccess(c -> concurrentAttempt.complete()));
+
+        // and the ongoing attempt succeeds
+        final RegistrationClient registrationClient = mock(RegistrationClient.class);
+        client.context.runOnContext(go -> creationAttempt.complete(registrationClient));
+
+        // THEN both attempts succeed without any attempt being made to create another client
+        firstAttempt.await();
+        concurrentAttempt.await();
+        // and the time it took to establish the link has been reported
+        verify(metrics).reportLinkEstablished(eq("registration"), anyLong());
     }
 
     /**
@@ -238,14 +258,16 @@ public class HonoClientImplTest {
     }
 
     /**
-     * Verifies that a concurrent request to create a sender fails the given future for tracking the attempt.
+     * Verifies that a concurrent request to create a sender fails the given future for tracking the attempt
+     * if the ongoing attempt to create the sender does not complete in time.
      * 
      * @param ctx The helper to use for running async tests.
      */
     @Test
-    public void testGetOrCreateTelemetrySenderFailsIfInvokedConcurrently(final TestContext ctx) {
+    public void testGetOrCreateTelemetrySenderFailsIfConcurrentAttemptTimesOut(final TestContext ctx) {
 
         // GIVEN a client that already tries to create a telemetry sender for "tenant"
+        props.setLinkEstablishmentTimeout(50L);
         final Async connected = ctx.async();
         client.connect(new ProtonClientOptions()).setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
         connected.await();
@@ -253,6 +275,7 @@ public class HonoClientImplTest {
         client.getOrCreateSender("telemetry/tenant", () -> Future.future());
 
         // WHEN an additional, concurrent attempt is made to create a telemetry sender for "tenant"
+        // and the ongoing attempt does not complete within the link establishment timeout
         client.getOrCreateSender(
                 "telemetry/tenant",
                 () -> {
@@ -333,6 +356,151 @@ public class HonoClientImplTest {
         creationFailure.await();
     }
 
+    /**
+     * Verifies that the least recently used sender is closed when creating a new sender
+     * would exceed the maximum number of links.
+     * 
+     * @param ctx The Vertx test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetOrCreateSenderEvictsLeastRecentlyUsedSender(final TestContext ctx) {
+
+        // GIVEN a client that keeps at most two links open
+        props.setMaxLinks(2);
+        final HonoClientMetrics metrics = mock(HonoClientMetrics.class);
+        client.setMetrics(metrics);
+        final Async connected = ctx.async();
+        client.connect(new ProtonClientOptions()).setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+
+        // and has created senders for tenants "one" and "two"
+        final MessageSender senderOne = mockOpenSender();
+        final MessageSender senderTwo = mockOpenSender();
+        final Async sendersCreated = ctx.async();
+        client.getOrCreateSender("telemetry/one", () -> Future.succeededFuture(senderOne))
+            .compose(one -> client.getOrCreateSender("telemetry/two", () -> Future.succeededFuture(senderTwo)))
+            // and has used the sender for tenant "one" afterwards
+            .compose(two -> client.getOrCreateSender("telemetry/one", () -> {
+                ctx.fail("should reuse existing sender");
+                return Future.succeededFuture(senderOne);
+            })).setHandler(ctx.asyncAssertSuccess(one -> sendersCreated.complete()));
+        sendersCreated.await();
+
+        // WHEN creating a sender for another tenant
+        final Async senderCreated = ctx.async();
+        client.getOrCreateSender("telemetry/three", () -> Future.succeededFuture(mockOpenSender()))
+            .setHandler(ctx.asyncAssertSuccess(three -> senderCreated.complete()));
+        senderCreated.await();
+
+        // THEN the least recently used sender has been closed
+        verify(senderTwo).close(any(Handler.class));
+        verify(senderOne, never()).close(any(Handler.class));
+        verify(metrics).incrementEvictedLinks("telemetry");
+        // and is re-created on demand
+        final Async senderRecreated = ctx.async();
+        client.getOrCreateSender("telemetry/two", () -> {
+            senderRecreated.complete();
+            return Future.succeededFuture(mockOpenSender());
+        });
+        senderRecreated.await();
+    }
+
+    /**
+     * Verifies that a sender which is waiting for the outcome of a message is not closed
+     * when creating a new sender exceeds the maximum number of links.
+     * 
+     * @param ctx The Vertx test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetOrCreateSenderDoesNotEvictSenderWithUnsettledDeliveries(final TestContext ctx) {
+
+        // GIVEN a client that keeps at most one link open
+        props.setMaxLinks(1);
+        final Async connected = ctx.async();
+        client.connect(new ProtonClientOptions()).setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+
+        // and has created a sender
+        final ProtonSender protonSender = HonoClientUnitTestHelper.mockProtonSender();
+        final AtomicReference<Handler<ProtonDelivery>> deliveryHandler = new AtomicReference<>();
+        when(protonSender.send(any(Message.class), any(Handler.class))).thenAnswer(invocation -> {
+            deliveryHandler.set(invocation.getArgument(1));
+            return mock(ProtonDelivery.class);
+        });
+        final MessageSender senderOne = new TelemetrySenderImpl(props, protonSender, "one", "telemetry/one",
+                HonoClientUnitTestHelper.mockContext(mock(Vertx.class)));
+        final Async senderOneCreated = ctx.async();
+        client.getOrCreateSender("telemetry/one", () -> Future.succeededFuture(senderOne))
+            .setHandler(ctx.asyncAssertSuccess(one -> senderOneCreated.complete()));
+        senderOneCreated.await();
+
+        // which has sent a message that has not been settled yet
+        senderOne.send("device", "hello", "text/plain", "token");
+        // but for which the peer has already sent a non-settling disposition
+        final ProtonDelivery received = mock(ProtonDelivery.class);
+        when(received.remotelySettled()).thenReturn(Boolean.FALSE);
+        when(received.getRemoteState()).thenReturn(new Received());
+        deliveryHandler.get().handle(received);
+
+        // WHEN creating a sender for another tenant
+        final Async senderTwoCreated = ctx.async();
+        client.getOrCreateSender("telemetry/two", () -> Future.succeededFuture(mockOpenSender()))
+            .setHandler(ctx.asyncAssertSuccess(two -> senderTwoCreated.complete()));
+        senderTwoCreated.await();
+
+        // THEN the sender is not closed
+        verify(protonSender, never()).close();
+
+        // but is closed when creating another sender after the message has been settled
+        final ProtonDelivery accepted = mock(ProtonDelivery.class);
+        when(accepted.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(accepted.getRemoteState()).thenReturn(Accepted.getInstance());
+        deliveryHandler.get().handle(accepted);
+        final Async senderThreeCreated = ctx.async();
+        client.getOrCreateSender("telemetry/three", () -> Future.succeededFuture(mockOpenSender()))
+            .setHandler(ctx.asyncAssertSuccess(three -> senderThreeCreated.complete()));
+        senderThreeCreated.await();
+        verify(protonSender).close();
+    }
+
+    /**
+     * Verifies that a sender is closed once it has not been used for the configured
+     * idle timeout.
+     * 
+     * @param ctx The Vertx test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIdleSenderIsClosed(final TestContext ctx) {
+
+        // GIVEN a client that closes links that have been idle for 50ms
+        props.setLinkIdleTimeout(50L);
+        final Async connected = ctx.async();
+        client.connect(new ProtonClientOptions()).setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+
+        // WHEN a sender is created but is not used afterwards
+        final MessageSender sender = mockOpenSender();
+        final Async senderClosed = ctx.async();
+        doAnswer(invocation -> {
+            senderClosed.complete();
+            return null;
+        }).when(sender).close(any(Handler.class));
+        client.getOrCreateSender("telemetry/tenant", () -> Future.succeededFuture(sender))
+            .setHandler(ctx.asyncAssertSuccess());
+
+        // THEN the sender is closed
+        senderClosed.await();
+    }
+
+    private static MessageSender mockOpenSender() {
+        final MessageSender sender = mock(MessageSender.class);
+        when(sender.isOpen()).thenReturn(Boolean.TRUE);
+        return sender;
+    }
+
     /**
      * Verifies that all sender creation locks are cleared when the connection to the server fails.
      * 
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.client.impl;
+
+import static org.mockito.Mockito.*;
+
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.config.ClientConfigProperties;
+import org.eclipse.hono.connection.ConnectionFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.proton.ProtonClientOptions;
+import io.vertx.proton.ProtonConnection;
+
+/**
+ * Test cases verifying the behavior of {@link PooledHonoClientImpl}.
+ *
+ */
+@RunWith(VertxUnitRunner.class)
+public class PooledHonoClientImplTest {
+
+    /**
+     * Global timeout for each test case.
+     */
+    @Rule
+    public Timeout timeout = Timeout.seconds(3);
+
+    private static Vertx vertx;
+
+    private final List<Context> connectContexts = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failConnectionAttempts = new AtomicBoolean(false);
+    private ConnectionFactory connectionFactory;
+    private ClientConfigProperties props;
+    private PooledHonoClientImpl client;
+
+    /**
+     * Sets up vertx.
+     */
+    @BeforeClass
+    public static void setUpVertx() {
+        vertx = Vertx.vertx();
+    }
+
+    /**
+     * Sets up fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+
+        // the connection is reported as being disconnected so that
+        // the clients do not try to open any links on it
+        final ProtonConnection con = mock(ProtonConnection.class);
+        when(con.isDisconnected()).thenReturn(Boolean.TRUE);
+        connectionFactory = mock(ConnectionFactory.class);
+        doAnswer(invocation -> {
+            connectContexts.add(Vertx.currentContext());
+            final Handler<AsyncResult<ProtonConnection>> resultHandler = invocation.getArgument(3);
+            if (failConnectionAttempts.get()) {
+                resultHandler.handle(Future.failedFuture(new IllegalStateException("connection refused")));
+            } else {
+                resultHandler.handle(Future.succeededFuture(con));
+            }
+            return null;
+        }).when(connectionFactory).connect(any(ProtonClientOptions.class), any(Handler.class), any(Handler.class), any(Handler.class));
+        props = new ClientConfigProperties();
+        props.setReconnectAttempts(0);
+        props.setMaxConnections(2);
+        client = new PooledHonoClientImpl(vertx, connectionFactory, props);
+    }
+
+    /**
+     * Cleans up after test execution.
+     *
+     * @param ctx The helper to use for running async tests.
+     */
+    @AfterClass
+    public static void shutdown(final TestContext ctx) {
+        if (vertx != null) {
+            vertx.close(ctx.asyncAssertSuccess());
+        }
+    }
+
+    /**
+     * Verifies that the client opens a separate connection for each vert.x Context
+     * that it is invoked from until the maximum number of connections is reached.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testClientOpensConnectionPerContext(final TestContext ctx) {
+
+        // GIVEN a connected client that may open two connections
+        final Async connected = ctx.async();
+        client.connect().setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+        ctx.assertEquals(1, client.getNumberOfConnections());
+
+        // WHEN the client is invoked from another Context
+        final Context firstContext = vertx.getOrCreateContext();
+        invokeOnContext(ctx, firstContext);
+
+        // THEN a new connection is established on that Context
+        ctx.assertEquals(2, connectContexts.size());
+        ctx.assertEquals(firstContext, connectContexts.get(1));
+        ctx.assertEquals(2, client.getNumberOfConnections());
+
+        // and the connection is reused for subsequent invocations from that Context
+        invokeOnContext(ctx, firstContext);
+        ctx.assertEquals(2, connectContexts.size());
+
+        // and no more connections are opened for other Contexts
+        invokeOnContext(ctx, vertx.getOrCreateContext());
+        ctx.assertEquals(2, connectContexts.size());
+        ctx.assertEquals(2, client.getNumberOfConnections());
+    }
+
+    /**
+     * Verifies that a connection that could not be established is removed
+     * from the pool so that it is re-established on the next invocation.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testFailedConnectionIsRemovedFromPool(final TestContext ctx) {
+
+        // GIVEN a connected client
+        final Async connected = ctx.async();
+        client.connect().setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+
+        // WHEN the client is invoked from another Context while the server refuses connections
+        failConnectionAttempts.set(true);
+        final Context otherContext = vertx.getOrCreateContext();
+        invokeOnContext(ctx, otherContext);
+
+        // THEN the failed connection is not kept in the pool
+        ctx.assertEquals(1, client.getNumberOfConnections());
+
+        // and is re-established on the next invocation from that Context
+        failConnectionAttempts.set(false);
+        invokeOnContext(ctx, otherContext);
+        ctx.assertEquals(2, client.getNumberOfConnections());
+        ctx.assertEquals(otherContext, connectContexts.get(connectContexts.size() - 1));
+    }
+
+    /**
+     * Verifies that the client cannot be connected again after it has been shut down.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testConnectFailsAfterShutdown(final TestContext ctx) {
+
+        // GIVEN a client that has been shut down
+        final Async connected = ctx.async();
+        client.connect().setHandler(ctx.asyncAssertSuccess(ok -> connected.complete()));
+        connected.await();
+        final Async shutdown = ctx.async();
+        client.shutdown(ctx.asyncAssertSuccess(ok -> shutdown.complete()));
+        shutdown.await();
+        ctx.assertEquals(0, client.getNumberOfConnections());
+
+        // WHEN trying to connect the client again
+        client.connect().setHandler(ctx.asyncAssertFailure(t -> {
+            // THEN the attempt fails
+            ctx.assertEquals(HttpURLConnection.HTTP_CONFLICT, ((ClientErrorException) t).getErrorCode());
+        }));
+    }
+
+    private void invokeOnContext(final TestContext ctx, final Context context) {
+        final Async invocation = ctx.async();
+        context.runOnContext(go -> client.getOrCreateTelemetrySender("tenant").setHandler(r -> invocation.complete()));
+        invocation.await();
+    }
+}
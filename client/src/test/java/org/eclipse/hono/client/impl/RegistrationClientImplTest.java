@@ -23,10 +23,16 @@ import java.net.HttpURLConnection;
 import java.sql.Date;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 
+import org.apache.qpid.proton.amqp.messaging.Rejected;
+import org.apache.qpid.proton.amqp.transport.AmqpError;
+import org.apache.qpid.proton.amqp.transport.ErrorCondition;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.cache.ExpiringValueCache;
 import org.eclipse.hono.client.RequestResponseClientConfigProperties;
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.RegistrationConstants;
@@ -44,6 +50,7 @@ import io.jsonwebtoken.SignatureAlgorithm;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -206,6 +213,152 @@ public class RegistrationClientImplTest {
                 is("gateway"));
     }
 
+    /**
+     * Verifies that the client asserts the registration status of all devices that
+     * are not contained in the cache by means of a single request and puts the
+     * result for each device to the cache.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAssertRegistrationsAddsResultPerDeviceToCache(final TestContext ctx) {
+
+        // GIVEN an adapter with a cache containing an assertion for device "cached"
+        client.setResponseCache(cache);
+        final JsonObject cachedAssertion = newRegistrationAssertionResult();
+        when(cache.get(eq(TriTuple.of("assert", "cached", null))))
+            .thenReturn(RegistrationResult.from(HttpURLConnection.HTTP_OK, cachedAssertion));
+
+        // WHEN asserting the registration status of multiple devices
+        final Async assertion = ctx.async();
+        client.assertRegistrations(Arrays.asList("cached", "other", "unknown"), null, null)
+            .setHandler(ctx.asyncAssertSuccess(result -> {
+                // THEN the result contains the assertions of the registered devices only
+                ctx.assertEquals(2, result.size());
+                ctx.assertEquals(cachedAssertion, result.get("cached"));
+                ctx.assertNotNull(result.get("other"));
+                assertion.complete();
+            }));
+
+        // and a single request is sent for the devices not contained in the cache
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+        final Message request = messageCaptor.getValue();
+        assertThat(request.getSubject(), is(RegistrationConstants.ACTION_ASSERT_BATCH));
+        assertThat(
+                MessageHelper.getJsonPayload(request).getJsonArray(RegistrationConstants.FIELD_DEVICE_IDS),
+                is(new JsonArray().add("other").add("unknown")));
+
+        final JsonObject results = new JsonObject()
+                .put("other", new JsonObject()
+                        .put(RegistrationConstants.FIELD_STATUS, HttpURLConnection.HTTP_OK)
+                        .put(RegistrationConstants.FIELD_PAYLOAD, newRegistrationAssertionResult())
+                        .put(RegistrationConstants.FIELD_CACHE_CONTROL, CacheDirective.maxAgeDirective(60).toString()))
+                .put("unknown", new JsonObject()
+                        .put(RegistrationConstants.FIELD_STATUS, HttpURLConnection.HTTP_NOT_FOUND));
+        final Message response = ProtonHelper.message(results.encode());
+        MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        MessageHelper.addCacheDirective(response, CacheDirective.noCacheDirective());
+        response.setCorrelationId(request.getMessageId());
+        client.handleResponse(mock(ProtonDelivery.class), response);
+
+        assertion.await();
+        // and the result for the registered device has been added to the cache
+        verify(cache).put(eq(TriTuple.of("assert", "other", null)), any(RegistrationResult.class), any(Duration.class));
+        verify(cache, never()).put(eq(TriTuple.of("assert", "unknown", null)), any(RegistrationResult.class), any(Duration.class));
+    }
+
+    /**
+     * Verifies that the client asserts the registration status of the devices
+     * individually if the service rejects the batch request as being malformed.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAssertRegistrationsFallsBackToSingleAssertionsIfBatchIsRejected(final TestContext ctx) {
+
+        assertFallbackToSingleAssertions(ctx, ProtonHelper.condition(AmqpError.DECODE_ERROR, "malformed payload"));
+    }
+
+    /**
+     * Verifies that the client asserts the registration status of the devices
+     * individually if the service rejects the batch request because the client
+     * is not authorized to execute the operation.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAssertRegistrationsFallsBackToSingleAssertionsIfBatchIsNotAuthorized(final TestContext ctx) {
+
+        assertFallbackToSingleAssertions(ctx, ProtonHelper.condition(AmqpError.UNAUTHORIZED_ACCESS, "not authorized"));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void assertFallbackToSingleAssertions(final TestContext ctx, final ErrorCondition error) {
+
+        // WHEN asserting the registration status of multiple devices
+        final Async assertion = ctx.async();
+        client.assertRegistrations(Arrays.asList("one", "two"), null, null)
+            .setHandler(ctx.asyncAssertSuccess(result -> assertion.complete()));
+
+        // and the service rejects the batch request
+        final Rejected rejected = new Rejected();
+        rejected.setError(error);
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        when(delivery.getRemoteState()).thenReturn(rejected);
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        final ArgumentCaptor<Handler> dispositionHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(sender).send(messageCaptor.capture(), dispositionHandlerCaptor.capture());
+        dispositionHandlerCaptor.getValue().handle(delivery);
+
+        // THEN the client sends a request for each of the devices
+        verify(sender, times(3)).send(messageCaptor.capture(), any(Handler.class));
+        final List<Message> requests = messageCaptor.getAllValues();
+        assertThat(requests.get(requests.size() - 2).getSubject(), is(RegistrationConstants.ACTION_ASSERT));
+        assertThat(requests.get(requests.size() - 1).getSubject(), is(RegistrationConstants.ACTION_ASSERT));
+        for (final Message request : requests.subList(requests.size() - 2, requests.size())) {
+            final Message response = ProtonHelper.message(newRegistrationAssertionResult().encode());
+            MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+            response.setCorrelationId(request.getMessageId());
+            client.handleResponse(mock(ProtonDelivery.class), response);
+        }
+        assertion.await();
+    }
+
+    /**
+     * Verifies that the client fails a batch assertion if the service responds
+     * with a <em>400 Bad Request</em> status instead of falling back to asserting
+     * the registration status of the devices individually.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAssertRegistrationsFailsForBadRequestResponse(final TestContext ctx) {
+
+        // WHEN asserting the registration status of multiple devices
+        final Async assertion = ctx.async();
+        client.assertRegistrations(Arrays.asList("one", "two"), null, null)
+            .setHandler(ctx.asyncAssertFailure(t -> {
+                // THEN the assertion fails with the status code returned by the service
+                ctx.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, ServiceInvocationException.extractStatusCode(t));
+                assertion.complete();
+            }));
+
+        // and the service responds with a 400 status
+        final ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(sender).send(messageCaptor.capture(), any(Handler.class));
+        final Message response = ProtonHelper.message();
+        MessageHelper.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_BAD_REQUEST);
+        response.setCorrelationId(messageCaptor.getValue().getMessageId());
+        client.handleResponse(mock(ProtonDelivery.class), response);
+
+        assertion.await();
+        // and no individual requests are sent
+        verify(sender).send(any(Message.class), any(Handler.class));
+    }
+
     private static JsonObject newRegistrationAssertionResult() {
         return newRegistrationAssertionResult(null);
     }
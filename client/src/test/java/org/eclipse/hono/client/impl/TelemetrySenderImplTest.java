@@ -12,20 +12,29 @@
  *******************************************************************************/
 package org.eclipse.hono.client.impl;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Rejected;
 import org.apache.qpid.proton.message.Message;
+import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.MessageSender;
+import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.config.ClientConfigProperties;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -114,4 +123,74 @@ public class TelemetrySenderImplTest {
         assertFalse(result.succeeded());
         verify(sender, never()).send(any(Message.class), any(Handler.class));
     }
+
+    /**
+     * Verifies that the sender does not send any message of a batch if it
+     * does not have enough credit for sending all of them.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendBatchFailsOnLackOfCredit() {
+
+        // GIVEN a sender that has credit for a single message only
+        when(sender.getCredit()).thenReturn(1);
+        final MessageSender messageSender = new TelemetrySenderImpl(config, sender, "tenant", "telemetry/tenant", context);
+
+        // WHEN trying to send a batch of two messages
+        final List<Message> batch = Arrays.asList(
+                ProtonHelper.message("telemetry/tenant", "one"),
+                ProtonHelper.message("telemetry/tenant", "two"));
+        final CompositeFuture result = messageSender.send(batch);
+
+        // THEN none of the messages is sent
+        verify(sender, never()).send(any(Message.class), any(Handler.class));
+        // and the outcome of each message is a failure
+        assertTrue(result.failed());
+        assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, ((ServerErrorException) result.cause(0)).getErrorCode());
+        assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, ((ServerErrorException) result.cause(1)).getErrorCode());
+    }
+
+    /**
+     * Verifies that the sender reports the outcome of each message of a batch
+     * when waiting for the outcome of the transfers.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendAndWaitForOutcomeReportsOutcomePerMessageOfBatch() {
+
+        // GIVEN a sender that has enough credit
+        when(sender.getCredit()).thenReturn(10);
+        final MessageSender messageSender = new TelemetrySenderImpl(config, sender, "tenant", "telemetry/tenant", context);
+        final List<Handler<ProtonDelivery>> dispositionHandlers = new ArrayList<>();
+        doAnswer(invocation -> {
+            dispositionHandlers.add(invocation.getArgument(1));
+            return mock(ProtonDelivery.class);
+        }).when(sender).send(any(Message.class), any(Handler.class));
+
+        // WHEN sending a batch of two messages
+        final List<Message> batch = Arrays.asList(
+                ProtonHelper.message("telemetry/tenant", "one"),
+                ProtonHelper.message("telemetry/tenant", "two"));
+        final CompositeFuture result = messageSender.sendAndWaitForOutcome(batch);
+
+        // THEN both messages have been sent
+        assertEquals(2, dispositionHandlers.size());
+        assertFalse(result.isComplete());
+
+        // and WHEN the peer accepts the first and rejects the second message
+        final ProtonDelivery accepted = mock(ProtonDelivery.class);
+        when(accepted.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(accepted.getRemoteState()).thenReturn(Accepted.getInstance());
+        dispositionHandlers.get(0).handle(accepted);
+        final ProtonDelivery rejected = mock(ProtonDelivery.class);
+        when(rejected.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(rejected.getRemoteState()).thenReturn(new Rejected());
+        dispositionHandlers.get(1).handle(rejected);
+
+        // THEN the outcome of each message is reported
+        assertTrue(result.failed());
+        assertTrue(result.succeeded(0));
+        assertEquals(accepted, result.resultAt(0));
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, ((ClientErrorException) result.cause(1)).getErrorCode());
+    }
 }
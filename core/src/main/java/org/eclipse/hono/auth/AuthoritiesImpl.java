@@ -25,7 +25,10 @@ import io.jsonwebtoken.Claims;
 
 /**
  * A map backed implementation of authorities on resources and operations.
- *
+ * <p>
+ * In addition to the map of authorities, an index of the granted activities is
+ * maintained which is keyed by resource path and allows checking an authority
+ * without creating any objects.
  */
 public final class AuthoritiesImpl implements Authorities {
 
@@ -41,8 +44,13 @@ public final class AuthoritiesImpl implements Authorities {
     private static final Logger LOG = LoggerFactory.getLogger(AuthoritiesImpl.class);
     private static final String opTemplate = PREFIX_OPERATION + "%s:%s";
     private static final String resTemplate = PREFIX_RESOURCE + "%s";
-    // holds mapping resources -> activities
+    private static final String WILDCARD = "*";
+    // holds mapping resources -> activities as exposed by asMap()
     private final Map<String, String> authorities = new HashMap<>();
+    // holds mapping resource path -> granted activities
+    private final Map<String, Grants> grantsByPath = new HashMap<>();
+    // holds mapping endpoint -> activities granted on "endpoint/*"
+    private final Map<String, Grants> tenantWildcardGrantsByEndpoint = new HashMap<>();
 
     /**
      * Creates empty authorities.
@@ -63,7 +71,7 @@ public final class AuthoritiesImpl implements Authorities {
         claims.forEach((key, value) -> {
             if ((key.startsWith(PREFIX_OPERATION) || key.startsWith(PREFIX_RESOURCE)) && value instanceof String) {
                 LOG.trace("adding claim [key: {}, value: {}]", key, value);
-                result.authorities.put(key, (String) value);
+                result.putAuthority(key, (String) value);
             } else {
                 LOG.trace("ignoring unsupported claim [key: {}]", key);
             }
@@ -107,7 +115,7 @@ public final class AuthoritiesImpl implements Authorities {
      * @return This instance for command chaining.
      */
     public AuthoritiesImpl addOperation(final String endpoint, final String tenant, final String operation) {
-        authorities.put(getOperationKey(endpoint, tenant, operation), String.valueOf(Activity.EXECUTE.getCode()));
+        putAuthority(getOperationKey(endpoint, tenant, operation), String.valueOf(Activity.EXECUTE.getCode()));
         return this;
     }
 
@@ -135,7 +143,7 @@ public final class AuthoritiesImpl implements Authorities {
         for (final Activity a : activities) {
             b.append(a.getCode());
         }
-        authorities.put(getResourceKey(endpoint, tenant), b.toString());
+        putAuthority(getResourceKey(endpoint, tenant), b.toString());
         return this;
     }
 
@@ -151,7 +159,7 @@ public final class AuthoritiesImpl implements Authorities {
             .forEach(entry -> {
                 final String value = (String) entry.getValue();
                 LOG.trace("adding authority [key: {}, activities: {}]", entry.getKey(), value);
-                authorities.put(entry.getKey(), value);
+                putAuthority(entry.getKey(), value);
             });
         return this;
     }
@@ -161,15 +169,18 @@ public final class AuthoritiesImpl implements Authorities {
 
         boolean allowed = false;
         if (resource.getResourceId() != null) {
-            allowed = isAuthorized(String.format(resTemplate, resource.toString()), intent);
+            allowed = isAuthorized(grantsByPath.get(resource.toString()), intent);
         }
         if (!allowed && resource.getTenantId() != null) {
-            allowed = isAuthorized(String.format(resTemplate, resource.getEndpoint() + "/" + resource.getTenantId()), intent) ||
-                    isAuthorized(String.format(resTemplate, resource.getEndpoint() + "/*"), intent);
+            allowed = isAuthorized(grantsByPath.get(resource.getBasePath()), intent) ||
+                    isAuthorized(tenantWildcardGrantsByEndpoint.get(resource.getEndpoint()), intent);
         }
         if (!allowed) {
-            allowed = isAuthorized(String.format(resTemplate, resource.getEndpoint()), intent) ||
-                    isAuthorized(String.format(resTemplate, "*"), intent);
+            allowed = isAuthorized(grantsByPath.get(resource.getEndpoint()), intent) ||
+                    isAuthorized(grantsByPath.get(WILDCARD), intent);
+        }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("authority on resource [{}] {}matching intent [{}]", resource, allowed ? "" : "not ", intent.name());
         }
         return allowed;
     }
@@ -179,20 +190,18 @@ public final class AuthoritiesImpl implements Authorities {
 
         boolean allowed = false;
         if (resource.getResourceId() != null) {
-            allowed = isAuthorized(String.format(opTemplate, resource.toString(), operation), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, resource.toString(), "*"), Activity.EXECUTE);
+            allowed = isAuthorized(grantsByPath.get(resource.toString()), operation);
         }
         if (!allowed && resource.getTenantId() != null) {
-            allowed = isAuthorized(String.format(opTemplate, resource.getEndpoint() + "/" + resource.getTenantId(), operation), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, resource.getEndpoint() + "/" + resource.getTenantId(), "*"), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, resource.getEndpoint() + "/*", operation), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, resource.getEndpoint() + "/*", "*"), Activity.EXECUTE);
+            allowed = isAuthorized(grantsByPath.get(resource.getBasePath()), operation) ||
+                    isAuthorized(tenantWildcardGrantsByEndpoint.get(resource.getEndpoint()), operation);
         }
         if (!allowed) {
-            allowed = isAuthorized(String.format(opTemplate, resource.getEndpoint(), operation), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, resource.getEndpoint(), "*"), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, "*", operation), Activity.EXECUTE) ||
-                    isAuthorized(String.format(opTemplate, "*", "*"), Activity.EXECUTE);
+            allowed = isAuthorized(grantsByPath.get(resource.getEndpoint()), operation) ||
+                    isAuthorized(grantsByPath.get(WILDCARD), operation);
+        }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("authority to execute operation [{}] on resource [{}] {}found", operation, resource, allowed ? "" : "not ");
         }
         return allowed;
     }
@@ -204,16 +213,62 @@ public final class AuthoritiesImpl implements Authorities {
         return result;
     }
 
-    boolean isAuthorized(final String key, final Activity intent) {
-        boolean result = false;
-        final String grantedActivities = authorities.get(key);
+    private static boolean isAuthorized(final Grants grants, final Activity intent) {
+        return grants != null && isGranted(grants.activities, intent);
+    }
+
+    private static boolean isAuthorized(final Grants grants, final String operation) {
+        if (grants == null || grants.operations == null) {
+            return false;
+        } else {
+            return isGranted(grants.operations.get(operation), Activity.EXECUTE) ||
+                    isGranted(grants.operations.get(WILDCARD), Activity.EXECUTE);
+        }
+    }
+
+    private static boolean isGranted(final String grantedActivities, final Activity intent) {
         if (grantedActivities == null) {
-            LOG.trace("no claim for key [{}]", key);
+            return false;
         } else {
-            result = grantedActivities.contains(String.valueOf(intent.getCode())) ||
-                    grantedActivities.equals("*");
-            LOG.trace("found claim [key: {}, activities: {}] {}matching intent [{}]", key, grantedActivities, result ? "" : "not ", intent.name());
+            return grantedActivities.indexOf(intent.getCode()) >= 0 || grantedActivities.equals(WILDCARD);
         }
-        return result;
     }
-}
\ No newline at end of file
+
+    private void putAuthority(final String key, final String activities) {
+
+        authorities.put(key, activities);
+
+        if (key.startsWith(PREFIX_RESOURCE)) {
+            getGrants(key.substring(PREFIX_RESOURCE.length())).activities = activities;
+        } else if (key.startsWith(PREFIX_OPERATION)) {
+            final int separatorIdx = key.lastIndexOf(':');
+            if (separatorIdx > PREFIX_OPERATION.length()) {
+                final Grants grants = getGrants(key.substring(PREFIX_OPERATION.length(), separatorIdx));
+                if (grants.operations == null) {
+                    grants.operations = new HashMap<>();
+                }
+                grants.operations.put(key.substring(separatorIdx + 1), activities);
+            }
+        }
+    }
+
+    private Grants getGrants(final String path) {
+
+        final int separatorIdx = path.indexOf('/');
+        if (separatorIdx > 0 && path.indexOf('/', separatorIdx + 1) < 0 && path.endsWith("/" + WILDCARD)) {
+            // path is of form "endpoint/*"
+            return tenantWildcardGrantsByEndpoint.computeIfAbsent(path.substring(0, separatorIdx), k -> new Grants());
+        } else {
+            return grantsByPath.computeIfAbsent(path, k -> new Grants());
+        }
+    }
+
+    /**
+     * The activities and operations granted on a resource path.
+     */
+    private static final class Grants {
+
+        private String activities;
+        private Map<String, String> operations;
+    }
+}
@@ -60,4 +60,19 @@ public interface ExpiringValueCache<K, V> {
      *         if the value is expired.
      */
     V get(K key);
+
+    /**
+     * Removes a value from the cache.
+     * <p>
+     * This method does nothing if no value exists for the key.
+     * <p>
+     * This default implementation does nothing, i.e. the value will be
+     * removed once it has expired. Implementations that support the removal
+     * of values should override this method.
+     * 
+     * @param key The key to remove the value for.
+     */
+    default void remove(final K key) {
+        // empty by default
+    }
 }
@@ -58,6 +58,9 @@ public class ClientConfigProperties extends AbstractConfig {
     private boolean hostnameVerificationRequired = true;
     private boolean tlsEnabled = false;
     private int reconnectAttempts = -1;
+    private int maxLinks = -1;
+    private long linkIdleTimeout = 0;
+    private int maxConnections = 1;
 
     /**
      * Creates new properties with default values.
@@ -78,6 +81,9 @@ public class ClientConfigProperties extends AbstractConfig {
         this.host = otherProperties.host;
         this.hostnameVerificationRequired = otherProperties.hostnameVerificationRequired;
         this.initialCredits = otherProperties.initialCredits;
+        this.linkIdleTimeout = otherProperties.linkIdleTimeout;
+        this.maxConnections = otherProperties.maxConnections;
+        this.maxLinks = otherProperties.maxLinks;
         this.name = otherProperties.name;
         this.password = otherProperties.password;
         this.port = otherProperties.port;
@@ -515,4 +521,105 @@ public class ClientConfigProperties extends AbstractConfig {
             this.reconnectAttempts = attempts;
         }
     }
+
+    /**
+     * Gets the maximum number of sender and request-response client links that the client
+     * keeps open to the peer.
+     * <p>
+     * If the client needs to open a link that would exceed this number, the least recently
+     * used links are closed. They are re-opened on demand.
+     * <p>
+     * The default value of this property is -1 which means that the number of links is not limited.
+     * 
+     * @return The maximum number of links.
+     */
+    public final int getMaxLinks() {
+        return maxLinks;
+    }
+
+    /**
+     * Sets the maximum number of sender and request-response client links that the client
+     * keeps open to the peer.
+     * <p>
+     * If the client needs to open a link that would exceed this number, the least recently
+     * used links are closed. They are re-opened on demand.
+     * <p>
+     * The default value of this property is -1 which means that the number of links is not limited.
+     * 
+     * @param maxLinks The maximum number of links.
+     * @throws IllegalArgumentException if max links is &lt; -1.
+     */
+    public final void setMaxLinks(final int maxLinks) {
+        if (maxLinks < -1) {
+            throw new IllegalArgumentException("max links must be >= -1");
+        } else {
+            this.maxLinks = maxLinks;
+        }
+    }
+
+    /**
+     * Gets the amount of time after which the client closes a sender or request-response
+     * client link that has not been used.
+     * <p>
+     * Closed links are re-opened on demand.
+     * <p>
+     * The default value of this property is 0 which means that idle links are not closed.
+     * 
+     * @return The number of milliseconds.
+     */
+    public final long getLinkIdleTimeout() {
+        return linkIdleTimeout;
+    }
+
+    /**
+     * Sets the amount of time after which the client closes a sender or request-response
+     * client link that has not been used.
+     * <p>
+     * Closed links are re-opened on demand.
+     * <p>
+     * The default value of this property is 0 which means that idle links are not closed.
+     * 
+     * @param timeout The number of milliseconds.
+     * @throws IllegalArgumentException if timeout is negative.
+     */
+    public final void setLinkIdleTimeout(final long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        } else {
+            this.linkIdleTimeout = timeout;
+        }
+    }
+
+    /**
+     * Gets the maximum number of connections that a pooled client opens to the peer.
+     * <p>
+     * A pooled client opens a separate connection for each vert.x Context that it is
+     * invoked from until this number is reached.
+     * <p>
+     * The default value of this property is 1.
+     * 
+     * @return The maximum number of connections.
+     */
+    public final int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets the maximum number of connections that a pooled client opens to the peer.
+     * <p>
+     * A pooled client opens a separate connection for each vert.x Context that it is
+     * invoked from until this number is reached.
+     * <p>
+     * The default value of this property is 1.
+     * 
+     * @param maxConnections The maximum number of connections.
+     * @throws IllegalArgumentException if max connections is &lt; 1.
+     */
+    public final void setMaxConnections(final int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("max connections must be >= 1");
+        } else {
+            this.maxConnections = maxConnections;
+        }
+    }
 }
@@ -19,10 +19,21 @@ package org.eclipse.hono.config;
  */
 public class ProtocolAdapterProperties extends ServiceConfigProperties {
 
+    /**
+     * The default maximum number of entries in the cache of verified passwords.
+     */
+    public static final long DEFAULT_VERIFIED_PASSWORD_CACHE_MAX_SIZE = 10000L;
+    /**
+     * The default number of seconds that verified passwords are cached for.
+     */
+    public static final long DEFAULT_VERIFIED_PASSWORD_CACHE_TIMEOUT = 300L;
+
     private boolean authenticationRequired = true;
     private boolean jmsVendorPropsEnabled = false;
     private boolean defaultsEnabled = true;
     private long eventLoopBlockedCheckTimeout = 5000L;
+    private long verifiedPasswordCacheMaxSize = DEFAULT_VERIFIED_PASSWORD_CACHE_MAX_SIZE;
+    private long verifiedPasswordCacheTimeout = DEFAULT_VERIFIED_PASSWORD_CACHE_TIMEOUT;
 
     /**
      * Checks whether the protocol adapter always authenticates devices using their provided credentials as defined
@@ -154,4 +165,64 @@ public class ProtocolAdapterProperties extends ServiceConfigProperties {
     public final void setEventLoopBlockedCheckTimeout(final long eventLoopBlockedCheckTimeout) {
         this.eventLoopBlockedCheckTimeout = eventLoopBlockedCheckTimeout;
     }
+
+    /**
+     * Gets the maximum number of successfully verified passwords that the adapter caches.
+     * <p>
+     * Caching the outcome of the verification of a password provided by a device
+     * against the (hashed) password on record avoids the computationally expensive
+     * hashing of the password for subsequent authentication attempts using the same
+     * password. The cache does not contain the passwords themselves.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_VERIFIED_PASSWORD_CACHE_MAX_SIZE}.
+     *
+     * @return The maximum number of entries or 0 if verified passwords are not cached.
+     */
+    public final long getVerifiedPasswordCacheMaxSize() {
+        return verifiedPasswordCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of successfully verified passwords that the adapter caches.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_VERIFIED_PASSWORD_CACHE_MAX_SIZE}.
+     *
+     * @param maxSize The maximum number of entries or 0 to disable caching.
+     * @throws IllegalArgumentException if max size is negative.
+     */
+    public final void setVerifiedPasswordCacheMaxSize(final long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("max size must be >= 0");
+        }
+        this.verifiedPasswordCacheMaxSize = maxSize;
+    }
+
+    /**
+     * Gets the maximum period of time that successfully verified passwords are cached for.
+     * <p>
+     * Entries are removed from the cache at the latest when the validity period of the
+     * secret on record ends.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_VERIFIED_PASSWORD_CACHE_TIMEOUT}.
+     *
+     * @return The period of time in seconds.
+     */
+    public final long getVerifiedPasswordCacheTimeout() {
+        return verifiedPasswordCacheTimeout;
+    }
+
+    /**
+     * Sets the maximum period of time that successfully verified passwords are cached for.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_VERIFIED_PASSWORD_CACHE_TIMEOUT}.
+     *
+     * @param timeout The period of time in seconds.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public final void setVerifiedPasswordCacheTimeout(final long timeout) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be > 0");
+        }
+        this.verifiedPasswordCacheTimeout = timeout;
+    }
 }
@@ -41,6 +41,11 @@ public final class TracingHelper {
      * has been taken from a local cache.
      */
     public static final BooleanTag TAG_CACHE_HIT = new BooleanTag("cache_hit");
+    /**
+     * An OpenTracing tag that is used to indicate if a request has not been sent to a
+     * peer because it has been coalesced with an identical request already in flight.
+     */
+    public static final BooleanTag TAG_COALESCED = new BooleanTag("coalesced");
     /**
      * An OpenTracing tag that contains the (transport protocol specific) identifier of a
      * client connecting to a server. This could be the MQTT <em>client identifier</em> or the
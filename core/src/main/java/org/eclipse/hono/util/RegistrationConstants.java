@@ -24,6 +24,10 @@ public final class RegistrationConstants extends RequestResponseApiConstants {
      * The AMQP 1.0 <em>subject</em> to use for the <em>assert device registration</em> operation.
      */
     public static final String ACTION_ASSERT     = "assert";
+    /**
+     * The AMQP 1.0 <em>subject</em> to use for the <em>assert registration of multiple devices</em> operation.
+     */
+    public static final String ACTION_ASSERT_BATCH = "assert-batch";
     /**
      * The AMQP 1.0 <em>subject</em> to use for the <em>register device</em> operation.
      */
@@ -57,13 +61,33 @@ public final class RegistrationConstants extends RequestResponseApiConstants {
      * by the device.
      */
     public static final String FIELD_DEFAULTS     = "defaults";
+    /**
+     * The name of the field in a request to the <em>assert registration of multiple devices</em>
+     * operation that contains the identifiers of the devices to assert the registration of.
+     */
+    public static final String FIELD_DEVICE_IDS   = "device-ids";
+    /**
+     * The name of the field in a per-device result of the <em>assert registration of multiple devices</em>
+     * operation that contains the status code of the device's assertion.
+     */
+    public static final String FIELD_STATUS       = "status";
+    /**
+     * The name of the field in a per-device result of the <em>assert registration of multiple devices</em>
+     * operation that contains the device's assertion.
+     */
+    public static final String FIELD_PAYLOAD      = "payload";
+    /**
+     * The name of the field in a per-device result of the <em>assert registration of multiple devices</em>
+     * operation that contains the cache directive for the device's assertion.
+     */
+    public static final String FIELD_CACHE_CONTROL = "cache-control";
 
     /**
      * The name of the Device Registration API endpoint.
      */
     public static final String REGISTRATION_ENDPOINT = "registration";
 
-    private static final List<String> ACTIONS = Arrays.asList(ACTION_ASSERT, ACTION_REGISTER,
+    private static final List<String> ACTIONS = Arrays.asList(ACTION_ASSERT, ACTION_ASSERT_BATCH, ACTION_REGISTER,
             ACTION_GET, ACTION_DEREGISTER, ACTION_UPDATE);
 
     /**
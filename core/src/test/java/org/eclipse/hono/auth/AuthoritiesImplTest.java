@@ -57,4 +57,57 @@ public class AuthoritiesImplTest {
         assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("other-endpoint/tenant"), "get"));
         assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("endpoint/tenant"), "get"));
     }
+
+    /**
+     * Verifies that authorities on resources are matched on the resource, tenant,
+     * endpoint and global level.
+     */
+    @Test
+    public void testIsAuthorizedMatchesResourceOnAllLevels() {
+
+        final AuthoritiesImpl authorities = new AuthoritiesImpl()
+                .addResource("registration/tenant/device", Activity.READ)
+                .addResource("registration", "tenant", Activity.WRITE)
+                .addResource("telemetry", "*", Activity.WRITE)
+                .addResource("event", Activity.READ);
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/device"), Activity.READ));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/other"), Activity.READ));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/other"), Activity.WRITE));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("registration/other"), Activity.WRITE));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("telemetry/any"), Activity.WRITE));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("event/any/device"), Activity.READ));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("event/any"), Activity.WRITE));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("control/any"), Activity.READ));
+
+        final AuthoritiesImpl globalAuthorities = new AuthoritiesImpl().addAll(authorities).addResource("*", Activity.READ);
+        assertTrue(globalAuthorities.isAuthorized(ResourceIdentifier.fromString("control/any"), Activity.READ));
+        assertTrue(globalAuthorities.isAuthorized(ResourceIdentifier.fromString("telemetry/any"), Activity.WRITE));
+    }
+
+    /**
+     * Verifies that authorities on operations are matched on the resource, tenant,
+     * endpoint and global level.
+     */
+    @Test
+    public void testIsAuthorizedMatchesOperationOnAllLevels() {
+
+        final Claims claims = Jwts.claims();
+        claims.put("o:registration/tenant/device:get", "E");
+        claims.put("o:registration/tenant:assert", "E");
+        claims.put("o:credentials/*:*", "E");
+        claims.put("o:tenant:get", "E");
+        claims.put("o:tenant:add", "R");
+        final Authorities authorities = AuthoritiesImpl.from(claims);
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/device"), "get"));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/other"), "get"));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("registration/tenant/other"), "assert"));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("registration/other"), "assert"));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("credentials/any"), "update"));
+        assertTrue(authorities.isAuthorized(ResourceIdentifier.fromString("tenant/any"), "get"));
+        assertFalse(authorities.isAuthorized(ResourceIdentifier.fromString("tenant/any"), "add"));
+
+        final AuthoritiesImpl globalAuthorities = new AuthoritiesImpl().addOperation("*", "add");
+        assertTrue(globalAuthorities.isAuthorized(ResourceIdentifier.fromString("tenant/any"), "add"));
+        assertFalse(globalAuthorities.isAuthorized(ResourceIdentifier.fromString("tenant/any"), "get"));
+    }
 }
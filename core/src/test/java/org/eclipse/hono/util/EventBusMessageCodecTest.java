@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+
+/**
+ * Tests verifying behavior of {@link EventBusMessageCodec}.
+ *
+ */
+public class EventBusMessageCodecTest {
+
+    private final EventBusMessageCodec codec = new EventBusMessageCodec();
+
+    /**
+     * Verifies that messages sent to a local consumer are passed by reference.
+     */
+    @Test
+    public void testTransformReturnsSameInstance() {
+
+        final EventBusMessage message = EventBusMessage.forOperation("get").setTenant("tenant");
+        assertThat(codec.transform(message), sameInstance(message));
+    }
+
+    /**
+     * Verifies that a message can be decoded from its wire format.
+     */
+    @Test
+    public void testDecodeFromWireRestoresMessage() {
+
+        final EventBusMessage message = EventBusMessage.forOperation("get")
+                .setTenant("tenant")
+                .setDeviceId("device")
+                .setCorrelationId("4711")
+                .setJsonPayload(new JsonObject().put("enabled", true));
+        final Buffer buffer = Buffer.buffer("prefix");
+        codec.encodeToWire(buffer, message);
+
+        final EventBusMessage decoded = codec.decodeFromWire("prefix".length(), buffer);
+        assertThat(decoded.toJson(), is(message.toJson()));
+        assertThat(decoded.getCorrelationId(), is("4711"));
+    }
+}
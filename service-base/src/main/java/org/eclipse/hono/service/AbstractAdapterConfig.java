@@ -217,7 +217,7 @@ public abstract class AbstractAdapterConfig {
     @Qualifier(CredentialsConstants.CREDENTIALS_ENDPOINT)
     @ConfigurationProperties(prefix = "hono.credentials")
     @Bean
-    public ClientConfigProperties credentialsServiceClientConfig() {
+    public RequestResponseClientConfigProperties credentialsServiceClientConfig() {
         final RequestResponseClientConfigProperties config = new RequestResponseClientConfigProperties();
         customizeCredentialsServiceClientConfig(config);
         return config;
@@ -245,7 +245,26 @@ public abstract class AbstractAdapterConfig {
     @Qualifier(CredentialsConstants.CREDENTIALS_ENDPOINT)
     @Scope("prototype")
     public HonoClient credentialsServiceClient() {
-        return new HonoClientImpl(vertx(), credentialsServiceClientConfig());
+        final HonoClientImpl result = new HonoClientImpl(vertx(), credentialsServiceClientConfig());
+
+        final CacheProvider cacheProvider = credentialsCacheProvider();
+        if (cacheProvider != null) {
+            result.setCacheProvider(cacheProvider);
+        }
+
+        return result;
+    }
+
+    /**
+     * Exposes the provider for caches as a Spring bean.
+     *
+     * @return The provider instance.
+     */
+    @Bean
+    @Qualifier(CredentialsConstants.CREDENTIALS_ENDPOINT)
+    @Scope("prototype")
+    public CacheProvider credentialsCacheProvider() {
+        return newGuavaCache(credentialsServiceClientConfig());
     }
 
     /**
@@ -19,11 +19,14 @@ import java.util.Optional;
 import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.util.ConfigurationSupportingVerticle;
 import org.eclipse.hono.util.EventBusMessage;
+import org.eclipse.hono.util.EventBusMessageCodec;
 import org.eclipse.hono.util.RequestResponseApiConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
@@ -42,11 +45,12 @@ public abstract class EventBusService<C> extends ConfigurationSupportingVerticle
      * A logger to be shared by subclasses.
      */
     protected final Logger log = LoggerFactory.getLogger(getClass());
-    private MessageConsumer<JsonObject> requestConsumer;
+    private MessageConsumer<Object> requestConsumer;
 
     /**
      * Starts up this service.
      * <ol>
+     * <li>Registers the {@link EventBusMessageCodec} with the event bus.</li>
      * <li>Registers an event bus consumer for {@linkplain #getEventBusAddress()
      * the service's event bus request address}.</li>
      * <li>Invokes {@link #doStart(Future)}.</li>
@@ -115,30 +119,31 @@ public abstract class EventBusService<C> extends ConfigurationSupportingVerticle
 
     private void registerConsumer() {
 
+        EventBusMessageCodec.register(vertx.eventBus());
         requestConsumer = vertx.eventBus().consumer(getEventBusAddress());
         requestConsumer.handler(this::processRequestMessage);
         log.info("listening on event bus [address: {}] for requests", getEventBusAddress());
     }
 
-    private void processRequestMessage(final Message<JsonObject> msg) {
+    private void processRequestMessage(final Message<Object> msg) {
+
+        // requests sent by endpoints in the same JVM are passed by reference
+        // whereas other clients may still send the JSON representation
+        final boolean jsonEncoded = msg.body() instanceof JsonObject;
+        final EventBusMessage request = jsonEncoded ? EventBusMessage.fromJson((JsonObject) msg.body()) : (EventBusMessage) msg.body();
 
         if (log.isTraceEnabled()) {
-            log.trace("received request message: {}", msg.body().encodePrettily());
+            log.trace("received request message: {}", request.toJson().encodePrettily());
         }
 
-        final EventBusMessage request = EventBusMessage.fromJson(msg.body());
-        processRequest(request).recover(t -> {
-            log.debug("cannot process request [operation: {}]: {}", request.getOperation(), t.getMessage());
-            final int status = ServiceInvocationException.extractStatusCode(t);
-            return Future.succeededFuture(request.getResponse(status));
-        }).map(response -> {
+        getResponse(request).map(response -> {
             if (response.getReplyToAddress() == null) {
                 log.debug("sending response as direct reply to request [operation: {}]", request.getOperation());
-                msg.reply(response.toJson());
+                msg.reply(jsonEncoded ? response.toJson() : response);
             } else if (response.hasResponseProperties()) {
                 log.debug("sending response [operation: {}, reply-to: {}]",
                         request.getOperation(), request.getReplyToAddress());
-                vertx.eventBus().send(request.getReplyToAddress(), response.toJson());
+                vertx.eventBus().send(request.getReplyToAddress(), jsonEncoded ? response.toJson() : response);
             } else {
                 log.warn("discarding response lacking correlation ID or operation");
             }
@@ -146,6 +151,54 @@ public abstract class EventBusService<C> extends ConfigurationSupportingVerticle
         });
     }
 
+    /**
+     * Invokes this service directly, i.e. without sending the request via the vert.x event bus.
+     * <p>
+     * This method can be used by endpoints running in the same JVM as this service in order
+     * to save the overhead of sending the request and response via the event bus.
+     * The request is processed on this service's context and the returned future is
+     * completed on the caller's context.
+     * 
+     * @param request The request message.
+     * @return A future indicating the outcome of the service invocation.
+     *         The future will succeed with the response to be sent to the client
+     *         (which may indicate an error in its status property).
+     *         Otherwise the future will fail with an {@code IllegalStateException}
+     *         if this service has not been started.
+     * @throws NullPointerException If the request message is {@code null}.
+     */
+    public final Future<EventBusMessage> invoke(final EventBusMessage request) {
+
+        Objects.requireNonNull(request);
+
+        final Future<EventBusMessage> result = Future.future();
+        if (context == null) {
+            result.fail(new IllegalStateException("service is not started"));
+        } else {
+            final Context callerContext = Vertx.currentContext();
+            runOnContext(context, () -> getResponse(request).setHandler(
+                    response -> runOnContext(callerContext, () -> result.handle(response))));
+        }
+        return result;
+    }
+
+    private static void runOnContext(final Context targetContext, final Runnable action) {
+        if (targetContext == null || targetContext == Vertx.currentContext()) {
+            action.run();
+        } else {
+            targetContext.runOnContext(go -> action.run());
+        }
+    }
+
+    private Future<EventBusMessage> getResponse(final EventBusMessage request) {
+
+        return processRequest(request).recover(t -> {
+            log.debug("cannot process request [operation: {}]: {}", request.getOperation(), t.getMessage());
+            final int status = ServiceInvocationException.extractStatusCode(t);
+            return Future.succeededFuture(request.getResponse(status));
+        });
+    }
+
     /**
      * Processes a service invocation request.
      * <p>
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.hono.service.amqp;
 
+import java.net.HttpURLConnection;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -22,11 +24,13 @@ import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.auth.HonoUser;
 import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.config.ServiceConfigProperties;
+import org.eclipse.hono.service.EventBusService;
 import org.eclipse.hono.service.auth.AuthorizationService;
 import org.eclipse.hono.service.auth.ClaimsBasedAuthorizationService;
 import org.eclipse.hono.util.AmqpErrorException;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.EventBusMessage;
+import org.eclipse.hono.util.EventBusMessageCodec;
 import org.eclipse.hono.util.HonoProtonHelper;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.ResourceIdentifier;
@@ -36,6 +40,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.DecodeException;
@@ -62,15 +67,22 @@ public abstract class RequestResponseEndpoint<T extends ServiceConfigProperties>
     private final Multimap<ProtonConnection, MessageConsumer<?>> replyConsumerMap = HashMultimap.create();
     private final Multimap<ProtonConnection, String> replyAddressMap = HashMultimap.create();
     private final Set<String> replyAddresses = new HashSet<>();
+    private final Map<String, Handler<EventBusMessage>> replyHandlers = new HashMap<>();
+
+    private EventBusService<?> service;
 
     /**
      * Creates an endpoint for a Vertx instance.
+     * <p>
+     * Registers the {@link EventBusMessageCodec} with the Vertx instance's event bus
+     * so that request messages can be sent to services without being copied.
      *
      * @param vertx The Vertx instance to use.
      * @throws NullPointerException if vertx is {@code null};
      */
     protected RequestResponseEndpoint(final Vertx vertx) {
         super(Objects.requireNonNull(vertx));
+        EventBusMessageCodec.register(vertx.eventBus());
     }
 
     /**
@@ -114,6 +126,60 @@ public abstract class RequestResponseEndpoint<T extends ServiceConfigProperties>
         this.authorizationService = authService;
     }
 
+    /**
+     * Sets the service to invoke directly for processing requests.
+     * <p>
+     * If set, requests are passed to the service's {@link EventBusService#invoke(EventBusMessage)}
+     * method and responses are passed back to the client without using the vert.x event bus.
+     * This requires the service to be deployed to the same Vertx instance as this endpoint.
+     * <p>
+     * If not set, requests are sent to the service via the vert.x event bus.
+     * 
+     * @param service The service or {@code null} if the event bus should be used.
+     */
+    public final void setService(final EventBusService<?> service) {
+        this.service = service;
+    }
+
+    /**
+     * Sends a request message to the service implementing the API.
+     * <p>
+     * The request is either passed directly to the {@linkplain #setService(EventBusService) service}
+     * or is sent to the given address via the vert.x event bus. In both cases the response
+     * will be sent to the client via the sender link that has been established for the
+     * request's reply-to address.
+     * 
+     * @param address The event bus address that the service listens on for requests.
+     * @param request The request message.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    protected final void sendRequest(final String address, final EventBusMessage request) {
+
+        Objects.requireNonNull(address);
+        Objects.requireNonNull(request);
+
+        if (service == null) {
+            vertx.eventBus().send(address, request);
+        } else {
+            service.invoke(request).recover(t -> {
+                logger.debug("cannot invoke service [operation: {}]: {}", request.getOperation(), t.getMessage());
+                return Future.succeededFuture(request.getResponse(HttpURLConnection.HTTP_UNAVAILABLE));
+            }).map(response -> {
+                if (!response.hasResponseProperties()) {
+                    logger.warn("discarding response lacking correlation ID or operation");
+                } else {
+                    final Handler<EventBusMessage> replyHandler = replyHandlers.get(response.getReplyToAddress());
+                    if (replyHandler == null) {
+                        logger.debug("discarding response, no sender link for reply-to address [{}]", response.getReplyToAddress());
+                    } else {
+                        replyHandler.handle(response);
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
     /**
      * Configure and check the receiver link of the endpoint.
      * The remote link of the receiver must not demand the AT_MOST_ONCE QoS (not supported).
@@ -332,33 +398,36 @@ public abstract class RequestResponseEndpoint<T extends ServiceConfigProperties>
 
         logger.debug("establishing response sender link with client [{}]", sender.getName());
 
-        final MessageConsumer<JsonObject> replyConsumer = vertx.eventBus().consumer(replyTo,
-                message -> {
-                    // TODO check for correct session here...?
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("forwarding reply to client [{}]: {}", sender.getName(),
-                                message.body().encodePrettily());
-                    }
-                    final EventBusMessage response = EventBusMessage.fromJson(message.body());
-                    filterResponse(Constants.getClientPrincipal(con), response)
-                            .recover(t -> {
-                                final int status = ServiceInvocationException.extractStatusCode(t);
-                                return Future.succeededFuture(response.getResponse(status));
-                            })
-                            .map(filteredResponse -> {
-                                try {
-                                    final Message amqpReply = getAmqpReply(filteredResponse);
-                                    sender.send(amqpReply);
-                                } finally {
-                                    flowCreditToRequestor(replyTo);
-                                }
-                                return null;
-                            });
-                });
+        final Handler<EventBusMessage> replyHandler = response -> {
+            // TODO check for correct session here...?
+            if (logger.isTraceEnabled()) {
+                logger.trace("forwarding reply to client [{}]: {}", sender.getName(),
+                        response.toJson().encodePrettily());
+            }
+            filterResponse(Constants.getClientPrincipal(con), response)
+                    .recover(t -> {
+                        final int status = ServiceInvocationException.extractStatusCode(t);
+                        return Future.succeededFuture(response.getResponse(status));
+                    })
+                    .map(filteredResponse -> {
+                        try {
+                            final Message amqpReply = getAmqpReply(filteredResponse);
+                            sender.send(amqpReply);
+                        } finally {
+                            flowCreditToRequestor(replyTo);
+                        }
+                        return null;
+                    });
+        };
+        final MessageConsumer<Object> replyConsumer = vertx.eventBus().consumer(replyTo,
+                message -> replyHandler.handle(message.body() instanceof JsonObject
+                        ? EventBusMessage.fromJson((JsonObject) message.body())
+                        : (EventBusMessage) message.body()));
 
         // register this consumer and replyTo address with this connection
 
         registerConsumerForConnection(con, replyTo, replyConsumer);
+        replyHandlers.put(replyTo, replyHandler);
 
         sender.setQoS(ProtonQoS.AT_LEAST_ONCE);
 
@@ -456,6 +525,7 @@ public abstract class RequestResponseEndpoint<T extends ServiceConfigProperties>
 
         replyAddressMap.remove(connection, replyTo);
         replyAddresses.remove(replyTo);
+        replyHandlers.remove(replyTo);
     }
 
     private void unregisterAllConsumersForConnection(final ProtonConnection connection) {
@@ -468,7 +538,9 @@ public abstract class RequestResponseEndpoint<T extends ServiceConfigProperties>
 
         // now remove all addresses this connection has and remove them from the reply address set
 
-        replyAddresses.removeAll(replyAddressMap.removeAll(connection));
+        final Collection<String> addresses = replyAddressMap.removeAll(connection);
+        replyAddresses.removeAll(addresses);
+        replyHandlers.keySet().removeAll(addresses);
     }
 
     /**
@@ -109,10 +109,34 @@ public abstract class CredentialsApiAuthProvider implements HonoClientBasedAuthP
             } else {
                 return Future.failedFuture(t);
             }
-        }).compose(credentialsOnRecord -> validateCredentials(deviceCredentials, credentialsOnRecord))
+        }).compose(credentialsOnRecord -> validateCredentials(deviceCredentials, credentialsOnRecord)
+                .recover(t -> {
+                    invalidateCredentialsOnRecord(deviceCredentials);
+                    return Future.failedFuture(t);
+                }))
         .setHandler(resultHandler);
     }
 
+    /**
+     * Removes the credentials on record for a device from the Credentials service
+     * client's cache.
+     * <p>
+     * This method is invoked if the credentials provided by the device could not be
+     * validated against the credentials on record. This makes sure that the next
+     * authentication attempt of the device is verified against the current credentials
+     * on record, e.g. after the device's password has been changed.
+     * 
+     * @param deviceCredentials The credentials provided by the device.
+     */
+    private void invalidateCredentialsOnRecord(final DeviceCredentials deviceCredentials) {
+
+        getCredentialsClient(deviceCredentials.getTenantId()).setHandler(client -> {
+            if (client.succeeded()) {
+                client.result().invalidate(deviceCredentials.getType(), deviceCredentials.getAuthId());
+            }
+        });
+    }
+
     /**
      * Verifies that the credentials provided by a device during the authentication
      * process match the credentials on record for that device.
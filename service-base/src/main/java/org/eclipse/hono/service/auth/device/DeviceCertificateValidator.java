@@ -14,31 +14,115 @@
 package org.eclipse.hono.service.auth.device;
 
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.cert.CertPath;
 import java.security.cert.CertPathValidator;
 import java.security.cert.CertificateFactory;
 import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.hono.service.auth.X509CertificateChainValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.vertx.core.Future;
 
 
 /**
  * Validates a device's certificate chain using a {@link CertPathValidator}.
- *
+ * <p>
+ * The outcome of successful validations is cached, keyed by the SHA-256 fingerprint
+ * of the certificate chain and the trust anchor. Cached results expire after a configurable
+ * amount of time but at the latest when any of the certificates involved expires.
+ * Failed validations are not cached.
  */
 public class DeviceCertificateValidator implements X509CertificateChainValidator {
 
+    /**
+     * The default maximum number of validation results to cache.
+     */
+    public static final long DEFAULT_CACHE_MAX_SIZE = 1000L;
+    /**
+     * The default maximum amount of time that a validation result is cached for.
+     */
+    public static final Duration DEFAULT_CACHE_MAX_AGE = Duration.ofMinutes(10);
+
     private static final Logger LOG = LoggerFactory.getLogger(DeviceCertificateValidator.class);
 
+    private static final ThreadLocal<CertificateFactory> CERTIFICATE_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return CertificateFactory.getInstance("X.509");
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("X.509 certificate factory not supported", e);
+        }
+    });
+    private static final ThreadLocal<CertPathValidator> CERT_PATH_VALIDATOR = ThreadLocal.withInitial(() -> {
+        try {
+            return CertPathValidator.getInstance("PKIX");
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("PKIX certificate path validator not supported", e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    });
+
+    private final Cache<String, Instant> validatedChains;
+    private final Duration maxAge;
+
+    /**
+     * Creates a new validator using default cache settings.
+     *
+     * @see #DEFAULT_CACHE_MAX_SIZE
+     * @see #DEFAULT_CACHE_MAX_AGE
+     */
+    public DeviceCertificateValidator() {
+        this(DEFAULT_CACHE_MAX_SIZE, DEFAULT_CACHE_MAX_AGE);
+    }
+
+    /**
+     * Creates a new validator for cache settings.
+     *
+     * @param cacheMaxSize The maximum number of validation results to cache or 0 if
+     *                     results should not be cached at all.
+     * @param cacheMaxAge The maximum amount of time that a validation result is cached for.
+     * @throws NullPointerException if max age is {@code null}.
+     * @throws IllegalArgumentException if max size is negative or max age is not positive.
+     */
+    public DeviceCertificateValidator(final long cacheMaxSize, final Duration cacheMaxAge) {
+
+        Objects.requireNonNull(cacheMaxAge);
+        if (cacheMaxSize < 0) {
+            throw new IllegalArgumentException("max size must be >= 0");
+        } else if (cacheMaxAge.isNegative() || cacheMaxAge.isZero()) {
+            throw new IllegalArgumentException("max age must be > 0");
+        }
+        this.maxAge = cacheMaxAge;
+        if (cacheMaxSize > 0) {
+            this.validatedChains = CacheBuilder.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfterWrite(cacheMaxAge.toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        } else {
+            this.validatedChains = null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -55,15 +139,18 @@ public class DeviceCertificateValidator implements X509CertificateChainValidator
         final Future<Void> result = Future.future();
 
         try {
-            final PKIXParameters params = new PKIXParameters(Collections.singleton(trustAnchor));
-            // TODO do we need to check for revocation?
-            params.setRevocationEnabled(false);
-            final CertificateFactory factory = CertificateFactory.getInstance("X.509");
-            final CertPath path = factory.generateCertPath(chain);
-            final CertPathValidator validator = CertPathValidator.getInstance("PKIX");
-            validator.validate(path, params);
-            LOG.debug("validation of device certificate [subject DN: {}] succeeded",
-                    chain.get(0).getSubjectX500Principal().getName());
+            final String key = validatedChains == null ? null : getKey(chain, trustAnchor);
+            if (key != null && isValidated(key)) {
+                LOG.trace("device certificate [subject DN: {}] has already been validated",
+                        chain.get(0).getSubjectX500Principal().getName());
+            } else {
+                validatePath(chain, trustAnchor);
+                LOG.debug("validation of device certificate [subject DN: {}] succeeded",
+                        chain.get(0).getSubjectX500Principal().getName());
+                if (key != null) {
+                    validatedChains.put(key, getExpiry(chain, trustAnchor));
+                }
+            }
             result.complete();
         } catch (GeneralSecurityException e) {
             LOG.debug("validation of device certificate [subject DN: {}] failed",
@@ -72,4 +159,67 @@ public class DeviceCertificateValidator implements X509CertificateChainValidator
         }
         return result;
     }
+
+    /**
+     * Validates a certificate chain using the PKIX algorithm.
+     *
+     * @param chain The certificate chain to validate.
+     * @param trustAnchor The trust anchor to use for validating the chain.
+     * @throws GeneralSecurityException if the chain cannot be validated.
+     */
+    void validatePath(final List<X509Certificate> chain, final TrustAnchor trustAnchor)
+            throws GeneralSecurityException {
+
+        final PKIXParameters params = new PKIXParameters(Collections.singleton(trustAnchor));
+        // TODO do we need to check for revocation?
+        params.setRevocationEnabled(false);
+        final CertPath path = CERTIFICATE_FACTORY.get().generateCertPath(chain);
+        CERT_PATH_VALIDATOR.get().validate(path, params);
+    }
+
+    private boolean isValidated(final String key) {
+
+        final Instant expiry = validatedChains.getIfPresent(key);
+        if (expiry == null) {
+            return false;
+        } else if (Instant.now().isBefore(expiry)) {
+            return true;
+        } else {
+            validatedChains.invalidate(key);
+            return false;
+        }
+    }
+
+    private Instant getExpiry(final List<X509Certificate> chain, final TrustAnchor trustAnchor) {
+
+        Instant expiry = Instant.now().plus(maxAge);
+        for (final X509Certificate cert : chain) {
+            expiry = min(expiry, cert.getNotAfter().toInstant());
+        }
+        if (trustAnchor.getTrustedCert() != null) {
+            expiry = min(expiry, trustAnchor.getTrustedCert().getNotAfter().toInstant());
+        }
+        return expiry;
+    }
+
+    private static Instant min(final Instant a, final Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String getKey(final List<X509Certificate> chain, final TrustAnchor trustAnchor)
+            throws GeneralSecurityException {
+
+        final MessageDigest digest = SHA_256.get();
+        digest.reset();
+        for (final X509Certificate cert : chain) {
+            digest.update(cert.getEncoded());
+        }
+        if (trustAnchor.getTrustedCert() != null) {
+            digest.update(trustAnchor.getTrustedCert().getEncoded());
+        } else {
+            digest.update(trustAnchor.getCA().getEncoded());
+            digest.update(trustAnchor.getCAPublicKey().getEncoded());
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
 }
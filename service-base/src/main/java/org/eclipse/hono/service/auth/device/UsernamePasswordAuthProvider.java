@@ -14,10 +14,13 @@
 package org.eclipse.hono.service.auth.device;
 
 import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.HonoClient;
+import org.eclipse.hono.config.ProtocolAdapterProperties;
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.util.CredentialsObject;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,14 +34,23 @@ import io.vertx.core.json.JsonObject;
 /**
  * An authentication provider that verifies username/password credentials using
  * Hono's <em>Credentials</em> API.
- *
+ * <p>
+ * Successful verifications of passwords are cached in a {@link VerifiedPasswordCache}
+ * so that the (expensive) hashing of a password is not repeated for subsequent
+ * authentication attempts using the same password and credentials on record.
  */
 public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvider {
 
     private final ServiceConfigProperties config;
+    private final VerifiedPasswordCache verifiedPasswords;
 
     /**
      * Creates a new provider for a given configuration.
+     * <p>
+     * If the configuration is a {@link ProtocolAdapterProperties} instance, the
+     * cache for verified passwords is set up according to its
+     * <em>verifiedPasswordCacheMaxSize</em> and <em>verifiedPasswordCacheTimeout</em>
+     * properties. Otherwise, the cache is set up using default values.
      * 
      * @param credentialsServiceClient The client.
      * @param config The configuration.
@@ -48,6 +60,22 @@ public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvid
     public UsernamePasswordAuthProvider(final HonoClient credentialsServiceClient, final ServiceConfigProperties config) {
         super(credentialsServiceClient);
         this.config = Objects.requireNonNull(config);
+        this.verifiedPasswords = newVerifiedPasswordCache(config);
+    }
+
+    private static VerifiedPasswordCache newVerifiedPasswordCache(final ServiceConfigProperties config) {
+
+        long maxSize = ProtocolAdapterProperties.DEFAULT_VERIFIED_PASSWORD_CACHE_MAX_SIZE;
+        long timeout = ProtocolAdapterProperties.DEFAULT_VERIFIED_PASSWORD_CACHE_TIMEOUT;
+        if (config instanceof ProtocolAdapterProperties) {
+            maxSize = ((ProtocolAdapterProperties) config).getVerifiedPasswordCacheMaxSize();
+            timeout = ((ProtocolAdapterProperties) config).getVerifiedPasswordCacheTimeout();
+        }
+        if (maxSize > 0) {
+            return new VerifiedPasswordCache(maxSize, Duration.ofSeconds(timeout));
+        } else {
+            return null;
+        }
     }
 
     /**
@@ -78,6 +106,17 @@ public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvid
         }
     }
 
+    /**
+     * Validates the credentials provided by a device against the credentials on record.
+     * <p>
+     * The password provided by the device is verified against the password hash(es) on record
+     * on a vert.x worker thread unless the very same password has already been verified
+     * successfully against the very same credentials on record before.
+     *
+     * @param deviceCredentials The credentials provided by the device.
+     * @param credentialsOnRecord The credentials on record.
+     * @return A future indicating the outcome of the validation.
+     */
     @Override
     protected Future<Device> validateCredentials(
             final DeviceCredentials deviceCredentials,
@@ -86,17 +125,38 @@ public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvid
         final Context currentContext = Vertx.currentContext();
         if (currentContext == null) {
             return Future.failedFuture(new IllegalStateException("not running on vert.x Context"));
+        } else if (verifiedPasswords != null && deviceCredentials instanceof UsernamePasswordCredentials) {
+            final UsernamePasswordCredentials credentials = (UsernamePasswordCredentials) deviceCredentials;
+            final List<JsonObject> candidateSecrets = credentialsOnRecord.getCandidateSecrets();
+            if (verifiedPasswords.isVerified(credentials, credentialsOnRecord, candidateSecrets)) {
+                log.trace("password of device [tenant: {}, auth-id: {}] has already been verified",
+                        credentials.getTenantId(), credentials.getAuthId());
+                return Future.succeededFuture(new Device(credentials.getTenantId(), credentialsOnRecord.getDeviceId()));
+            } else {
+                return validateOnWorkerThread(currentContext, credentials, credentialsOnRecord).map(device -> {
+                    verifiedPasswords.put(credentials, credentialsOnRecord, candidateSecrets);
+                    return device;
+                });
+            }
         } else {
-            final Future<Device> resultHandler = Future.future();
-            currentContext.executeBlocking(blockingCodeHandler -> {
-                log.debug("validating password hash on vert.x worker thread [{}]", Thread.currentThread().getName());
-                if (deviceCredentials.validate(credentialsOnRecord)) {
-                    blockingCodeHandler.complete(new Device(deviceCredentials.getTenantId(), credentialsOnRecord.getDeviceId()));
-                } else {
-                    blockingCodeHandler.fail(new ClientErrorException(HttpURLConnection.HTTP_UNAUTHORIZED, "bad credentials"));
-                }
-            }, false, resultHandler);
-            return resultHandler;
+            return validateOnWorkerThread(currentContext, deviceCredentials, credentialsOnRecord);
         }
     }
+
+    private Future<Device> validateOnWorkerThread(
+            final Context currentContext,
+            final DeviceCredentials deviceCredentials,
+            final CredentialsObject credentialsOnRecord) {
+
+        final Future<Device> resultHandler = Future.future();
+        currentContext.executeBlocking(blockingCodeHandler -> {
+            log.debug("validating password hash on vert.x worker thread [{}]", Thread.currentThread().getName());
+            if (deviceCredentials.validate(credentialsOnRecord)) {
+                blockingCodeHandler.complete(new Device(deviceCredentials.getTenantId(), credentialsOnRecord.getDeviceId()));
+            } else {
+                blockingCodeHandler.fail(new ClientErrorException(HttpURLConnection.HTTP_UNAUTHORIZED, "bad credentials"));
+            }
+        }, false, resultHandler);
+        return resultHandler;
+    }
 }
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.service.auth.device;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.hono.util.CredentialsObject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A cache for the outcome of successful verifications of passwords provided by devices
+ * against the <em>hashed-password</em> credentials on record.
+ * <p>
+ * Verifying a password against a (e.g. BCrypt based) password hash is computationally
+ * expensive by design. This cache is used to skip the verification of a password that
+ * has already been verified successfully against the very same credentials on record.
+ * <p>
+ * The cache does not contain any passwords. Entries are keyed by an HMAC-SHA256 over
+ * the credentials provided by the device and the credentials on record using a random
+ * key that is generated when the cache is created. Any change of the credentials on record,
+ * e.g. a new password hash, a secret entering or leaving its validity period or the
+ * credentials being disabled, results in a different key so that outdated entries
+ * are never hit. Entries expire after a configurable amount of time but at the latest
+ * when the validity period of any of the secrets that the password has been verified
+ * against ends.
+ */
+public final class VerifiedPasswordCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Instant> cache;
+    private final Duration maxAge;
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize The maximum number of entries to keep in the cache.
+     * @param maxAge The maximum amount of time that an entry is kept in the cache.
+     * @throws NullPointerException if max age is {@code null}.
+     * @throws IllegalArgumentException if max size or max age are not positive.
+     */
+    public VerifiedPasswordCache(final long maxSize, final Duration maxAge) {
+
+        Objects.requireNonNull(maxAge);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("max size must be > 0");
+        } else if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("max age must be > 0");
+        }
+        this.maxAge = maxAge;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxAge.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        final SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac result = Mac.getInstance(HMAC_ALGORITHM);
+                result.init(keySpec);
+                return result;
+            } catch (final GeneralSecurityException e) {
+                throw new IllegalStateException("cannot create " + HMAC_ALGORITHM + " instance", e);
+            }
+        });
+    }
+
+    /**
+     * Checks if a password provided by a device has already been verified successfully
+     * against the credentials on record.
+     *
+     * @param credentials The credentials provided by the device.
+     * @param credentialsOnRecord The credentials on record.
+     * @param candidateSecrets The secrets on record that are currently valid.
+     * @return {@code true} if the password has already been verified successfully.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public boolean isVerified(
+            final UsernamePasswordCredentials credentials,
+            final CredentialsObject credentialsOnRecord,
+            final List<JsonObject> candidateSecrets) {
+
+        final String key = getKey(credentials, credentialsOnRecord, candidateSecrets);
+        final Instant expiry = cache.getIfPresent(key);
+        if (expiry == null) {
+            return false;
+        } else if (Instant.now().isBefore(expiry)) {
+            return true;
+        } else {
+            cache.invalidate(key);
+            return false;
+        }
+    }
+
+    /**
+     * Records the successful verification of a password provided by a device
+     * against the credentials on record.
+     *
+     * @param credentials The credentials provided by the device.
+     * @param credentialsOnRecord The credentials on record.
+     * @param candidateSecrets The secrets on record that have been valid at the time
+     *                         the password has been verified.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public void put(
+            final UsernamePasswordCredentials credentials,
+            final CredentialsObject credentialsOnRecord,
+            final List<JsonObject> candidateSecrets) {
+
+        Instant expiry = Instant.now().plus(maxAge);
+        for (final JsonObject secret : candidateSecrets) {
+            final Instant notAfter = CredentialsObject.getNotAfter(secret);
+            if (notAfter != null && notAfter.isBefore(expiry)) {
+                expiry = notAfter;
+            }
+        }
+        cache.put(getKey(credentials, credentialsOnRecord, candidateSecrets), expiry);
+    }
+
+    /**
+     * Gets the number of entries in the cache.
+     *
+     * @return The (approximate) number of entries.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private String getKey(
+            final UsernamePasswordCredentials credentials,
+            final CredentialsObject credentialsOnRecord,
+            final List<JsonObject> candidateSecrets) {
+
+        Objects.requireNonNull(credentials);
+        Objects.requireNonNull(credentialsOnRecord);
+        Objects.requireNonNull(candidateSecrets);
+
+        final Mac hmac = mac.get();
+        update(hmac, credentials.getTenantId());
+        update(hmac, credentials.getAuthId());
+        update(hmac, credentials.getType());
+        update(hmac, credentials.getPassword());
+        update(hmac, credentialsOnRecord.getDeviceId());
+        update(hmac, credentialsOnRecord.getAuthId());
+        update(hmac, credentialsOnRecord.getType());
+        update(hmac, Boolean.toString(credentialsOnRecord.isEnabled()));
+        for (final JsonObject secret : candidateSecrets) {
+            update(hmac, secret.encode());
+        }
+        // doFinal also resets the Mac for the next invocation on this thread
+        return Base64.getEncoder().encodeToString(hmac.doFinal());
+    }
+
+    private static void update(final Mac hmac, final String value) {
+
+        final byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        // prefix each value with its length in order to prevent ambiguous concatenations
+        hmac.update(ByteBuffer.allocate(4).putInt(value == null ? -1 : bytes.length).array());
+        hmac.update(bytes);
+    }
+}
@@ -61,7 +61,7 @@ public class CredentialsAmqpEndpoint extends RequestResponseEndpoint<ServiceConf
                 .setTenant(targetAddress.getTenantId())
                 .setJsonPayload(msg);
 
-        vertx.eventBus().send(CredentialsConstants.EVENT_BUS_ADDRESS_CREDENTIALS_IN, credentialsMsg.toJson());
+        sendRequest(CredentialsConstants.EVENT_BUS_ADDRESS_CREDENTIALS_IN, credentialsMsg);
     }
 
     @Override
@@ -13,6 +13,7 @@
 
 package org.eclipse.hono.service.metric;
 
+import org.eclipse.hono.client.HonoClientMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
@@ -21,8 +22,11 @@ import java.util.Objects;
 
 /**
  * A metrics collector that is based on Spring Boot Actuator and Dropwizard metrics.
+ * <p>
+ * The collector also records metrics of the {@code HonoClient}s used by a component
+ * for accessing other services.
  */
-abstract public class DropwizardBasedMetrics implements Metrics {
+abstract public class DropwizardBasedMetrics implements Metrics, HonoClientMetrics {
 
     /**
      * Special prefixes used by Spring Boot Actuator together with Dropwizard metrics.
@@ -42,6 +46,8 @@ abstract public class DropwizardBasedMetrics implements Metrics {
     protected static final String UNDELIVERABLE = "undeliverable";
     protected static final String CONNECTIONS = "connections";
     protected static final String COMMANDS = "commands";
+    protected static final String LINKS = "links";
+    protected static final String REQUESTS = "requests";
 
     protected static final String PAYLOAD = "payload";
 
@@ -177,4 +183,19 @@ abstract public class DropwizardBasedMetrics implements Metrics {
     public final void incrementCommandResponseDeliveredToApplication(final String tenantId) {
         counterService.increment(mergeAsMetric(METER_PREFIX, getScope(), COMMANDS, tenantId, "response", "delivered"));
     }
+
+    @Override
+    public final void reportLinkEstablished(final String endpoint, final long durationMillis) {
+        gaugeService.submit(mergeAsMetric(TIMER_PREFIX, getScope(), LINKS, endpoint, "establishment"), durationMillis);
+    }
+
+    @Override
+    public final void incrementEvictedLinks(final String endpoint) {
+        counterService.increment(mergeAsMetric(METER_PREFIX, getScope(), LINKS, endpoint, "evicted"));
+    }
+
+    @Override
+    public final void incrementCoalescedRequests(final String endpoint) {
+        counterService.increment(mergeAsMetric(METER_PREFIX, getScope(), REQUESTS, endpoint, "coalesced"));
+    }
 }
@@ -13,9 +13,13 @@
 package org.eclipse.hono.service.registration;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.service.EventBusService;
 import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.EventBusMessage;
@@ -28,6 +32,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -111,6 +116,8 @@ public abstract class BaseRegistrationService<T> extends EventBusService<T> impl
         switch (requestMessage.getOperation()) {
         case RegistrationConstants.ACTION_ASSERT:
             return processAssertRequest(requestMessage);
+        case RegistrationConstants.ACTION_ASSERT_BATCH:
+            return processBatchAssertRequest(requestMessage);
         default:
             return processCustomRegistrationMessage(requestMessage);
         }
@@ -148,6 +155,53 @@ public abstract class BaseRegistrationService<T> extends EventBusService<T> impl
         }
     }
 
+    private Future<EventBusMessage> processBatchAssertRequest(final EventBusMessage request) {
+
+        final String tenantId = request.getTenant();
+        final String gatewayId = request.getGatewayId();
+        final JsonObject payload = request.getJsonPayload();
+        final JsonArray deviceIds = payload == null ? null : payload.getJsonArray(RegistrationConstants.FIELD_DEVICE_IDS);
+
+        if (tenantId == null || deviceIds == null || deviceIds.isEmpty()) {
+            return Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST));
+        } else if (deviceIds.stream().anyMatch(id -> !(id instanceof String))) {
+            return Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST));
+        }
+
+        log.debug("asserting registration of {} devices with tenant [{}]{}", deviceIds.size(), tenantId,
+                gatewayId == null ? "" : " for gateway [" + gatewayId + "]");
+
+        final Map<String, Future<RegistrationResult>> results = new LinkedHashMap<>();
+        deviceIds.forEach(id -> results.computeIfAbsent((String) id, deviceId -> {
+            final Future<RegistrationResult> result = Future.future();
+            if (gatewayId == null) {
+                assertRegistration(tenantId, deviceId, result.completer());
+            } else {
+                assertRegistration(tenantId, deviceId, gatewayId, result.completer());
+            }
+            return result.recover(t -> Future.succeededFuture(
+                    RegistrationResult.from(ServiceInvocationException.extractStatusCode(t))));
+        }));
+
+        return CompositeFuture.all(new ArrayList<>(results.values())).map(ok -> {
+            final JsonObject assertions = new JsonObject();
+            results.forEach((deviceId, result) -> {
+                final RegistrationResult res = result.result();
+                final JsonObject entry = new JsonObject().put(RegistrationConstants.FIELD_STATUS, res.getStatus());
+                if (res.getPayload() != null) {
+                    entry.put(RegistrationConstants.FIELD_PAYLOAD, res.getPayload());
+                }
+                if (res.getCacheDirective() != null) {
+                    entry.put(RegistrationConstants.FIELD_CACHE_CONTROL, res.getCacheDirective().toString());
+                }
+                assertions.put(deviceId, entry);
+            });
+            return request.getResponse(HttpURLConnection.HTTP_OK)
+                    .setJsonPayload(assertions)
+                    .setCacheDirective(CacheDirective.noCacheDirective());
+        });
+    }
+
     /**
      * Processes a request for a non-standard operation.
      * <p>
@@ -61,7 +61,7 @@ public class RegistrationAmqpEndpoint extends RequestResponseEndpoint<ServiceCon
                 .setGatewayId(msg)
                 .setJsonPayload(msg);
 
-        vertx.eventBus().send(RegistrationConstants.EVENT_BUS_ADDRESS_REGISTRATION_IN, registrationMsg.toJson());
+        sendRequest(RegistrationConstants.EVENT_BUS_ADDRESS_REGISTRATION_IN, registrationMsg);
     }
 
     @Override
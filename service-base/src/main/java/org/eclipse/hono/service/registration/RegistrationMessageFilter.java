@@ -40,7 +40,9 @@ public final class RegistrationMessageFilter extends BaseMessageFilter {
      */
      public static boolean verify(final ResourceIdentifier linkTarget, final Message msg) {
 
-         if (!hasValidDeviceId(linkTarget, msg)) {
+         if (RegistrationConstants.ACTION_ASSERT_BATCH.equals(msg.getSubject())) {
+             return verifyBatchRequest(msg);
+         } else if (!hasValidDeviceId(linkTarget, msg)) {
              return false;
          } else if (!hasCorrelationId(msg)) {
              return false;
@@ -57,4 +59,19 @@ public final class RegistrationMessageFilter extends BaseMessageFilter {
              return true;
          }
     }
+
+    private static boolean verifyBatchRequest(final Message msg) {
+
+        if (!hasCorrelationId(msg)) {
+            return false;
+        } else if (msg.getReplyTo() == null) {
+            LOG.trace("message [{}] contains no reply-to address", msg.getMessageId());
+            return false;
+        } else if (!MessageHelper.hasDataBody(msg, true)) {
+            LOG.trace("message [{}] contains no AmqpValue or Data section payload", msg.getMessageId());
+            return false;
+        } else {
+            return true;
+        }
+    }
 }
@@ -138,7 +138,7 @@ public class TenantAmqpEndpoint extends RequestResponseEndpoint<ServiceConfigPro
                 .setTenant(msg)
                 .setJsonPayload(msg);
 
-        vertx.eventBus().send(TenantConstants.EVENT_BUS_ADDRESS_TENANT_IN, request.toJson());
+        sendRequest(TenantConstants.EVENT_BUS_ADDRESS_TENANT_IN, request);
     }
 
     @Override
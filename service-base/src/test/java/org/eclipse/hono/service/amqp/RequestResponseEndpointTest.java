@@ -21,12 +21,16 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.hamcrest.MockitoHamcrest.booleanThat;
 
+import java.net.HttpURLConnection;
+
 import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Rejected;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
+import org.apache.qpid.proton.engine.Record;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.auth.HonoUser;
 import org.eclipse.hono.config.ServiceConfigProperties;
+import org.eclipse.hono.service.EventBusService;
 import org.eclipse.hono.service.auth.AuthorizationService;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.EventBusMessage;
@@ -38,7 +42,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.MessageConsumer;
@@ -285,6 +291,57 @@ public class RequestResponseEndpointTest {
         verify(sender2).open();
     }
 
+    /**
+     * Verifies that the endpoint invokes a directly bound service without using the event bus
+     * and sends the service's response to the client via the reply-to link.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendRequestInvokesBoundServiceDirectly() {
+
+        // GIVEN an endpoint that is bound to a co-located service
+        final Context context = mock(Context.class);
+        doAnswer(invocation -> {
+            final Handler<Void> action = invocation.getArgument(0);
+            action.handle(null);
+            return null;
+        }).when(context).runOnContext(any(Handler.class));
+        final EventBusService<Object> service = new EventBusService<Object>() {
+
+            @Override
+            public void setConfig(final Object configuration) {
+            }
+
+            @Override
+            protected String getEventBusAddress() {
+                return "service";
+            }
+
+            @Override
+            protected Future<EventBusMessage> processRequest(final EventBusMessage request) {
+                return Future.succeededFuture(request.getResponse(HttpURLConnection.HTTP_OK));
+            }
+        };
+        service.init(vertx, context);
+        final RequestResponseEndpoint<ServiceConfigProperties> endpoint = getEndpoint(true);
+        endpoint.setService(service);
+
+        // and a client that has established a link for receiving responses
+        when(connection.attachments()).thenReturn(mock(Record.class));
+        endpoint.onLinkAttach(connection, sender, REPLY_RESOURCE);
+
+        // WHEN a request is sent to the service
+        final EventBusMessage request = EventBusMessage.forOperation("get")
+                .setReplyToAddress(REPLY_RESOURCE.toString())
+                .setCorrelationId("4711");
+        endpoint.sendRequest("service", request);
+
+        // THEN the request is not sent via the event bus
+        verify(eventBus, never()).send(anyString(), any());
+        // and the response is sent to the client
+        verify(sender).send(any());
+    }
+
     private RequestResponseEndpoint<ServiceConfigProperties> getEndpoint(final boolean passesFormalVerification) {
         return getEndpoint(passesFormalVerification, Future.future());
     }
@@ -16,6 +16,7 @@ package org.eclipse.hono.service.auth.device;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.HttpURLConnection;
@@ -25,6 +26,8 @@ import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.CredentialsClient;
 import org.eclipse.hono.client.HonoClient;
 import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.util.CredentialsConstants;
+import org.eclipse.hono.util.CredentialsObject;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -128,4 +131,32 @@ public class CredentialsApiAuthProviderTest {
         }));
     }
 
+    /**
+     * Verifies that the auth provider removes the credentials on record from the
+     * Credentials client's cache if the credentials provided by a device cannot be
+     * validated against them.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAuthenticateInvalidatesCredentialsOnRecordForBadCredentials(final TestContext ctx) {
+
+        // GIVEN credentials on record for a device
+        final CredentialsObject credentialsOnRecord = new CredentialsObject("device", "device", CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD);
+        when(credentialsClient.get(eq(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD), eq("device")))
+            .thenReturn(Future.succeededFuture(credentialsOnRecord));
+
+        // WHEN the device authenticates using credentials that do not match
+        final DeviceCredentials deviceCredentials = mock(DeviceCredentials.class);
+        when(deviceCredentials.getTenantId()).thenReturn("TENANT");
+        when(deviceCredentials.getType()).thenReturn(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD);
+        when(deviceCredentials.getAuthId()).thenReturn("device");
+        when(deviceCredentials.validate(credentialsOnRecord)).thenReturn(Boolean.FALSE);
+        provider.authenticate(deviceCredentials, ctx.asyncAssertFailure(t -> {
+            // THEN authentication fails with a 401 client error
+            ctx.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, ((ClientErrorException) t).getErrorCode());
+            // and the credentials on record are removed from the cache
+            verify(credentialsClient).invalidate(CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, "device");
+        }));
+    }
 }
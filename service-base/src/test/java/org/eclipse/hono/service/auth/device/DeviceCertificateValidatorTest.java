@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.service.auth.device;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.vertx.core.net.SelfSignedCertificate;
+
+/**
+ * Tests verifying behavior of {@link DeviceCertificateValidator}.
+ *
+ */
+public class DeviceCertificateValidatorTest {
+
+    private static X509Certificate deviceCert;
+    private static X509Certificate otherCert;
+
+    /**
+     * Creates the certificates used in the tests.
+     *
+     * @throws GeneralSecurityException if the certificates cannot be created.
+     * @throws IOException if the certificates cannot be read.
+     */
+    @BeforeClass
+    public static void createCertificates() throws GeneralSecurityException, IOException {
+        deviceCert = readCertificate(SelfSignedCertificate.create("device"));
+        otherCert = readCertificate(SelfSignedCertificate.create("other"));
+    }
+
+    /**
+     * Verifies that a (cached) successful validation result is returned for
+     * a certificate chain that has already been validated.
+     *
+     * @throws GeneralSecurityException if the chain cannot be validated.
+     */
+    @Test
+    public void testValidateSucceedsForAlreadyValidatedChain() throws GeneralSecurityException {
+
+        // GIVEN a validator that has successfully validated a chain
+        final DeviceCertificateValidator validator = spy(new DeviceCertificateValidator());
+        final TrustAnchor anchor = new TrustAnchor(deviceCert, null);
+        assertTrue(validator.validate(Collections.singletonList(deviceCert), anchor).succeeded());
+
+        // WHEN validating the same chain again
+        assertTrue(validator.validate(Collections.singletonList(deviceCert), anchor).succeeded());
+
+        // THEN the chain has been validated using PKIX only once
+        verify(validator, times(1)).validatePath(anyList(), any(TrustAnchor.class));
+    }
+
+    /**
+     * Verifies that a chain that has been validated successfully using one trust anchor
+     * fails to be validated using a different trust anchor.
+     */
+    @Test
+    public void testValidateFailsForDifferentTrustAnchor() {
+
+        final DeviceCertificateValidator validator = new DeviceCertificateValidator();
+        assertTrue(validator.validate(Collections.singletonList(deviceCert), new TrustAnchor(deviceCert, null)).succeeded());
+        assertTrue(validator.validate(Collections.singletonList(deviceCert), new TrustAnchor(otherCert, null)).failed());
+    }
+
+    /**
+     * Verifies that validation of an untrusted chain fails when caching
+     * of validation results is disabled.
+     */
+    @Test
+    public void testValidateFailsForUntrustedChainWithoutCache() {
+
+        final DeviceCertificateValidator validator = new DeviceCertificateValidator(0, DeviceCertificateValidator.DEFAULT_CACHE_MAX_AGE);
+        assertTrue(validator.validate(Collections.singletonList(otherCert), new TrustAnchor(deviceCert, null)).failed());
+        assertTrue(validator.validate(Collections.singletonList(deviceCert), new TrustAnchor(deviceCert, null)).succeeded());
+    }
+
+    private static X509Certificate readCertificate(final SelfSignedCertificate selfSignedCert)
+            throws GeneralSecurityException, IOException {
+
+        try (InputStream in = new FileInputStream(selfSignedCert.certificatePath())) {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        } finally {
+            selfSignedCert.delete();
+        }
+    }
+}
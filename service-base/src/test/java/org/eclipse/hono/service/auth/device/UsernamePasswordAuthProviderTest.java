@@ -131,4 +131,32 @@ public class UsernamePasswordAuthProviderTest {
         });
     }
 
+    /**
+     * Verifies that the provider succeeds to validate matching credentials that
+     * have already been verified before and still fails to validate wrong
+     * credentials for the same device afterwards.
+     * 
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAuthenticateUsesVerifiedPasswordCache(final TestContext ctx) {
+
+        final DeviceCredentials wrongCredentials = UsernamePasswordCredentials.create("device@DEFAULT_TENANT", "wrong_pwd", false);
+        vertx.runOnContext(go -> {
+            final Future<Device> firstAttempt = Future.future();
+            provider.authenticate(deviceCredentials, firstAttempt);
+            firstAttempt.compose(device -> {
+                final Future<Device> secondAttempt = Future.future();
+                provider.authenticate(deviceCredentials, secondAttempt);
+                return secondAttempt;
+            }).compose(device -> {
+                ctx.assertEquals("4711", device.getDeviceId());
+                final Future<Device> wrongAttempt = Future.future();
+                provider.authenticate(wrongCredentials, wrongAttempt);
+                return wrongAttempt;
+            }).setHandler(ctx.asyncAssertFailure(e -> {
+                ctx.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, ((ClientErrorException) e).getErrorCode());
+            }));
+        });
+    }
 }
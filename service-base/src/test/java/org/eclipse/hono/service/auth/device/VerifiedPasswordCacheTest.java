@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.service.auth.device;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.eclipse.hono.util.ClearTextPassword;
+import org.eclipse.hono.util.CredentialsConstants;
+import org.eclipse.hono.util.CredentialsObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Tests verifying behavior of {@link VerifiedPasswordCache}.
+ *
+ */
+public class VerifiedPasswordCacheTest {
+
+    private final UsernamePasswordCredentials credentials = UsernamePasswordCredentials.create("device@DEFAULT_TENANT", "pwd", false);
+    private VerifiedPasswordCache cache;
+
+    /**
+     * Sets up the fixture.
+     */
+    @Before
+    public void setUp() {
+        cache = new VerifiedPasswordCache(100, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Verifies that a password is considered verified once it has been put to the cache.
+     */
+    @Test
+    public void testIsVerifiedSucceedsForCachedPassword() {
+
+        final CredentialsObject credentialsOnRecord = newCredentials("pwd", null);
+        assertFalse(cache.isVerified(credentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets()));
+        cache.put(credentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets());
+        assertTrue(cache.isVerified(credentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets()));
+    }
+
+    /**
+     * Verifies that a verified password does not match a different password
+     * provided for the same credentials on record.
+     */
+    @Test
+    public void testIsVerifiedFailsForDifferentPassword() {
+
+        final CredentialsObject credentialsOnRecord = newCredentials("pwd", null);
+        cache.put(credentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets());
+
+        final UsernamePasswordCredentials otherCredentials = UsernamePasswordCredentials.create("device@DEFAULT_TENANT", "other", false);
+        assertFalse(cache.isVerified(otherCredentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets()));
+    }
+
+    /**
+     * Verifies that a verified password is not considered verified anymore after
+     * the credentials on record have been changed.
+     */
+    @Test
+    public void testIsVerifiedFailsForChangedCredentialsOnRecord() {
+
+        final CredentialsObject credentialsOnRecord = newCredentials("pwd", null);
+        cache.put(credentials, credentialsOnRecord, credentialsOnRecord.getCandidateSecrets());
+
+        final CredentialsObject updatedCredentials = newCredentials("new-pwd", null);
+        assertFalse(cache.isVerified(credentials, updatedCredentials, updatedCredentials.getCandidateSecrets()));
+
+        final CredentialsObject disabledCredentials = newCredentials("pwd", null).setEnabled(false);
+        assertFalse(cache.isVerified(credentials, disabledCredentials, disabledCredentials.getCandidateSecrets()));
+    }
+
+    /**
+     * Verifies that an entry expires when the validity period of the secret
+     * that the password has been verified against ends.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting.
+     */
+    @Test(timeout = 2000)
+    public void testIsVerifiedFailsAfterSecretHasExpired() throws InterruptedException {
+
+        final Instant notAfter = Instant.now().plusMillis(100);
+        final CredentialsObject credentialsOnRecord = newCredentials("pwd", notAfter);
+        final List<JsonObject> candidateSecrets = credentialsOnRecord.getCandidateSecrets();
+        cache.put(credentials, credentialsOnRecord, candidateSecrets);
+        assertTrue(cache.isVerified(credentials, credentialsOnRecord, candidateSecrets));
+
+        while (!Instant.now().isAfter(notAfter)) {
+            Thread.sleep(20);
+        }
+        // pass in the same candidate secrets as before in order to
+        // verify that the entry itself has expired
+        assertFalse(cache.isVerified(credentials, credentialsOnRecord, candidateSecrets));
+    }
+
+    private static CredentialsObject newCredentials(final String password, final Instant notAfter) {
+
+        return CredentialsObject.fromHashedPassword(
+                "4711",
+                "device",
+                ClearTextPassword.encode(CredentialsConstants.HASH_FUNCTION_SHA256, null, password),
+                CredentialsConstants.HASH_FUNCTION_SHA256,
+                null,
+                notAfter,
+                null);
+    }
+}
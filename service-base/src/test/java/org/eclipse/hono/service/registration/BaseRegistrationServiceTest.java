@@ -18,9 +18,12 @@ import static org.mockito.Mockito.mock;
 import java.net.HttpURLConnection;
 import java.util.function.Function;
 
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.config.SignatureSupportingConfigProperties;
+import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.EventBusMessage;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.RegistrationConstants;
 import org.eclipse.hono.util.RegistrationResult;
@@ -34,6 +37,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -248,6 +252,68 @@ public class BaseRegistrationServiceTest {
         }));
     }
 
+    /**
+     * Verifies that the registration status of multiple devices can be asserted
+     * by means of a single request and that the response contains a separate result
+     * for each device.
+     * 
+     * @param ctx The vertx unit test context.
+     */
+    @Test
+    public void testProcessBatchAssertRequestReturnsResultPerDevice(final TestContext ctx) {
+
+        // GIVEN a registry that contains an enabled device connected to gateway gw-1,
+        // a disabled device and a device connected to another gateway
+        final BaseRegistrationService<ServiceConfigProperties> registrationService = newRegistrationService();
+        registrationService.setRegistrationAssertionFactory(RegistrationAssertionHelperImpl.forSigning(vertx, props));
+
+        // WHEN asserting the registration status of all devices for gateway gw-1 in a single request
+        final EventBusMessage request = EventBusMessage.forOperation(RegistrationConstants.ACTION_ASSERT_BATCH)
+                .setTenant(Constants.DEFAULT_TENANT)
+                .setGatewayId("gw-1")
+                .setJsonPayload(new JsonObject().put(
+                        RegistrationConstants.FIELD_DEVICE_IDS,
+                        new JsonArray().add("4711").add("4712").add("4713")));
+        registrationService.processRequest(request).setHandler(ctx.asyncAssertSuccess(response -> {
+            // THEN the response itself must not be cached
+            ctx.assertEquals(HttpURLConnection.HTTP_OK, response.getStatus());
+            ctx.assertFalse(CacheDirective.from(response.getCacheDirective()).isCachingAllowed());
+            final JsonObject results = response.getJsonPayload();
+            // and contains an assertion for the enabled device
+            final JsonObject result4711 = results.getJsonObject("4711");
+            ctx.assertEquals(HttpURLConnection.HTTP_OK, result4711.getInteger(RegistrationConstants.FIELD_STATUS));
+            ctx.assertNotNull(result4711.getJsonObject(RegistrationConstants.FIELD_PAYLOAD).getString(RegistrationConstants.FIELD_ASSERTION));
+            ctx.assertTrue(CacheDirective.from(result4711.getString(RegistrationConstants.FIELD_CACHE_CONTROL)).isCachingAllowed());
+            // and error status codes for the other devices
+            ctx.assertEquals(HttpURLConnection.HTTP_NOT_FOUND, results.getJsonObject("4712").getInteger(RegistrationConstants.FIELD_STATUS));
+            ctx.assertNull(results.getJsonObject("4712").getJsonObject(RegistrationConstants.FIELD_PAYLOAD));
+            ctx.assertEquals(HttpURLConnection.HTTP_FORBIDDEN, results.getJsonObject("4713").getInteger(RegistrationConstants.FIELD_STATUS));
+        }));
+    }
+
+    /**
+     * Verifies that a request to assert the registration status of multiple devices
+     * fails if it does not contain any device identifiers.
+     * 
+     * @param ctx The vertx unit test context.
+     */
+    @Test
+    public void testProcessBatchAssertRequestFailsForMissingDeviceIds(final TestContext ctx) {
+
+        // GIVEN a registry
+        final BaseRegistrationService<ServiceConfigProperties> registrationService = newRegistrationService();
+        registrationService.setRegistrationAssertionFactory(RegistrationAssertionHelperImpl.forSigning(vertx, props));
+
+        // WHEN sending a batch assertion request that does not contain any device identifiers
+        final EventBusMessage request = EventBusMessage.forOperation(RegistrationConstants.ACTION_ASSERT_BATCH)
+                .setTenant(Constants.DEFAULT_TENANT)
+                .setJsonPayload(new JsonObject().put(RegistrationConstants.FIELD_DEVICE_IDS, new JsonArray()));
+        registrationService.processRequest(request).setHandler(ctx.asyncAssertFailure(t -> {
+            // THEN the request fails with a 400 status
+            ctx.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, ((ServiceInvocationException) t).getErrorCode());
+        }));
+    }
+
     private BaseRegistrationService<ServiceConfigProperties> newRegistrationService() {
         return newRegistrationService(this::getDevice);
     }
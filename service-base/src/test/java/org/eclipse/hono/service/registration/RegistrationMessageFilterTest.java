@@ -22,6 +22,8 @@ import org.eclipse.hono.util.RegistrationConstants;
 import org.eclipse.hono.util.ResourceIdentifier;
 import org.junit.Test;
 
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonHelper;
 
 /**
@@ -112,6 +114,40 @@ public class RegistrationMessageFilterTest {
         assertTrue(RegistrationMessageFilter.verify(linkTarget, msg));
     }
 
+    /**
+     * Verifies that a request to assert the registration of multiple devices
+     * passes the filter without containing a device ID if it contains a payload.
+     */
+    @Test
+    public void testVerifySucceedsForBatchAssertionWithoutDeviceId() {
+        // GIVEN a batch assertion message lacking the device id but containing a payload
+        final Message msg = givenAMessageHavingProperties(null, RegistrationConstants.ACTION_ASSERT_BATCH);
+        MessageHelper.setPayload(msg, RegistrationConstants.CONTENT_TYPE_APPLICATION_JSON,
+                new JsonObject().put(RegistrationConstants.FIELD_DEVICE_IDS, new JsonArray().add(MY_DEVICE)).toBuffer());
+
+        // WHEN receiving the message via a link
+        final ResourceIdentifier linkTarget = getResourceIdentifier(MY_TENANT);
+
+        // THEN message validation succeeds
+        assertTrue(RegistrationMessageFilter.verify(linkTarget, msg));
+    }
+
+    /**
+     * Verifies that a request to assert the registration of multiple devices
+     * that does not contain a payload does not pass the filter.
+     */
+    @Test
+    public void testVerifyDetectsMissingPayloadOfBatchAssertion() {
+        // GIVEN a batch assertion message lacking a payload
+        final Message msg = givenAMessageHavingProperties(null, RegistrationConstants.ACTION_ASSERT_BATCH);
+
+        // WHEN receiving the message via a link
+        final ResourceIdentifier linkTarget = getResourceIdentifier(MY_TENANT);
+
+        // THEN message validation fails
+        assertFalse(RegistrationMessageFilter.verify(linkTarget, msg));
+    }
+
     private static ResourceIdentifier getResourceIdentifier(final String tenant) {
         return getResourceIdentifier(tenant, null);
     }
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.when;
 
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.EventBusMessage;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.ResourceIdentifier;
 import org.eclipse.hono.util.TenantConstants;
@@ -31,7 +32,6 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
-import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonHelper;
 
 /**
@@ -72,6 +72,6 @@ public class TenantAmqpEndpointTest {
 
         endpoint.processRequest(msg, resource, Constants.PRINCIPAL_ANONYMOUS);
 
-        verify(eventBus).send(eq(TenantConstants.EVENT_BUS_ADDRESS_TENANT_IN), any(JsonObject.class));
+        verify(eventBus).send(eq(TenantConstants.EVENT_BUS_ADDRESS_TENANT_IN), any(EventBusMessage.class));
     }
 }
@@ -23,6 +23,8 @@ abstract class AbstractFileBasedRegistryConfigProperties {
     private String filename = getDefaultFileName();
     private boolean saveToFile = false;
     private boolean modificationEnabled = true;
+    private boolean journalEnabled = false;
+    private int journalCompactionThreshold = JournalingRegistryStorage.DEFAULT_COMPACTION_THRESHOLD;
 
     /**
      * Gets the path to the file that the registry should be persisted to periodically.
@@ -105,4 +107,61 @@ abstract class AbstractFileBasedRegistryConfigProperties {
         this.filename = filename;
     }
 
+    /**
+     * Checks whether changes to the registry's content should be appended to a journal
+     * instead of writing the complete content to the file each time the registry is persisted.
+     * <p>
+     * The journal is written to a file named like the registry file with a
+     * <em>.journal</em> suffix. It is replayed on startup after the registry file has been
+     * loaded and is compacted into the registry file periodically.
+     * <p>
+     * This property is only relevant if {@link #isSaveToFile()} returns {@code true}.
+     * <p>
+     * Default value is {@code false}.
+     *
+     * @return {@code true} if changes should be written to a journal.
+     */
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    /**
+     * Sets whether changes to the registry's content should be appended to a journal
+     * instead of writing the complete content to the file each time the registry is persisted.
+     * <p>
+     * Default value is {@code false}.
+     *
+     * @param enabled {@code true} if changes should be written to a journal.
+     */
+    public void setJournalEnabled(final boolean enabled) {
+        this.journalEnabled = enabled;
+    }
+
+    /**
+     * Gets the number of records that the journal may contain before it gets compacted
+     * into the registry file.
+     * <p>
+     * Default value is {@value JournalingRegistryStorage#DEFAULT_COMPACTION_THRESHOLD}.
+     *
+     * @return The number of records.
+     */
+    public int getJournalCompactionThreshold() {
+        return journalCompactionThreshold;
+    }
+
+    /**
+     * Sets the number of records that the journal may contain before it gets compacted
+     * into the registry file.
+     * <p>
+     * Default value is {@value JournalingRegistryStorage#DEFAULT_COMPACTION_THRESHOLD}.
+     *
+     * @param threshold The number of records.
+     * @throws IllegalArgumentException if threshold is &lt;= 0.
+     */
+    public void setJournalCompactionThreshold(final int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be > 0");
+        }
+        this.journalCompactionThreshold = threshold;
+    }
 }
@@ -19,14 +19,19 @@ import io.vertx.core.dns.AddressResolverOptions;
 import org.eclipse.hono.config.ApplicationConfigProperties;
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.config.VertxProperties;
+import org.eclipse.hono.service.EventBusService;
+import org.eclipse.hono.service.amqp.RequestResponseEndpoint;
 import org.eclipse.hono.service.credentials.CredentialsAmqpEndpoint;
 import org.eclipse.hono.service.credentials.CredentialsHttpEndpoint;
+import org.eclipse.hono.service.credentials.CredentialsService;
 import org.eclipse.hono.service.registration.RegistrationAssertionHelper;
 import org.eclipse.hono.service.registration.RegistrationAssertionHelperImpl;
 import org.eclipse.hono.service.registration.RegistrationHttpEndpoint;
 import org.eclipse.hono.service.registration.RegistrationAmqpEndpoint;
+import org.eclipse.hono.service.registration.RegistrationService;
 import org.eclipse.hono.service.tenant.TenantAmqpEndpoint;
 import org.eclipse.hono.service.tenant.TenantHttpEndpoint;
+import org.eclipse.hono.service.tenant.TenantService;
 import org.eclipse.hono.util.Constants;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.ObjectFactoryCreatingFactoryBean;
@@ -92,35 +97,54 @@ public class ApplicationConfig {
 
     /**
      * Creates a new instance of an AMQP 1.0 protocol handler for Hono's <em>Device Registration</em> API.
+     * <p>
+     * Unless vert.x is clustered, the handler invokes the service directly instead of
+     * sending requests via the event bus.
      * 
+     * @param service The service implementing the API.
      * @return The handler.
      */
     @Bean
     @Scope("prototype")
-    public RegistrationAmqpEndpoint registrationAmqpEndpoint() {
-        return new RegistrationAmqpEndpoint(vertx());
+    public RegistrationAmqpEndpoint registrationAmqpEndpoint(final RegistrationService service) {
+        return bindToService(new RegistrationAmqpEndpoint(vertx()), service);
     }
 
     /**
      * Creates a new instance of an AMQP 1.0 protocol handler for Hono's <em>Credentials</em> API.
+     * <p>
+     * Unless vert.x is clustered, the handler invokes the service directly instead of
+     * sending requests via the event bus.
      * 
+     * @param service The service implementing the API.
      * @return The handler.
      */
     @Bean
     @Scope("prototype")
-    public CredentialsAmqpEndpoint credentialsAmqpEndpoint() {
-        return new CredentialsAmqpEndpoint(vertx());
+    public CredentialsAmqpEndpoint credentialsAmqpEndpoint(final CredentialsService service) {
+        return bindToService(new CredentialsAmqpEndpoint(vertx()), service);
     }
 
     /**
      * Creates a new instance of an AMQP 1.0 protocol handler for Hono's <em>Tenant</em> API.
-     *
+     * <p>
+     * Unless vert.x is clustered, the handler invokes the service directly instead of
+     * sending requests via the event bus.
+     * 
+     * @param service The service implementing the API.
      * @return The handler.
      */
     @Bean
     @Scope("prototype")
-    public TenantAmqpEndpoint tenantAmqpEndpoint() {
-        return new TenantAmqpEndpoint(vertx());
+    public TenantAmqpEndpoint tenantAmqpEndpoint(final TenantService service) {
+        return bindToService(new TenantAmqpEndpoint(vertx()), service);
+    }
+
+    private <T extends RequestResponseEndpoint<?>> T bindToService(final T endpoint, final Object service) {
+        if (service instanceof EventBusService && !vertx().isClustered()) {
+            endpoint.setService((EventBusService<?>) service);
+        }
+        return endpoint;
     }
 
     /**
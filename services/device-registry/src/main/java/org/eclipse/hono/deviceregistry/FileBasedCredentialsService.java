@@ -15,11 +15,14 @@ package org.eclipse.hono.deviceregistry;
 
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -62,8 +65,10 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
 
     // <tenantId, <authId, credentialsData[]>>
     private final Map<String, Map<String, JsonArray>> credentials = new HashMap<>();
+    // <tenantId, <deviceId, authIds>>
+    private final Map<String, Map<String, Set<String>>> authIdsByDevice = new HashMap<>();
     private boolean running = false;
-    private boolean dirty = false;
+    private RegistryStorage storage;
 
     @Autowired
     @Override
@@ -127,37 +132,45 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
             // no need to load anything
             return Future.succeededFuture();
         } else {
-            final Future<Buffer> readResult = Future.future();
+            final AtomicInteger credentialsCount = new AtomicInteger();
             log.debug("trying to load credentials from file {}", getConfig().getFilename());
-            vertx.fileSystem().readFile(getConfig().getFilename(), readResult.completer());
-            return readResult.compose(buffer -> {
-                return addAll(buffer);
+            return JsonArrayStreamParser.parseFile(vertx, getConfig().getFilename(), tenant -> {
+                credentialsCount.addAndGet(addCredentialsForTenant(tenant));
+            }).map(tenantCount -> {
+                log.info("successfully loaded {} credentials from file [{}]", credentialsCount.get(), getConfig().getFilename());
+                return (Void) null;
             }).recover(t -> {
+                if (t instanceof DecodeException) {
+                    log.warn("cannot read malformed JSON from credentials file [{}]", getConfig().getFilename());
+                }
                 log.debug("cannot load credentials from file [{}]: {}", getConfig().getFilename(), t.getMessage());
                 return Future.succeededFuture();
-            });
+            }).compose(ok -> getStorage().replay(this::applyMutation));
         }
     }
 
-    private Future<Void> addAll(final Buffer credentials) {
-        final Future<Void> result = Future.future();
-        try {
-            int credentialsCount = 0;
-            final JsonArray allObjects = credentials.toJsonArray();
-            log.debug("trying to load credentials for {} tenants", allObjects.size());
-            for (final Object obj : allObjects) {
-                if (JsonObject.class.isInstance(obj)) {
-                    credentialsCount += addCredentialsForTenant((JsonObject) obj);
-                }
+    private void applyMutation(final RegistryStorage.Operation operation, final String tenantId, final String authId, final Object value) {
+
+        switch (operation) {
+        case PUT:
+            final JsonArray replacedCredentials = getCredentialsForTenant(tenantId).put(authId, (JsonArray) value);
+            updateDeviceIndex(tenantId, authId, getDeviceIds(replacedCredentials), (JsonArray) value);
+            break;
+        case REMOVE:
+            final Map<String, JsonArray> credentialsForTenant = credentials.get(tenantId);
+            if (credentialsForTenant != null) {
+                final JsonArray removedCredentials = credentialsForTenant.remove(authId);
+                updateDeviceIndex(tenantId, authId, getDeviceIds(removedCredentials), null);
             }
-            log.info("successfully loaded {} credentials from file [{}]", credentialsCount, getConfig().getFilename());
-            result.complete();
-        } catch (final DecodeException e) {
-            log.warn("cannot read malformed JSON from credentials file [{}]", getConfig().getFilename());
-            result.fail(e);
+            break;
+        case CLEAR:
+            credentials.clear();
+            authIdsByDevice.clear();
+            break;
+        default:
+            // nothing to do
         }
-        return result;
-    };
+    }
 
     int addCredentialsForTenant(final JsonObject tenant) {
         int count = 0;
@@ -176,9 +189,93 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
             count++;
         }
         credentials.put(tenantId, credentialsMap);
+        authIdsByDevice.remove(tenantId);
+        credentialsMap.forEach((authId, credentialsForAuthId) -> {
+            updateDeviceIndex(tenantId, authId, Collections.emptySet(), credentialsForAuthId);
+        });
         return count;
     }
 
+    /**
+     * Gets the identifiers of the devices that the credentials of an authentication identifier
+     * belong to.
+     *
+     * @param credentialsForAuthId The credentials (may be {@code null}).
+     * @return The device identifiers.
+     */
+    private Set<String> getDeviceIds(final JsonArray credentialsForAuthId) {
+
+        if (credentialsForAuthId == null || credentialsForAuthId.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<String> deviceIds = new HashSet<>();
+        for (final Object obj : credentialsForAuthId) {
+            if (obj instanceof JsonObject) {
+                final String deviceId = getTypesafeValueForField(String.class, (JsonObject) obj,
+                        CredentialsConstants.FIELD_PAYLOAD_DEVICE_ID);
+                if (deviceId != null) {
+                    deviceIds.add(deviceId);
+                }
+            }
+        }
+        return deviceIds;
+    }
+
+    /**
+     * Updates the index of authentication identifiers by device after the credentials
+     * of an authentication identifier have been changed.
+     *
+     * @param tenantId The tenant that the credentials belong to.
+     * @param authId The authentication identifier.
+     * @param deviceIdsBefore The identifiers of the devices that the credentials belonged to
+     *                        before the change.
+     * @param credentialsForAuthId The changed credentials (may be {@code null}).
+     */
+    private void updateDeviceIndex(
+            final String tenantId,
+            final String authId,
+            final Set<String> deviceIdsBefore,
+            final JsonArray credentialsForAuthId) {
+
+        final Set<String> deviceIdsAfter = getDeviceIds(credentialsForAuthId);
+        for (final String deviceId : deviceIdsBefore) {
+            if (!deviceIdsAfter.contains(deviceId)) {
+                removeFromDeviceIndex(tenantId, deviceId, authId);
+            }
+        }
+        for (final String deviceId : deviceIdsAfter) {
+            if (!deviceIdsBefore.contains(deviceId)) {
+                authIdsByDevice.computeIfAbsent(tenantId, id -> new HashMap<>())
+                    .computeIfAbsent(deviceId, id -> new HashSet<>())
+                    .add(authId);
+            }
+        }
+    }
+
+    private void removeFromDeviceIndex(final String tenantId, final String deviceId, final String authId) {
+
+        final Map<String, Set<String>> authIdsForTenant = authIdsByDevice.get(tenantId);
+        if (authIdsForTenant != null) {
+            final Set<String> authIds = authIdsForTenant.get(deviceId);
+            if (authIds != null) {
+                authIds.remove(authId);
+                if (authIds.isEmpty()) {
+                    authIdsForTenant.remove(deviceId);
+                }
+            }
+        }
+    }
+
+    private Set<String> getAuthIdsForDevice(final String tenantId, final String deviceId) {
+
+        final Map<String, Set<String>> authIdsForTenant = authIdsByDevice.get(tenantId);
+        if (authIdsForTenant == null) {
+            return Collections.emptySet();
+        } else {
+            return authIdsForTenant.getOrDefault(deviceId, Collections.emptySet());
+        }
+    }
+
     @Override
     protected void doStop(final Future<Void> stopFuture) {
 
@@ -196,38 +293,68 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
 
         if (!getConfig().isSaveToFile()) {
             return Future.succeededFuture();
-        } else if (dirty) {
-            return checkFileExists(true).compose(s -> {
-                final AtomicInteger idCount = new AtomicInteger();
-                final JsonArray tenants = new JsonArray();
-                for (final Entry<String, Map<String, JsonArray>> entry : credentials.entrySet()) {
-                    final JsonArray credentialsArray = new JsonArray();
-                    for (final JsonArray singleAuthIdCredentials : entry.getValue().values()) {
-                        credentialsArray.addAll(singleAuthIdCredentials.copy());
-                        idCount.incrementAndGet();
-                    }
-                    tenants.add(
-                            new JsonObject()
-                                    .put(FIELD_TENANT, entry.getKey())
-                                    .put(ARRAY_CREDENTIALS, credentialsArray));
-                }
-                final Future<Void> writeHandler = Future.future();
-                vertx.fileSystem().writeFile(
-                        getConfig().getFilename(),
-                        Buffer.buffer(tenants.encodePrettily(), StandardCharsets.UTF_8.name()),
-                        writeHandler.completer());
-                return writeHandler.map(ok -> {
-                    dirty = false;
-                    log.trace("successfully wrote {} credentials to file {}", idCount.get(), getConfig().getFilename());
-                    return (Void) null;
-                }).otherwise(t -> {
-                    log.warn("could not write credentials to file {}", getConfig().getFilename(), t);
-                    return (Void) null;
-                });
-            });
         } else {
-            log.trace("credentials registry does not need to be persisted");
-            return Future.succeededFuture();
+            return getStorage().persist(this::createSnapshot);
+        }
+    }
+
+    private Buffer createSnapshot() {
+
+        final AtomicInteger idCount = new AtomicInteger();
+        final JsonArray tenants = new JsonArray();
+        for (final Entry<String, Map<String, JsonArray>> entry : credentials.entrySet()) {
+            final JsonArray credentialsArray = new JsonArray();
+            for (final JsonArray singleAuthIdCredentials : entry.getValue().values()) {
+                credentialsArray.addAll(singleAuthIdCredentials.copy());
+                idCount.incrementAndGet();
+            }
+            tenants.add(
+                    new JsonObject()
+                            .put(FIELD_TENANT, entry.getKey())
+                            .put(ARRAY_CREDENTIALS, credentialsArray));
+        }
+        log.trace("writing {} credentials to file {}", idCount.get(), getConfig().getFilename());
+        return Buffer.buffer(tenants.encodePrettily(), StandardCharsets.UTF_8.name());
+    }
+
+    private RegistryStorage getStorage() {
+
+        if (storage == null) {
+            if (getConfig().isSaveToFile() && getConfig().isJournalEnabled()) {
+                storage = new JournalingRegistryStorage(vertx, getConfig().getFilename(),
+                        getConfig().getJournalCompactionThreshold());
+            } else {
+                storage = new SnapshotRegistryStorage(vertx, getConfig().getFilename());
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * Sets the storage engine to use for persisting the credentials.
+     * <p>
+     * If not set, the storage engine is determined by the configuration
+     * properties.
+     *
+     * @param storage The storage engine.
+     */
+    void setStorage(final RegistryStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Records the current credentials of an authentication identifier with the storage engine.
+     *
+     * @param tenantId The tenant that the credentials belong to.
+     * @param authId The authentication identifier.
+     * @param credentialsForAuthId The credentials or an empty array if all credentials have been removed.
+     */
+    private void recordCredentials(final String tenantId, final String authId, final JsonArray credentialsForAuthId) {
+
+        if (credentialsForAuthId.isEmpty()) {
+            getStorage().recordRemove(tenantId, authId);
+        } else {
+            getStorage().recordPut(tenantId, authId, credentialsForAuthId::copy);
         }
     }
 
@@ -285,9 +412,9 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
             resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
         } else {
             final JsonArray matchingCredentials = new JsonArray();
-            // iterate over all credentials per auth-id in order to find credentials matching the given device
-            for (final JsonArray credentialsForAuthId : credentialsForTenant.values()) {
-                findCredentialsForDevice(credentialsForAuthId, deviceId, matchingCredentials);
+            // look up the auth-ids of the device in the index instead of iterating over all of the tenant's credentials
+            for (final String authId : getAuthIdsForDevice(tenantId, deviceId)) {
+                findCredentialsForDevice(credentialsForTenant.get(authId), deviceId, matchingCredentials);
             }
             if (matchingCredentials.isEmpty()) {
                 resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
@@ -389,8 +516,10 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
             }
         }
 
+        final Set<String> deviceIdsBefore = getDeviceIds(authIdCredentials);
         authIdCredentials.add(credentialsToAdd);
-        dirty = true;
+        updateDeviceIndex(tenantId, authId, deviceIdsBefore, authIdCredentials);
+        recordCredentials(tenantId, authId, authIdCredentials);
         return CredentialsResult.from(HttpURLConnection.HTTP_CREATED);
     }
 
@@ -415,6 +544,7 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
                 } else {
                     // find credentials of given type
+                    final Set<String> deviceIdsBefore = getDeviceIds(credentialsForAuthId);
                     boolean removed = false;
                     final Iterator<Object> credentialsIterator = credentialsForAuthId.iterator();
                     while (credentialsIterator.hasNext()) {
@@ -427,7 +557,8 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
                     }
                     if (removed) {
                         credentialsForAuthId.add(newCredentials);
-                        dirty = true;
+                        updateDeviceIndex(tenantId, authId, deviceIdsBefore, credentialsForAuthId);
+                        recordCredentials(tenantId, authId, credentialsForAuthId);
                         resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NO_CONTENT)));
                     } else {
                         resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
@@ -453,12 +584,15 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
                 resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
             } else {
                 final JsonArray credentialsForAuthId = credentialsForTenant.get(authId);
+                final Set<String> deviceIdsBefore = getDeviceIds(credentialsForAuthId);
                 if (credentialsForAuthId == null) {
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
                 } else if (removeCredentialsFromCredentialsArray(null, type, credentialsForAuthId)) {
                     if (credentialsForAuthId.isEmpty()) {
                         credentialsForTenant.remove(authId); // do not leave empty array as value
                     }
+                    updateDeviceIndex(tenantId, authId, deviceIdsBefore, credentialsForAuthId);
+                    recordCredentials(tenantId, authId, credentialsForAuthId);
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NO_CONTENT)));
                 } else {
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
@@ -485,19 +619,23 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
 
                 boolean removedAnyElement = false;
 
-                // delete based on type (no authId provided) - this might consume more time on large data sets and is thus
-                // handled explicitly
-                for (final JsonArray credentialsForAuthId : credentialsForTenant.values()) {
-                    if (removeCredentialsFromCredentialsArray(deviceId, CredentialsConstants.SPECIFIER_WILDCARD, credentialsForAuthId)) {
-                        removedAnyElement = true;
+                // only visit the auth-ids of the device as recorded in the index
+                final Map<String, Set<String>> authIdsForTenant = authIdsByDevice.get(tenantId);
+                final Set<String> authIds = authIdsForTenant == null ? null : authIdsForTenant.remove(deviceId);
+                if (authIds != null) {
+                    for (final String authId : authIds) {
+                        final JsonArray credentialsForAuthId = credentialsForTenant.get(authId);
+                        if (removeCredentialsFromCredentialsArray(deviceId, CredentialsConstants.SPECIFIER_WILDCARD, credentialsForAuthId)) {
+                            if (credentialsForAuthId.isEmpty()) {
+                                credentialsForTenant.remove(authId); // do not leave empty array as value
+                            }
+                            recordCredentials(tenantId, authId, credentialsForAuthId);
+                            removedAnyElement = true;
+                        }
                     }
                 }
 
-                // there might be empty credentials arrays left now, so remove them in a second run
-                cleanupEmptyCredentialsArrays(credentialsForTenant);
-
                 if (removedAnyElement) {
-                    dirty = true;
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NO_CONTENT)));
                 } else {
                     resultHandler.handle(Future.succeededFuture(CredentialsResult.from(HttpURLConnection.HTTP_NOT_FOUND)));
@@ -508,18 +646,6 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
         }
     }
 
-    private void cleanupEmptyCredentialsArrays(final Map<String, JsonArray> mapToCleanup) {
-
-        // use an iterator here to allow removal during looping (streams currently do not allow this)
-        final Iterator<Entry<String, JsonArray>> entries = mapToCleanup.entrySet().iterator();
-        while (entries.hasNext()) {
-            final Entry<String, JsonArray> entry = entries.next();
-            if (entry.getValue().isEmpty()) {
-                entries.remove();
-            }
-        }
-    }
-
     private boolean removeCredentialsFromCredentialsArray(final String deviceId, final String type, final JsonArray credentialsForAuthId) {
 
         boolean removedElement = false;
@@ -566,8 +692,9 @@ public final class FileBasedCredentialsService extends CompleteBaseCredentialsSe
      * Removes all credentials from the registry.
      */
     public void clear() {
-        dirty = true;
         credentials.clear();
+        authIdsByDevice.clear();
+        getStorage().recordClear();
     }
 
     @Override
@@ -61,7 +61,7 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
     // <tenantId, <deviceId, registrationData>>
     private final Map<String, Map<String, JsonObject>> identities = new HashMap<>();
     private boolean running = false;
-    private boolean dirty = false;
+    private RegistryStorage storage;
 
     @Autowired
     @Override
@@ -108,14 +108,39 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
         if (getConfig().getFilename() == null) {
             return Future.succeededFuture();
         } else {
-            final Future<Buffer> readResult = Future.future();
-            vertx.fileSystem().readFile(getConfig().getFilename(), readResult.completer());
-            return readResult.compose(buffer -> {
-                return addAll(buffer);
+            final AtomicInteger deviceCount = new AtomicInteger();
+            return JsonArrayStreamParser.parseFile(vertx, getConfig().getFilename(), tenant -> {
+                deviceCount.addAndGet(addDevicesForTenant(tenant));
+            }).map(tenantCount -> {
+                log.info("successfully loaded {} device identities from file [{}]", deviceCount.get(), getConfig().getFilename());
+                return (Void) null;
             }).recover(t -> {
+                if (t instanceof DecodeException) {
+                    log.warn("cannot read malformed JSON from device identity file [{}]", getConfig().getFilename());
+                }
                 log.debug("cannot load device identities from file [{}]: {}", getConfig().getFilename(), t.getMessage());
                 return Future.succeededFuture();
-            });
+            }).compose(ok -> getStorage().replay(this::applyMutation));
+        }
+    }
+
+    private void applyMutation(final RegistryStorage.Operation operation, final String tenantId, final String deviceId, final Object value) {
+
+        switch (operation) {
+        case PUT:
+            getDevicesForTenant(tenantId).put(deviceId, (JsonObject) value);
+            break;
+        case REMOVE:
+            final Map<String, JsonObject> devices = identities.get(tenantId);
+            if (devices != null) {
+                devices.remove(deviceId);
+            }
+            break;
+        case CLEAR:
+            identities.clear();
+            break;
+        default:
+            // nothing to do
         }
     }
 
@@ -135,26 +160,6 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
         return result;
     }
 
-    private Future<Void> addAll(final Buffer deviceIdentities) {
-
-        final Future<Void> result = Future.future();
-        try {
-            int deviceCount = 0;
-            final JsonArray allObjects = deviceIdentities.toJsonArray();
-            for (final Object obj : allObjects) {
-                if (JsonObject.class.isInstance(obj)) {
-                    deviceCount += addDevicesForTenant((JsonObject) obj);
-                }
-            }
-            log.info("successfully loaded {} device identities from file [{}]", deviceCount, getConfig().getFilename());
-            result.complete();
-        } catch (final DecodeException e) {
-            log.warn("cannot read malformed JSON from device identity file [{}]", getConfig().getFilename());
-            result.fail(e);
-        }
-        return result;
-    }
-
     private int addDevicesForTenant(final JsonObject tenant) {
         int count = 0;
         final String tenantId = tenant.getString(FIELD_TENANT);
@@ -197,42 +202,58 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
 
         if (!getConfig().isSaveToFile()) {
             return Future.succeededFuture();
-        } else if (dirty) {
-            return checkFileExists(true).compose(s -> {
-                final AtomicInteger idCount = new AtomicInteger();
-                final JsonArray tenants = new JsonArray();
-                for (final Entry<String, Map<String, JsonObject>> entry : identities.entrySet()) {
-                    final JsonArray devices = new JsonArray();
-                    for (final Entry<String, JsonObject> deviceEntry : entry.getValue().entrySet()) {
-                        devices.add(
-                                new JsonObject()
-                                        .put(FIELD_PAYLOAD_DEVICE_ID, deviceEntry.getKey())
-                                        .put(FIELD_DATA, deviceEntry.getValue()));
-                        idCount.incrementAndGet();
-                    }
-                    tenants.add(
-                            new JsonObject()
-                                    .put(FIELD_TENANT, entry.getKey())
-                                    .put(ARRAY_DEVICES, devices));
-                }
-
-                final Future<Void> writeHandler = Future.future();
-                vertx.fileSystem().writeFile(getConfig().getFilename(), Buffer.factory.buffer(tenants.encodePrettily()), writeHandler.completer());
-                return writeHandler.map(ok -> {
-                    dirty = false;
-                    log.trace("successfully wrote {} device identities to file {}", idCount.get(), getConfig().getFilename());
-                    return (Void) null;
-                }).otherwise(t -> {
-                    log.warn("could not write device identities to file {}", getConfig().getFilename(), t);
-                    return (Void) null;
-                });
-            });
         } else {
-            log.trace("registry does not need to be persisted");
-            return Future.succeededFuture();
+            return getStorage().persist(this::createSnapshot);
         }
     }
 
+    private Buffer createSnapshot() {
+
+        final AtomicInteger idCount = new AtomicInteger();
+        final JsonArray tenants = new JsonArray();
+        for (final Entry<String, Map<String, JsonObject>> entry : identities.entrySet()) {
+            final JsonArray devices = new JsonArray();
+            for (final Entry<String, JsonObject> deviceEntry : entry.getValue().entrySet()) {
+                devices.add(
+                        new JsonObject()
+                                .put(FIELD_PAYLOAD_DEVICE_ID, deviceEntry.getKey())
+                                .put(FIELD_DATA, deviceEntry.getValue()));
+                idCount.incrementAndGet();
+            }
+            tenants.add(
+                    new JsonObject()
+                            .put(FIELD_TENANT, entry.getKey())
+                            .put(ARRAY_DEVICES, devices));
+        }
+        log.trace("writing {} device identities to file {}", idCount.get(), getConfig().getFilename());
+        return Buffer.factory.buffer(tenants.encodePrettily());
+    }
+
+    private RegistryStorage getStorage() {
+
+        if (storage == null) {
+            if (getConfig().isSaveToFile() && getConfig().isJournalEnabled()) {
+                storage = new JournalingRegistryStorage(vertx, getConfig().getFilename(),
+                        getConfig().getJournalCompactionThreshold());
+            } else {
+                storage = new SnapshotRegistryStorage(vertx, getConfig().getFilename());
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * Sets the storage engine to use for persisting the device identities.
+     * <p>
+     * If not set, the storage engine is determined by the configuration
+     * properties.
+     *
+     * @param storage The storage engine.
+     */
+    void setStorage(final RegistryStorage storage) {
+        this.storage = storage;
+    }
+
     @Override
     public void getDevice(final String tenantId, final String deviceId, final Handler<AsyncResult<RegistrationResult>> resultHandler) {
         Objects.requireNonNull(tenantId);
@@ -278,7 +299,7 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
         if (getConfig().isModificationEnabled()) {
             final Map<String, JsonObject> devices = identities.get(tenantId);
             if (devices != null && devices.remove(deviceId) != null) {
-                dirty = true;
+                getStorage().recordRemove(tenantId, deviceId);
                 return RegistrationResult.from(HTTP_NO_CONTENT);
             } else {
                 return RegistrationResult.from(HTTP_NOT_FOUND);
@@ -315,7 +336,7 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
         final Map<String, JsonObject> devices = getDevicesForTenant(tenantId);
         if (devices.size() < getConfig().getMaxDevicesPerTenant()) {
             if (devices.putIfAbsent(deviceId, obj) == null) {
-                dirty = true;
+                getStorage().recordPut(tenantId, deviceId, obj::copy);
                 return RegistrationResult.from(HTTP_CREATED);
             } else {
                 return RegistrationResult.from(HTTP_CONFLICT);
@@ -345,7 +366,7 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
             final Map<String, JsonObject> devices = identities.get(tenantId);
             if (devices != null && devices.containsKey(deviceId)) {
                 devices.put(deviceId, obj);
-                dirty = true;
+                getStorage().recordPut(tenantId, deviceId, obj::copy);
                 return RegistrationResult.from(HTTP_NO_CONTENT);
             } else {
                 return RegistrationResult.from(HTTP_NOT_FOUND);
@@ -363,8 +384,8 @@ public final class FileBasedRegistrationService extends CompleteBaseRegistration
      * Removes all devices from the registry.
      */
     public void clear() {
-        dirty = true;
         identities.clear();
+        getStorage().recordClear();
     }
 
     @Override
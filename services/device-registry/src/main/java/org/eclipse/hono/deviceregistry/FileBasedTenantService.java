@@ -14,7 +14,9 @@
 package org.eclipse.hono.deviceregistry;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -50,8 +52,14 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
 
     // <ID, tenant>
     private final Map<String, TenantObject> tenants = new HashMap<>();
+    /**
+     * The tenants by the subject DN of their trusted CA. A CA is usually used by
+     * a single tenant only, however, tenants loaded from file may share a CA. The
+     * first tenant of a list is the one that look-ups by CA resolve to.
+     */
+    private final Map<X500Principal, List<TenantObject>> tenantsByCa = new HashMap<>();
     private boolean running = false;
-    private boolean dirty = false;
+    private RegistryStorage storage;
 
     @Autowired
     @Override
@@ -98,14 +106,37 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
         if (getConfig().getFilename() == null) {
             return Future.succeededFuture();
         } else {
-            final Future<Buffer> readResult = Future.future();
-            vertx.fileSystem().readFile(getConfig().getFilename(), readResult.completer());
-            return readResult.compose(buffer -> {
-                return addAll(buffer);
+            return JsonArrayStreamParser.parseFile(vertx, getConfig().getFilename(), this::addTenant).map(tenantCount -> {
+                log.info("successfully loaded {} tenants from file [{}]", tenantCount, getConfig().getFilename());
+                return (Void) null;
             }).recover(t -> {
+                if (t instanceof DecodeException) {
+                    log.warn("cannot read malformed JSON from tenants file [{}]", getConfig().getFilename());
+                }
                 log.debug("cannot load tenants from file [{}]: {}", getConfig().getFilename(), t.getMessage());
                 return Future.succeededFuture();
-            });
+            }).compose(ok -> getStorage().replay(this::applyMutation));
+        }
+    }
+
+    private void applyMutation(final RegistryStorage.Operation operation, final String tenantId, final String id, final Object value) {
+
+        switch (operation) {
+        case PUT:
+            addTenant((JsonObject) value);
+            break;
+        case REMOVE:
+            final TenantObject removedTenant = tenants.remove(tenantId);
+            if (removedTenant != null) {
+                removeFromCaIndex(removedTenant);
+            }
+            break;
+        case CLEAR:
+            tenants.clear();
+            tenantsByCa.clear();
+            break;
+        default:
+            // nothing to do
         }
     }
 
@@ -125,35 +156,17 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
         return result;
     }
 
-    private Future<Void> addAll(final Buffer tenantsBuffer) {
-
-        final Future<Void> result = Future.future();
-        try {
-            if (tenantsBuffer.length() > 0) {
-                int tenantCount = 0;
-                final JsonArray allObjects = tenantsBuffer.toJsonArray();
-                for (final Object obj : allObjects) {
-                    if (JsonObject.class.isInstance(obj)) {
-                        tenantCount++;
-                        addTenant((JsonObject) obj);
-                    }
-                }
-                log.info("successfully loaded {} tenants from file [{}]", tenantCount, getConfig().getFilename());
-            }
-            result.complete();
-        } catch (final DecodeException e) {
-            log.warn("cannot read malformed JSON from tenants file [{}]", getConfig().getFilename());
-            result.fail(e);
-        }
-        return result;
-    }
-
     private void addTenant(final JsonObject tenant) {
 
         try {
             final TenantObject tenantObject = tenant.mapTo(TenantObject.class);
             log.debug("loading tenant [{}]", tenantObject.getTenantId());
-            tenants.put(tenantObject.getTenantId(), tenantObject);
+            final TenantObject conflictingTenant = getByCa(tenantObject.getTrustedCaSubjectDn());
+            if (conflictingTenant != null && !conflictingTenant.getTenantId().equals(tenantObject.getTenantId())) {
+                log.warn("tenant [{}] uses same trusted CA as tenant [{}]", tenantObject.getTenantId(),
+                        conflictingTenant.getTenantId());
+            }
+            putTenant(tenantObject);
         } catch (final IllegalArgumentException e) {
             log.warn("cannot deserialize tenant", e);
         }
@@ -176,31 +189,44 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
 
         if (!getConfig().isSaveToFile()) {
             return Future.succeededFuture();
-        } else if (dirty) {
-            return checkFileExists(true).compose(s -> {
-
-                final JsonArray tenantsJson = new JsonArray();
-                tenants.values().stream().forEach(tenant -> {
-                    tenantsJson.add(JsonObject.mapFrom(tenant));
-                });
-
-                final Future<Void> writeHandler = Future.future();
-                vertx.fileSystem().writeFile(getConfig().getFilename(),
-                        Buffer.factory.buffer(tenantsJson.encodePrettily()), writeHandler.completer());
-                return writeHandler.map(ok -> {
-                    dirty = false;
-                    log.trace("successfully wrote {} tenants to file {}", tenantsJson.size(),
-                            getConfig().getFilename());
-                    return (Void) null;
-                }).otherwise(t -> {
-                    log.warn("could not write tenants to file {}", getConfig().getFilename(), t);
-                    return (Void) null;
-                });
-            });
         } else {
-            log.trace("tenants registry does not need to be persisted");
-            return Future.succeededFuture();
+            return getStorage().persist(this::createSnapshot);
+        }
+    }
+
+    private Buffer createSnapshot() {
+
+        final JsonArray tenantsJson = new JsonArray();
+        tenants.values().stream().forEach(tenant -> {
+            tenantsJson.add(JsonObject.mapFrom(tenant));
+        });
+        log.trace("writing {} tenants to file {}", tenantsJson.size(), getConfig().getFilename());
+        return Buffer.factory.buffer(tenantsJson.encodePrettily());
+    }
+
+    private RegistryStorage getStorage() {
+
+        if (storage == null) {
+            if (getConfig().isSaveToFile() && getConfig().isJournalEnabled()) {
+                storage = new JournalingRegistryStorage(vertx, getConfig().getFilename(),
+                        getConfig().getJournalCompactionThreshold());
+            } else {
+                storage = new SnapshotRegistryStorage(vertx, getConfig().getFilename());
+            }
         }
+        return storage;
+    }
+
+    /**
+     * Sets the storage engine to use for persisting the tenants.
+     * <p>
+     * If not set, the storage engine is determined by the configuration
+     * properties.
+     *
+     * @param storage The storage engine.
+     */
+    void setStorage(final RegistryStorage storage) {
+        this.storage = storage;
     }
 
     @Override
@@ -264,8 +290,10 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
         Objects.requireNonNull(tenantId);
 
         if (getConfig().isModificationEnabled()) {
-            if (tenants.remove(tenantId) != null) {
-                dirty = true;
+            final TenantObject removedTenant = tenants.remove(tenantId);
+            if (removedTenant != null) {
+                removeFromCaIndex(removedTenant);
+                getStorage().recordRemove(tenantId, null);
                 return TenantResult.from(HttpURLConnection.HTTP_NO_CONTENT);
             } else {
                 return TenantResult.from(HttpURLConnection.HTTP_NOT_FOUND);
@@ -309,8 +337,8 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
                     // we are trying to use the same CA as an already existing tenant
                     return TenantResult.from(HttpURLConnection.HTTP_CONFLICT);
                 } else {
-                    tenants.put(tenantId, tenant);
-                    dirty = true;
+                    putTenant(tenant);
+                    getStorage().recordPut(tenantId, null, () -> JsonObject.mapFrom(tenant));
                     return TenantResult.from(HttpURLConnection.HTTP_CREATED);
                 }
             } catch (final IllegalArgumentException e) {
@@ -360,8 +388,8 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
                         // we are trying to use the same CA as another tenant
                         return TenantResult.from(HttpURLConnection.HTTP_CONFLICT);
                     } else {
-                        tenants.put(tenantId, tenant);
-                        dirty = true;
+                        putTenant(tenant);
+                        getStorage().recordPut(tenantId, null, () -> JsonObject.mapFrom(tenant));
                         return TenantResult.from(HttpURLConnection.HTTP_NO_CONTENT);
                     }
                 } catch (final IllegalArgumentException e) {
@@ -380,9 +408,45 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
         if (subjectDn == null) {
             return null;
         } else {
-            return tenants.values().stream()
-                    .filter(t -> subjectDn.equals(t.getTrustedCaSubjectDn()))
-                    .findFirst().orElse(null);
+            final List<TenantObject> tenantsWithCa = tenantsByCa.get(subjectDn);
+            return tenantsWithCa == null ? null : tenantsWithCa.get(0);
+        }
+    }
+
+    /**
+     * Adds or replaces a tenant and keeps the index of trusted CAs in sync.
+     * <p>
+     * If the trusted CA is already used by another tenant (which may only happen
+     * for tenants loaded from file), the CA remains mapped to the other tenant until
+     * the other tenant is removed or no longer uses the CA.
+     *
+     * @param tenant The tenant.
+     */
+    private void putTenant(final TenantObject tenant) {
+
+        final TenantObject replacedTenant = tenants.put(tenant.getTenantId(), tenant);
+        final X500Principal subjectDn = tenant.getTrustedCaSubjectDn();
+        if (replacedTenant != null && subjectDn != null && subjectDn.equals(replacedTenant.getTrustedCaSubjectDn())) {
+            // keep the tenant's position among the tenants using the same CA
+            tenantsByCa.get(subjectDn).replaceAll(t -> t.getTenantId().equals(tenant.getTenantId()) ? tenant : t);
+        } else {
+            if (replacedTenant != null) {
+                removeFromCaIndex(replacedTenant);
+            }
+            if (subjectDn != null) {
+                tenantsByCa.computeIfAbsent(subjectDn, dn -> new ArrayList<>(1)).add(tenant);
+            }
+        }
+    }
+
+    private void removeFromCaIndex(final TenantObject tenant) {
+
+        final X500Principal subjectDn = tenant.getTrustedCaSubjectDn();
+        if (subjectDn != null) {
+            tenantsByCa.computeIfPresent(subjectDn, (dn, tenantsWithCa) -> {
+                tenantsWithCa.removeIf(t -> t.getTenantId().equals(tenant.getTenantId()));
+                return tenantsWithCa.isEmpty() ? null : tenantsWithCa;
+            });
         }
     }
 
@@ -391,7 +455,8 @@ public final class FileBasedTenantService extends CompleteBaseTenantService<File
      */
     public void clear() {
         tenants.clear();
-        dirty = true;
+        tenantsByCa.clear();
+        getStorage().recordClear();
     }
 
     @Override
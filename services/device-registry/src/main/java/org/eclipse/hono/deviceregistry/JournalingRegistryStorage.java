@@ -0,0 +1,420 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A storage engine that appends all mutations of a registry's data to a journal
+ * (write-ahead log) and periodically compacts the journal into a snapshot.
+ * <p>
+ * Mutations are buffered in memory and are appended to the journal file when
+ * {@link #persist(Supplier)} is invoked, one JSON object per line. The cost of
+ * persisting changes is thus proportional to the number of changes instead of
+ * the total amount of data kept in the registry.
+ * <p>
+ * Once the journal contains more than the configured number of records, a snapshot of
+ * the registry's complete data is written to a temporary file which then replaces
+ * the snapshot file. The journal is then replaced with an empty one.
+ * <p>
+ * The first line of the journal contains the SHA-256 digest of the snapshot that the
+ * journal's records need to be applied to. When replaying the journal, its records are
+ * only applied if the digest matches the current snapshot file. A journal left behind
+ * by a crash that happened after the snapshot has been replaced but before the journal
+ * has been replaced is thus discarded instead of being applied to the newer snapshot,
+ * which already contains all of the journal's records. The same is true for a journal
+ * that refers to a snapshot file that has been modified by other means.
+ * <p>
+ * The journal file is named like the snapshot file with a {@value #JOURNAL_SUFFIX}
+ * suffix.
+ */
+public class JournalingRegistryStorage implements RegistryStorage {
+
+    /**
+     * The default number of records after which the journal is compacted.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10000;
+    /**
+     * The suffix appended to the snapshot file name to determine the journal file name.
+     */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalingRegistryStorage.class);
+
+    private static final String FIELD_OPERATION = "op";
+    private static final String FIELD_TENANT = "tenant";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_VALUE = "value";
+    private static final String FIELD_SNAPSHOT_DIGEST = "snapshot";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Vertx vertx;
+    private final String snapshotFilename;
+    private final String journalFilename;
+    private final int compactionThreshold;
+
+    /**
+     * The digest of the current snapshot file or {@code null} if not known yet.
+     */
+    private volatile String snapshotDigest;
+    private List<JsonObject> pendingRecords = new ArrayList<>();
+    private long journalRecords = 0;
+    private boolean persisting = false;
+
+    /**
+     * Creates a new storage for a snapshot file.
+     *
+     * @param vertx The vert.x instance to use for accessing the file system.
+     * @param snapshotFilename The file to write the snapshots to.
+     * @param compactionThreshold The number of records in the journal after which
+     *                            the journal is compacted into a snapshot.
+     * @throws NullPointerException if any of vert.x or file name are {@code null}.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     */
+    public JournalingRegistryStorage(final Vertx vertx, final String snapshotFilename, final int compactionThreshold) {
+
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("compaction threshold must be > 0");
+        }
+        this.vertx = Objects.requireNonNull(vertx);
+        this.snapshotFilename = Objects.requireNonNull(snapshotFilename);
+        this.journalFilename = snapshotFilename + JOURNAL_SUFFIX;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public void recordPut(final String tenantId, final String id, final Supplier<?> value) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(value);
+        pendingRecords.add(newRecord(Operation.PUT, tenantId, id).put(FIELD_VALUE, value.get()));
+    }
+
+    @Override
+    public void recordRemove(final String tenantId, final String id) {
+
+        Objects.requireNonNull(tenantId);
+        pendingRecords.add(newRecord(Operation.REMOVE, tenantId, id));
+    }
+
+    @Override
+    public void recordClear() {
+        pendingRecords.add(newRecord(Operation.CLEAR, null, null));
+    }
+
+    private static JsonObject newRecord(final Operation operation, final String tenantId, final String id) {
+
+        final JsonObject record = new JsonObject().put(FIELD_OPERATION, operation.name().toLowerCase(Locale.ROOT));
+        if (tenantId != null) {
+            record.put(FIELD_TENANT, tenantId);
+        }
+        if (id != null) {
+            record.put(FIELD_ID, id);
+        }
+        return record;
+    }
+
+    /**
+     * Gets the number of records that have been recorded but not persisted yet.
+     *
+     * @return The number of records.
+     */
+    public final int getPendingRecords() {
+        return pendingRecords.size();
+    }
+
+    /**
+     * Gets the number of records contained in the journal.
+     *
+     * @return The number of records.
+     */
+    public final long getJournalRecords() {
+        return journalRecords;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads all records from the journal file (if it exists).
+     * An incomplete last record, e.g. resulting from a crash while appending to the
+     * journal, is ignored. A journal that does not belong to the current snapshot
+     * file is deleted without being replayed.
+     */
+    @Override
+    public Future<Void> replay(final MutationHandler handler) {
+
+        Objects.requireNonNull(handler);
+
+        final Future<List<JsonObject>> readResult = Future.future();
+        vertx.executeBlocking(blockingCode -> {
+            try {
+                blockingCode.complete(readJournal());
+            } catch (final Exception e) {
+                blockingCode.fail(e);
+            }
+        }, true, readResult.completer());
+        return readResult.map(records -> {
+            long count = 0;
+            for (final JsonObject record : records) {
+                try {
+                    final Operation operation = Operation.valueOf(record.getString(FIELD_OPERATION, "").toUpperCase(Locale.ROOT));
+                    handler.apply(operation, record.getString(FIELD_TENANT), record.getString(FIELD_ID), record.getValue(FIELD_VALUE));
+                    count++;
+                } catch (final IllegalArgumentException | ClassCastException e) {
+                    LOG.warn("ignoring malformed record in journal [{}]", journalFilename);
+                }
+            }
+            journalRecords = count;
+            LOG.info("replayed {} records from journal [{}]", count, journalFilename);
+            return (Void) null;
+        });
+    }
+
+    /**
+     * Reads the records contained in the journal file line by line.
+     *
+     * @return The records or an empty list if the journal does not exist or
+     *         does not belong to the current snapshot file.
+     * @throws IOException if the journal cannot be read.
+     */
+    private List<JsonObject> readJournal() throws IOException {
+
+        final Path journalPath = Paths.get(journalFilename);
+        final List<JsonObject> records = new ArrayList<>();
+        if (!Files.exists(journalPath)) {
+            LOG.debug("no journal file [{}] to replay", journalFilename);
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    final JsonObject record = new JsonObject(line);
+                    if (record.containsKey(FIELD_SNAPSHOT_DIGEST)) {
+                        if (!record.getString(FIELD_SNAPSHOT_DIGEST).equals(getSnapshotDigest())) {
+                            LOG.info("discarding journal [{}] which does not belong to current snapshot", journalFilename);
+                            reader.close();
+                            Files.delete(journalPath);
+                            return new ArrayList<>();
+                        }
+                    } else {
+                        records.add(record);
+                    }
+                } catch (final DecodeException | ClassCastException e) {
+                    LOG.warn("ignoring malformed record #{} in journal [{}]", lineNumber, journalFilename);
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation appends all pending records to the journal or writes a
+     * snapshot if the number of records in the journal would exceed the compaction
+     * threshold. If a previous invocation of this method has not completed yet,
+     * this method does nothing.
+     */
+    @Override
+    public Future<Void> persist(final Supplier<Buffer> snapshot) {
+
+        Objects.requireNonNull(snapshot);
+
+        if (persisting) {
+            LOG.trace("persisting of registry [{}] is already in progress", snapshotFilename);
+            return Future.succeededFuture();
+        } else if (pendingRecords.isEmpty()) {
+            LOG.trace("registry [{}] does not need to be persisted", snapshotFilename);
+            return Future.succeededFuture();
+        }
+
+        final List<JsonObject> records = pendingRecords;
+        pendingRecords = new ArrayList<>();
+        persisting = true;
+
+        final Future<Void> result;
+        if (journalRecords + records.size() > compactionThreshold) {
+            result = writeSnapshot(snapshot.get()).map(ok -> {
+                LOG.debug("compacted journal [{}] into snapshot", journalFilename);
+                journalRecords = 0;
+                return (Void) null;
+            });
+        } else {
+            result = append(records).map(ok -> {
+                LOG.trace("appended {} records to journal [{}]", records.size(), journalFilename);
+                journalRecords += records.size();
+                return (Void) null;
+            });
+        }
+        return result.otherwise(t -> {
+            LOG.warn("could not persist registry [{}]", snapshotFilename, t);
+            // try again next time
+            pendingRecords.addAll(0, records);
+            return (Void) null;
+        }).map(ok -> {
+            persisting = false;
+            return (Void) null;
+        });
+    }
+
+    private Future<Void> append(final List<JsonObject> records) {
+
+        final Buffer buffer = Buffer.buffer();
+        for (final JsonObject record : records) {
+            buffer.appendString(record.encode()).appendString("\n");
+        }
+        final Future<Void> result = Future.future();
+        vertx.executeBlocking(blockingCode -> {
+            try {
+                final Path journalPath = Paths.get(journalFilename);
+                if (!Files.exists(journalPath) || Files.size(journalPath) == 0) {
+                    // start a new journal for the current snapshot
+                    write(journalPath, newJournal(getSnapshotDigest()).appendBuffer(buffer).getBytes(),
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                } else {
+                    write(journalPath, buffer.getBytes(), StandardOpenOption.APPEND);
+                }
+                blockingCode.complete();
+            } catch (final Exception e) {
+                blockingCode.fail(e);
+            }
+        }, true, result.completer());
+        return result;
+    }
+
+    private Future<Void> writeSnapshot(final Buffer snapshot) {
+
+        final Future<Void> result = Future.future();
+        vertx.executeBlocking(blockingCode -> {
+            try {
+                final byte[] snapshotBytes = snapshot.getBytes();
+                final Path snapshotPath = Paths.get(snapshotFilename);
+                final Path journalPath = Paths.get(journalFilename);
+                final Path tmpSnapshotPath = Paths.get(snapshotFilename + TMP_SUFFIX);
+                final Path tmpJournalPath = Paths.get(journalFilename + TMP_SUFFIX);
+                write(tmpSnapshotPath, snapshotBytes, StandardOpenOption.TRUNCATE_EXISTING);
+                final String digest = digest(snapshotBytes);
+                write(tmpJournalPath, newJournal(digest).getBytes(), StandardOpenOption.TRUNCATE_EXISTING);
+                // the old journal does not belong to the new snapshot anymore
+                // and will therefore be discarded if we crash before replacing it
+                snapshotDigest = null;
+                Files.move(tmpSnapshotPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE);
+                snapshotDigest = digest;
+                Files.move(tmpJournalPath, journalPath, StandardCopyOption.ATOMIC_MOVE);
+                blockingCode.complete();
+            } catch (final Exception e) {
+                blockingCode.fail(e);
+            }
+        }, true, result.completer());
+        return result;
+    }
+
+    /**
+     * Gets the digest of the current snapshot file.
+     * <p>
+     * The digest is computed from the file's content, which is read in chunks,
+     * when this method is invoked for the first time and is cached afterwards.
+     * A non-existing snapshot file is considered to be empty.
+     *
+     * @return The digest.
+     * @throws IOException if the snapshot file cannot be read.
+     */
+    private String getSnapshotDigest() throws IOException {
+
+        String digest = snapshotDigest;
+        if (digest == null) {
+            final MessageDigest md = newMessageDigest();
+            final Path snapshotPath = Paths.get(snapshotFilename);
+            if (Files.exists(snapshotPath)) {
+                try (InputStream in = Files.newInputStream(snapshotPath)) {
+                    final byte[] chunk = new byte[8192];
+                    int read;
+                    while ((read = in.read(chunk)) != -1) {
+                        md.update(chunk, 0, read);
+                    }
+                }
+            }
+            digest = Base64.getEncoder().encodeToString(md.digest());
+            snapshotDigest = digest;
+        }
+        return digest;
+    }
+
+    private static Buffer newJournal(final String snapshotDigest) {
+
+        return Buffer.buffer(new JsonObject().put(FIELD_SNAPSHOT_DIGEST, snapshotDigest).encode()).appendString("\n");
+    }
+
+    private static String digest(final byte[] snapshot) {
+
+        return Base64.getEncoder().encodeToString(newMessageDigest().digest(snapshot));
+    }
+
+    private static MessageDigest newMessageDigest() {
+
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(final Path path, final byte[] content, final StandardOpenOption mode) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // make sure the content is on disk before the file is renamed
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * A parser for JSON documents consisting of an array of objects.
+ * <p>
+ * In contrast to {@link Buffer#toJsonArray()} this parser does not require the whole
+ * document to be read into memory before it can be parsed. Instead, it uses Jackson's
+ * non-blocking parser to process the document chunk by chunk while it is being read
+ * from a stream. Each element of the array is passed to a handler as soon as it
+ * has been parsed completely. Heap usage is thus bounded by the size of the largest
+ * element instead of the size of the whole document.
+ * <p>
+ * Elements of the array which are not JSON objects are ignored.
+ * An empty document is considered an empty array.
+ */
+public final class JsonArrayStreamParser implements Handler<Buffer> {
+
+    /**
+     * The number of bytes after which the progress of parsing a file is logged.
+     */
+    static final long PROGRESS_INTERVAL_BYTES = 64 * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonArrayStreamParser.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private final Handler<JsonObject> elementHandler;
+    private final Future<Long> result = Future.future();
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final String name;
+
+    private String fieldName;
+    private boolean arrayStarted = false;
+    private boolean arrayEnded = false;
+    private long elements = 0;
+    private long bytesRead = 0;
+    private long nextProgressReport = PROGRESS_INTERVAL_BYTES;
+
+    private JsonArrayStreamParser(final String name, final Handler<JsonObject> elementHandler) {
+
+        this.name = name;
+        this.elementHandler = elementHandler;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (final IOException e) {
+            // cannot happen because no input is involved yet
+            throw new IllegalStateException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parses a JSON array of objects from a file.
+     *
+     * @param vertx The vert.x instance to use for reading the file.
+     * @param filename The name of the file to read.
+     * @param elementHandler The handler to invoke with each JSON object contained in the array.
+     * @return A future indicating the outcome of the operation.
+     *         The future will be succeeded with the number of objects that have been
+     *         passed to the handler if the whole file has been parsed successfully.
+     *         Otherwise the future will be failed with a {@link DecodeException} if
+     *         the file does not contain a JSON array or with the exception thrown by
+     *         the element handler.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public static Future<Long> parseFile(final Vertx vertx, final String filename, final Handler<JsonObject> elementHandler) {
+
+        Objects.requireNonNull(vertx);
+        Objects.requireNonNull(filename);
+        Objects.requireNonNull(elementHandler);
+
+        final Future<AsyncFile> openResult = Future.future();
+        vertx.fileSystem().open(filename, new OpenOptions().setRead(true).setWrite(false).setCreate(false),
+                openResult.completer());
+        return openResult.compose(file -> {
+            final Future<Long> parseResult = Future.future();
+            parse(filename, file, elementHandler).setHandler(parsed -> {
+                file.close();
+                parseResult.handle(parsed);
+            });
+            return parseResult;
+        });
+    }
+
+    /**
+     * Parses a JSON array of objects from a stream.
+     *
+     * @param name The name of the stream to use for logging.
+     * @param stream The stream to read the data from.
+     * @param elementHandler The handler to invoke with each JSON object contained in the array.
+     * @return A future indicating the outcome of the operation.
+     *         The future will be succeeded with the number of objects that have been
+     *         passed to the handler if the whole stream has been parsed successfully.
+     *         Otherwise the future will be failed with a {@link DecodeException} if
+     *         the stream does not contain a JSON array, with the exception thrown by
+     *         the element handler or with the exception reported by the stream.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public static Future<Long> parse(final String name, final ReadStream<Buffer> stream, final Handler<JsonObject> elementHandler) {
+
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(elementHandler);
+
+        final JsonArrayStreamParser arrayParser = new JsonArrayStreamParser(name, elementHandler);
+        stream.exceptionHandler(arrayParser::fail);
+        stream.handler(arrayParser);
+        stream.endHandler(end -> arrayParser.end());
+        return arrayParser.result;
+    }
+
+    /**
+     * Parses a chunk of the JSON document.
+     *
+     * @param chunk The chunk.
+     */
+    @Override
+    public void handle(final Buffer chunk) {
+
+        if (result.isComplete()) {
+            return;
+        }
+        try {
+            final byte[] bytes = chunk.getBytes();
+            feeder.feedInput(bytes, 0, bytes.length);
+            processAvailableTokens();
+            bytesRead += bytes.length;
+            if (bytesRead >= nextProgressReport) {
+                LOG.info("parsed {} MB containing {} elements from [{}]", bytesRead / (1024 * 1024), elements, name);
+                nextProgressReport += PROGRESS_INTERVAL_BYTES;
+            }
+        } catch (final IOException | DecodeException e) {
+            fail(new DecodeException(e.getMessage()));
+        } catch (final RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void end() {
+
+        if (result.isComplete()) {
+            return;
+        }
+        try {
+            feeder.endOfInput();
+            processAvailableTokens();
+            if (arrayStarted && !arrayEnded) {
+                fail(new DecodeException("unexpected end of JSON array"));
+            } else {
+                LOG.debug("parsed {} elements from [{}]", elements, name);
+                result.tryComplete(elements);
+            }
+        } catch (final IOException | DecodeException e) {
+            fail(new DecodeException(e.getMessage()));
+        } catch (final RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(final Throwable t) {
+        LOG.debug("failed to parse JSON array from [{}]: {}", name, t.getMessage());
+        result.tryFail(t);
+    }
+
+    private void processAvailableTokens() throws IOException {
+
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.NOT_AVAILABLE) {
+            processToken(token);
+            token = parser.nextToken();
+        }
+    }
+
+    private void processToken(final JsonToken token) throws IOException {
+
+        if (!arrayStarted) {
+            if (token == JsonToken.START_ARRAY) {
+                arrayStarted = true;
+                return;
+            } else {
+                throw new DecodeException("document does not contain a JSON array");
+            }
+        } else if (arrayEnded) {
+            throw new DecodeException("unexpected content after end of JSON array");
+        }
+
+        switch (token) {
+        case START_OBJECT:
+            addContainer(new JsonObject());
+            break;
+        case START_ARRAY:
+            addContainer(new JsonArray());
+            break;
+        case END_OBJECT:
+        case END_ARRAY:
+            if (containers.isEmpty()) {
+                arrayEnded = true;
+            } else {
+                final Object container = containers.pop();
+                if (containers.isEmpty() && container instanceof JsonObject) {
+                    elements++;
+                    elementHandler.handle((JsonObject) container);
+                }
+            }
+            break;
+        case FIELD_NAME:
+            fieldName = parser.getCurrentName();
+            break;
+        case VALUE_STRING:
+            addValue(parser.getText());
+            break;
+        case VALUE_NUMBER_INT:
+            addValue(parser.getNumberValue());
+            break;
+        case VALUE_NUMBER_FLOAT:
+            addValue(parser.getDoubleValue());
+            break;
+        case VALUE_TRUE:
+            addValue(Boolean.TRUE);
+            break;
+        case VALUE_FALSE:
+            addValue(Boolean.FALSE);
+            break;
+        case VALUE_NULL:
+            addValue(null);
+            break;
+        default:
+            throw new DecodeException("unsupported JSON token: " + token);
+        }
+    }
+
+    private void addContainer(final Object container) {
+
+        addValue(container);
+        containers.push(container);
+    }
+
+    private void addValue(final Object value) {
+
+        final Object parent = containers.peek();
+        if (parent instanceof JsonObject) {
+            ((JsonObject) parent).put(fieldName, value);
+        } else if (parent instanceof JsonArray) {
+            if (value == null) {
+                ((JsonArray) parent).addNull();
+            } else {
+                ((JsonArray) parent).add(value);
+            }
+        }
+        // values which are direct elements of the top level array are ignored
+        // unless they are objects (in which case they are a container)
+    }
+}
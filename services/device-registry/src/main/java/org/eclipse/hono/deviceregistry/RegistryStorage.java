@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A storage engine for persisting the content of a file based registry service.
+ * <p>
+ * The registry services keep all data in memory and inform the storage about each
+ * mutation of their data by means of the <em>recordXXX</em> methods. The storage
+ * then decides how and when the data gets written to the file system when the
+ * {@link #persist(Supplier)} method is invoked.
+ * <p>
+ * The registry services still load a <em>snapshot</em> of their data from the
+ * file configured for the service during start-up. After that, they invoke
+ * {@link #replay(MutationHandler)} in order to apply any mutations that have
+ * been persisted after the snapshot has been written.
+ * <p>
+ * Implementations are not required to be thread safe. All methods are expected to be
+ * invoked on the vert.x context of the registry service.
+ */
+public interface RegistryStorage {
+
+    /**
+     * The types of mutations of a registry's data.
+     */
+    enum Operation {
+        /**
+         * An entry has been added or replaced.
+         */
+        PUT,
+        /**
+         * An entry has been removed.
+         */
+        REMOVE,
+        /**
+         * All entries have been removed.
+         */
+        CLEAR
+    }
+
+    /**
+     * A handler for mutations being replayed from the storage.
+     */
+    @FunctionalInterface
+    interface MutationHandler {
+
+        /**
+         * Applies a mutation to the registry's data.
+         *
+         * @param operation The type of mutation.
+         * @param tenantId The tenant of the entry or {@code null} for {@link Operation#CLEAR}.
+         * @param id The identifier of the entry within the tenant or {@code null} if the entry
+         *           is the tenant itself or if the operation is {@link Operation#CLEAR}.
+         * @param value The entry's new value ({@code JsonObject} or {@code JsonArray}) if the
+         *              operation is {@link Operation#PUT}, {@code null} otherwise.
+         */
+        void apply(Operation operation, String tenantId, String id, Object value);
+    }
+
+    /**
+     * Records that an entry has been added or replaced.
+     *
+     * @param tenantId The tenant of the entry.
+     * @param id The identifier of the entry within the tenant or {@code null}
+     *           if the entry is the tenant itself.
+     * @param value A supplier of the entry's new value. The supplied value must be
+     *              a {@code JsonObject} or a {@code JsonArray} and must not be modified
+     *              afterwards, i.e. the supplier should create a copy of the entry.
+     *              Storages that need the value invoke the supplier before this method
+     *              returns. Storages that do not need the value do not invoke it at all.
+     * @throws NullPointerException if tenant or value are {@code null}.
+     */
+    void recordPut(String tenantId, String id, Supplier<?> value);
+
+    /**
+     * Records that an entry has been removed.
+     *
+     * @param tenantId The tenant of the entry.
+     * @param id The identifier of the entry within the tenant or {@code null}
+     *           if the entry is the tenant itself.
+     * @throws NullPointerException if tenant is {@code null}.
+     */
+    void recordRemove(String tenantId, String id);
+
+    /**
+     * Records that all entries have been removed.
+     */
+    void recordClear();
+
+    /**
+     * Replays all mutations that have been persisted after the snapshot
+     * of the registry's data has been written.
+     *
+     * @param handler The handler to apply the mutations to the registry's data.
+     * @return A future indicating the outcome of the operation.
+     * @throws NullPointerException if handler is {@code null}.
+     */
+    Future<Void> replay(MutationHandler handler);
+
+    /**
+     * Persists the mutations that have been recorded since the last invocation of this method.
+     *
+     * @param snapshot A supplier of a snapshot of the registry's complete data
+     *                 in the registry's file format. The storage invokes the supplier
+     *                 only if it needs to write a snapshot.
+     * @return A future indicating the outcome of the operation.
+     * @throws NullPointerException if snapshot is {@code null}.
+     */
+    Future<Void> persist(Supplier<Buffer> snapshot);
+}
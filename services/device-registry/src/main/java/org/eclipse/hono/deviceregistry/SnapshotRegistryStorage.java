@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A storage engine that writes a snapshot of all of a registry's data
+ * to a single file whenever any data has been changed.
+ * <p>
+ * The cost of persisting changes is proportional to the total amount of data
+ * kept in the registry, regardless of the number of changes.
+ */
+public class SnapshotRegistryStorage implements RegistryStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotRegistryStorage.class);
+
+    private final Vertx vertx;
+    private final String filename;
+    private boolean dirty = false;
+
+    /**
+     * Creates a new storage for a file.
+     *
+     * @param vertx The vert.x instance to use for accessing the file system.
+     * @param filename The file to write the snapshots to.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public SnapshotRegistryStorage(final Vertx vertx, final String filename) {
+        this.vertx = Objects.requireNonNull(vertx);
+        this.filename = Objects.requireNonNull(filename);
+    }
+
+    @Override
+    public void recordPut(final String tenantId, final String id, final Supplier<?> value) {
+        dirty = true;
+    }
+
+    @Override
+    public void recordRemove(final String tenantId, final String id) {
+        dirty = true;
+    }
+
+    @Override
+    public void recordClear() {
+        dirty = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation does not persist any mutations separately from
+     * the snapshot so there is nothing to replay.
+     */
+    @Override
+    public Future<Void> replay(final MutationHandler handler) {
+        Objects.requireNonNull(handler);
+        return Future.succeededFuture();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation writes a snapshot to the file if any mutations have
+     * been recorded since the last snapshot has been written.
+     */
+    @Override
+    public Future<Void> persist(final Supplier<Buffer> snapshot) {
+
+        Objects.requireNonNull(snapshot);
+
+        if (dirty) {
+            return checkFileExists().compose(s -> {
+                final Future<Void> writeHandler = Future.future();
+                dirty = false;
+                vertx.fileSystem().writeFile(filename, snapshot.get(), writeHandler.completer());
+                return writeHandler.map(ok -> {
+                    LOG.trace("successfully wrote snapshot to file {}", filename);
+                    return (Void) null;
+                }).otherwise(t -> {
+                    dirty = true;
+                    LOG.warn("could not write snapshot to file {}", filename, t);
+                    return (Void) null;
+                });
+            });
+        } else {
+            LOG.trace("registry [{}] does not need to be persisted", filename);
+            return Future.succeededFuture();
+        }
+    }
+
+    private Future<Void> checkFileExists() {
+
+        final Future<Void> result = Future.future();
+        if (vertx.fileSystem().existsBlocking(filename)) {
+            result.complete();
+        } else {
+            vertx.fileSystem().createFile(filename, result.completer());
+        }
+        return result;
+    }
+}
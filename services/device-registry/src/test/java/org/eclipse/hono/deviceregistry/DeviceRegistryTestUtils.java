@@ -13,10 +13,21 @@
 
 package org.eclipse.hono.deviceregistry;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
 import java.io.IOException;
 import java.io.InputStream;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
 
 /**
  * Utility methods for testing functionality around credentials and tenant management.
@@ -47,4 +58,53 @@ public final class DeviceRegistryTestUtils {
         }
         return result;
     }
+
+    /**
+     * Configures a (mock) file system to return a file with given content
+     * when the file is being opened.
+     * <p>
+     * The content of the file is passed to the handler registered with the file
+     * as soon as the file's end handler gets registered.
+     *
+     * @param fileSystem The file system.
+     * @param filename The name of the file.
+     * @param content The content of the file.
+     */
+    @SuppressWarnings("unchecked")
+    public static void mockFile(final FileSystem fileSystem, final String filename, final Buffer content) {
+
+        doAnswer(invocation -> {
+            final AsyncFile file = mock(AsyncFile.class);
+            final Handler<Buffer>[] dataHandler = new Handler[1];
+            doAnswer(setHandler -> {
+                dataHandler[0] = setHandler.getArgument(0);
+                return file;
+            }).when(file).handler(any(Handler.class));
+            doAnswer(setEndHandler -> {
+                final Handler<Void> endHandler = setEndHandler.getArgument(0);
+                dataHandler[0].handle(content);
+                endHandler.handle(null);
+                return file;
+            }).when(file).endHandler(any(Handler.class));
+            final Handler<AsyncResult<AsyncFile>> handler = invocation.getArgument(2);
+            handler.handle(Future.succeededFuture(file));
+            return null;
+        }).when(fileSystem).open(eq(filename), any(OpenOptions.class), any(Handler.class));
+    }
+
+    /**
+     * Configures a (mock) file system to fail opening a file.
+     *
+     * @param fileSystem The file system.
+     * @param filename The name of the file.
+     */
+    @SuppressWarnings("unchecked")
+    public static void mockMissingFile(final FileSystem fileSystem, final String filename) {
+
+        doAnswer(invocation -> {
+            final Handler<AsyncResult<AsyncFile>> handler = invocation.getArgument(2);
+            handler.handle(Future.failedFuture("no such file"));
+            return null;
+        }).when(fileSystem).open(eq(filename), any(OpenOptions.class), any(Handler.class));
+    }
 }
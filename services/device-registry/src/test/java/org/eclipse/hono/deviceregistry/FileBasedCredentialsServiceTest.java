@@ -19,8 +19,10 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
 
 import org.eclipse.hono.service.credentials.CompleteCredentialsService;
 import org.eclipse.hono.util.ClearTextPassword;
@@ -104,11 +106,7 @@ public class FileBasedCredentialsServiceTest {
             handler.handle(Future.succeededFuture());
             return null;
         }).when(fileSystem).createFile(eq(props.getFilename()), any(Handler.class));
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.failedFuture("malformed file"));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockMissingFile(fileSystem, props.getFilename());
 
         // WHEN starting the service
         final Async startup = ctx.async();
@@ -169,13 +167,7 @@ public class FileBasedCredentialsServiceTest {
         // that contains malformed JSON
         props.setFilename(FILE_NAME);
         when(fileSystem.existsBlocking(FILE_NAME)).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = mock(Buffer.class);
-            when(data.getBytes()).thenReturn("NO JSON".getBytes(StandardCharsets.UTF_8));
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), Buffer.buffer("NO JSON"));
 
         // WHEN starting the service
         final Async startup = ctx.async();
@@ -193,20 +185,16 @@ public class FileBasedCredentialsServiceTest {
      * Verifies that credentials are successfully loaded from file during startup.
      *
      * @param ctx The test context.
+     * @throws IOException if the test data cannot be read.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Test
-    public void testDoStartLoadsCredentials(final TestContext ctx) {
+    public void testDoStartLoadsCredentials(final TestContext ctx) throws IOException {
 
         // GIVEN a service configured with a file name
         props.setFilename(FILE_NAME);
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = DeviceRegistryTestUtils.readFile(FILE_NAME);
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), DeviceRegistryTestUtils.readFile(FILE_NAME));
 
         // WHEN the service is started
         final Async startup = ctx.async();
@@ -279,13 +267,8 @@ public class FileBasedCredentialsServiceTest {
 
         // THEN the credentials can be loaded back in from the file
         final Async read = ctx.async();
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(buffer.getValue()));
-            read.complete();
-            return null;
-        }).when(fileSystem).readFile(eq(FILE_NAME), any(Handler.class));
-        svc.loadCredentials();
+        DeviceRegistryTestUtils.mockFile(fileSystem, FILE_NAME, buffer.getValue());
+        svc.loadCredentials().setHandler(ctx.asyncAssertSuccess(loaded -> read.complete()));
         read.await();
         assertRegistered(svc, Constants.DEFAULT_TENANT, "sensor1", CredentialsConstants.SECRETS_TYPE_PRESHARED_KEY, ctx);
         assertRegistered(svc, "OTHER_TENANT", "bumlux", CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD, ctx);
@@ -416,6 +399,33 @@ public class FileBasedCredentialsServiceTest {
         remove.await();
     }
 
+    /**
+     * Verifies that the removal of credentials is recorded with the storage engine
+     * so that it gets persisted.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testRemoveCredentialsIsRecordedWithStorage(final TestContext ctx) {
+
+        // GIVEN a service with registered credentials
+        final RegistryStorage storage = mock(RegistryStorage.class);
+        svc.setStorage(storage);
+        register(svc, "tenant", "device", "myId", "myType", ctx);
+        verify(storage).recordPut(eq("tenant"), eq("myId"), any(Supplier.class));
+
+        // WHEN removing the credentials
+        final Async remove = ctx.async();
+        svc.remove("tenant", "myType", "myId", ctx.asyncAssertSuccess(s -> {
+            assertThat(s.getStatus(), is(HttpURLConnection.HTTP_NO_CONTENT));
+            remove.complete();
+        }));
+        remove.await();
+
+        // THEN the removal has been recorded
+        verify(storage).recordRemove("tenant", "myId");
+    }
+
     /**
      * Verifies that the service removes all credentials for a device but keeps credentials
      * of other devices.
@@ -440,6 +450,48 @@ public class FileBasedCredentialsServiceTest {
         remove.await();
     }
 
+    /**
+     * Verifies that the credentials returned for a device reflect updates
+     * which assign credentials to a different device.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testGetAllReflectsCredentialsAssignedToOtherDevice(final TestContext ctx) {
+
+        // GIVEN two sets of credentials registered for the same device
+        register(svc, "tenant", "device", "myId", "myType", ctx);
+        register(svc, "tenant", "device", "myOtherId", "myOtherType", ctx);
+
+        // WHEN updating one of them to belong to another device
+        final JsonObject updatedCredentials = new JsonObject()
+                .put(CredentialsConstants.FIELD_PAYLOAD_DEVICE_ID, "other-device")
+                .put(CredentialsConstants.FIELD_AUTH_ID, "myId")
+                .put(CredentialsConstants.FIELD_TYPE, "myType")
+                .put(CredentialsConstants.FIELD_SECRETS, new JsonArray());
+        final Async update = ctx.async();
+        svc.update("tenant", updatedCredentials, ctx.asyncAssertSuccess(s -> {
+            assertThat(s.getStatus(), is(HttpURLConnection.HTTP_NO_CONTENT));
+            update.complete();
+        }));
+        update.await();
+
+        // THEN each device has one set of credentials
+        assertCredentialsCount(svc, "device", 1, ctx);
+        assertCredentialsCount(svc, "other-device", 1, ctx);
+
+        // and removing all credentials of the other device does not affect the original device
+        final Async remove = ctx.async();
+        svc.removeAll("tenant", "other-device", ctx.asyncAssertSuccess(s -> {
+            assertThat(s.getStatus(), is(HttpURLConnection.HTTP_NO_CONTENT));
+            remove.complete();
+        }));
+        remove.await();
+        assertCredentialsCount(svc, "other-device", 0, ctx);
+        assertCredentialsCount(svc, "device", 1, ctx);
+        assertRegistered(svc, "tenant", "myOtherId", "myOtherType", ctx);
+    }
+
     /**
      * Verifies that the <em>modificationEnabled</em> property prevents updating an existing entry.
      *
@@ -518,6 +570,25 @@ public class FileBasedCredentialsServiceTest {
         registration.await();
     }
 
+    private static void assertCredentialsCount(
+            final CompleteCredentialsService svc,
+            final String deviceId,
+            final int expectedCount,
+            final TestContext ctx) {
+
+        final Async getAll = ctx.async();
+        svc.getAll("tenant", deviceId, ctx.asyncAssertSuccess(t -> {
+            if (expectedCount == 0) {
+                assertThat(t.getStatus(), is(HttpURLConnection.HTTP_NOT_FOUND));
+            } else {
+                assertThat(t.getStatus(), is(HttpURLConnection.HTTP_OK));
+                assertThat(t.getPayload().getInteger(CredentialsConstants.FIELD_CREDENTIALS_TOTAL), is(expectedCount));
+            }
+            getAll.complete();
+        }));
+        getAll.await();
+    }
+
     private static void register(
             final CompleteCredentialsService svc,
             final String tenant,
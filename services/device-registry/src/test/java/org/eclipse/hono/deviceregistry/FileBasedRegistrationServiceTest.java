@@ -18,8 +18,8 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
 
 import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.util.Constants;
@@ -140,11 +140,7 @@ public class FileBasedRegistrationServiceTest {
             handler.handle(Future.succeededFuture());
             return null;
         }).when(fileSystem).createFile(eq(props.getFilename()), any(Handler.class));
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.failedFuture("malformed file"));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockMissingFile(fileSystem, props.getFilename());
 
         // WHEN starting the service
         final Async startup = ctx.async();
@@ -203,13 +199,7 @@ public class FileBasedRegistrationServiceTest {
         // GIVEN a registration service configured to read data from a file
         // that contains malformed JSON
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = mock(Buffer.class);
-            when(data.getBytes()).thenReturn("NO JSON".getBytes(StandardCharsets.UTF_8));
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), Buffer.buffer("NO JSON"));
 
         // WHEN starting the service
         final Async startup = ctx.async();
@@ -227,19 +217,15 @@ public class FileBasedRegistrationServiceTest {
      * Verifies that device identities are successfully loaded from file during startup.
      *
      * @param ctx The test context.
+     * @throws IOException if the test data cannot be read.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Test
-    public void testDoStartLoadsDeviceIdentities(final TestContext ctx) {
+    public void testDoStartLoadsDeviceIdentities(final TestContext ctx) throws IOException {
 
         // GIVEN a service configured with a file name
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = DeviceRegistryTestUtils.readFile(FILE_NAME);
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), DeviceRegistryTestUtils.readFile(FILE_NAME));
 
         // WHEN the service is started
         final Async startup = ctx.async();
@@ -434,11 +420,7 @@ public class FileBasedRegistrationServiceTest {
 
         props.setSaveToFile(false);
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.failedFuture("malformed file"));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockMissingFile(fileSystem, props.getFilename());
 
         final Async startup = ctx.async();
         final Future<Void> startupTracker = Future.future();
@@ -464,11 +446,7 @@ public class FileBasedRegistrationServiceTest {
         // GIVEN a registration service configured to not persist data
         props.setSaveToFile(false);
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.failedFuture("malformed data"));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockMissingFile(fileSystem, props.getFilename());
         final Async startup = ctx.async();
         final Future<Void> startupTracker = Future.future();
         startupTracker.setHandler(ctx.asyncAssertSuccess(started -> {
@@ -19,8 +19,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
 
 import javax.security.auth.x500.X500Principal;
 
@@ -109,11 +109,7 @@ public class FileBasedTenantServiceTest {
             handler.handle(Future.succeededFuture());
             return null;
         }).when(fileSystem).createFile(eq(props.getFilename()), any(Handler.class));
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.failedFuture("malformed file"));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockMissingFile(fileSystem, props.getFilename());
 
         // WHEN starting the service
         final Async startup = ctx.async();
@@ -168,13 +164,7 @@ public class FileBasedTenantServiceTest {
         // that contains malformed JSON
         props.setFilename(FILE_NAME);
         when(fileSystem.existsBlocking(FILE_NAME)).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = mock(Buffer.class);
-            when(data.getBytes()).thenReturn("NO JSON".getBytes(StandardCharsets.UTF_8));
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), Buffer.buffer("NO JSON"));
 
         // WHEN starting the service
         final Future<Void> startupTracker = Future.future();
@@ -188,20 +178,16 @@ public class FileBasedTenantServiceTest {
      * Verifies that tenants are successfully loaded from file during startup.
      *
      * @param ctx The test context.
+     * @throws IOException if the test data cannot be read.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Test
-    public void testDoStartLoadsTenants(final TestContext ctx) {
+    public void testDoStartLoadsTenants(final TestContext ctx) throws IOException {
 
         // GIVEN a service configured with a file name
         props.setFilename(FILE_NAME);
         when(fileSystem.existsBlocking(props.getFilename())).thenReturn(Boolean.TRUE);
-        doAnswer(invocation -> {
-            final Buffer data = DeviceRegistryTestUtils.readFile(FILE_NAME);
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(data));
-            return null;
-        }).when(fileSystem).readFile(eq(props.getFilename()), any(Handler.class));
+        DeviceRegistryTestUtils.mockFile(fileSystem, props.getFilename(), DeviceRegistryTestUtils.readFile(FILE_NAME));
 
         // WHEN the service is started
         final Async startup = ctx.async();
@@ -254,13 +240,8 @@ public class FileBasedTenantServiceTest {
 
         // THEN the tenants can be loaded back in from the file
         final Async read = ctx.async();
-        doAnswer(invocation -> {
-            final Handler handler = invocation.getArgument(1);
-            handler.handle(Future.succeededFuture(buffer.getValue()));
-            read.complete();
-            return null;
-        }).when(fileSystem).readFile(eq(FILE_NAME), any(Handler.class));
-        svc.loadTenantData();
+        DeviceRegistryTestUtils.mockFile(fileSystem, FILE_NAME, buffer.getValue());
+        svc.loadTenantData().setHandler(ctx.asyncAssertSuccess(loaded -> read.complete()));
         read.await();
         assertTenantExists(svc, Constants.DEFAULT_TENANT, ctx);
         assertTenantExists(svc, "OTHER_TENANT", ctx);
@@ -530,6 +511,130 @@ public class FileBasedTenantServiceTest {
         });
     }
 
+    /**
+     * Verifies that a tenant can no longer be found by the subject DN of its former
+     * trusted certificate authority after the tenant has been updated to use another CA
+     * and that the former CA can then be used by another tenant.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testGetForCertificateAuthorityReflectsUpdatedCa(final TestContext ctx) {
+
+        // GIVEN a tenant with a trusted CA
+        final X500Principal oldSubjectDn = new X500Principal("CN=old");
+        final X500Principal newSubjectDn = new X500Principal("CN=new");
+        final JsonObject tenant = buildTenantPayload("tenant")
+                .put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(oldSubjectDn));
+
+        addTenant("tenant", tenant).compose(ok -> {
+            // WHEN updating the tenant to use another CA
+            final Future<TenantResult<JsonObject>> updateResult = Future.future();
+            svc.update("tenant", buildTenantPayload("tenant")
+                    .put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(newSubjectDn)), updateResult.completer());
+            return updateResult;
+        }).map(updateResult -> {
+            ctx.assertEquals(HttpURLConnection.HTTP_NO_CONTENT, updateResult.getStatus());
+            // THEN the tenant can be found using the new CA only
+            svc.get(newSubjectDn, ctx.asyncAssertSuccess(s -> {
+                assertThat(s.getStatus(), is(HttpURLConnection.HTTP_OK));
+                assertThat(s.getPayload().getString(TenantConstants.FIELD_PAYLOAD_TENANT_ID), is("tenant"));
+            }));
+            svc.get(oldSubjectDn, ctx.asyncAssertSuccess(s -> {
+                assertThat(s.getStatus(), is(HttpURLConnection.HTTP_NOT_FOUND));
+            }));
+            return null;
+        }).compose(ok -> addTenant("otherTenant", buildTenantPayload("otherTenant")
+                .put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(oldSubjectDn))))
+        // AND the old CA can be used by another tenant
+        .setHandler(ctx.asyncAssertSuccess());
+    }
+
+    /**
+     * Verifies that a tenant can no longer be found by the subject DN of its
+     * trusted certificate authority after the tenant has been removed.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testGetForCertificateAuthorityFailsForRemovedTenant(final TestContext ctx) {
+
+        final X500Principal subjectDn = new X500Principal("CN=ca");
+        final JsonObject tenant = buildTenantPayload("tenant")
+                .put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(subjectDn));
+
+        addTenant("tenant", tenant).map(ok -> {
+            assertThat(svc.removeTenant("tenant").getStatus(), is(HttpURLConnection.HTTP_NO_CONTENT));
+            svc.get(subjectDn, ctx.asyncAssertSuccess(s -> {
+                assertThat(s.getStatus(), is(HttpURLConnection.HTTP_NOT_FOUND));
+            }));
+            return null;
+        });
+    }
+
+    /**
+     * Verifies that each of a number of tenants can be looked up by the subject DN
+     * of its trusted certificate authority.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testGetForCertificateAuthorityResolvesTenantOfCa(final TestContext ctx) {
+
+        // GIVEN a number of tenants each using its own CA
+        final int tenantCount = 100;
+        for (int i = 0; i < tenantCount; i++) {
+            final String tenantId = "tenant" + i;
+            final JsonObject tenant = buildTenantPayload(tenantId)
+                    .put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(new X500Principal("CN=ca" + i)));
+            ctx.assertEquals(HttpURLConnection.HTTP_CREATED, svc.add(tenantId, tenant).getStatus());
+        }
+
+        // WHEN looking up the tenants by their CA's subject DN
+        for (int i = 0; i < tenantCount; i++) {
+            final String tenantId = "tenant" + i;
+            svc.get(new X500Principal("CN=ca" + i), ctx.asyncAssertSuccess(s -> {
+                // THEN the tenant using the CA is found
+                ctx.assertEquals(HttpURLConnection.HTTP_OK, s.getStatus());
+                ctx.assertEquals(tenantId, s.getPayload().getString(TenantConstants.FIELD_PAYLOAD_TENANT_ID));
+            }));
+        }
+    }
+
+    /**
+     * Verifies that a look-up by the subject DN of a trusted certificate authority that is
+     * shared by multiple tenants loaded from file resolves to one of the remaining tenants
+     * after the tenant that it has resolved to has been removed.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testGetForCertificateAuthorityResolvesRemainingTenantSharingCa(final TestContext ctx) {
+
+        // GIVEN a file containing two tenants that use the same CA
+        final X500Principal subjectDn = new X500Principal("CN=ca");
+        final JsonArray tenants = new JsonArray()
+                .add(buildTenantPayload("tenant-one").put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(subjectDn)))
+                .add(buildTenantPayload("tenant-two").put(TenantConstants.FIELD_PAYLOAD_TRUSTED_CA, buildTrustedCa(subjectDn)));
+        props.setFilename(FILE_NAME);
+        DeviceRegistryTestUtils.mockFile(fileSystem, FILE_NAME, tenants.toBuffer());
+
+        svc.loadTenantData().map(loaded -> {
+            // and the CA resolving to the first tenant
+            svc.get(subjectDn, ctx.asyncAssertSuccess(s -> {
+                ctx.assertEquals("tenant-one", s.getPayload().getString(TenantConstants.FIELD_PAYLOAD_TENANT_ID));
+            }));
+            // WHEN the first tenant is removed
+            ctx.assertEquals(HttpURLConnection.HTTP_NO_CONTENT, svc.removeTenant("tenant-one").getStatus());
+            // THEN the CA resolves to the second tenant
+            svc.get(subjectDn, ctx.asyncAssertSuccess(s -> {
+                ctx.assertEquals(HttpURLConnection.HTTP_OK, s.getStatus());
+                ctx.assertEquals("tenant-two", s.getPayload().getString(TenantConstants.FIELD_PAYLOAD_TENANT_ID));
+            }));
+            return null;
+        }).setHandler(ctx.asyncAssertSuccess());
+    }
+
     private static void assertTenantExists(final TenantService svc, final String tenant, final TestContext ctx) {
 
         svc.get(tenant, ctx.asyncAssertSuccess(t -> {
@@ -562,6 +667,13 @@ public class FileBasedTenantServiceTest {
         });
     }
 
+    private static JsonObject buildTrustedCa(final X500Principal subjectDn) {
+
+        return new JsonObject()
+                .put(TenantConstants.FIELD_PAYLOAD_SUBJECT_DN, subjectDn.getName(X500Principal.RFC2253))
+                .put(TenantConstants.FIELD_PAYLOAD_PUBLIC_KEY, "NOTAPUBLICKEY");
+    }
+
     /**
      * Creates a tenant object for a tenantId.
      * <p>
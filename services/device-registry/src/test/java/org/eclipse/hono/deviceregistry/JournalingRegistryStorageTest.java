@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+/**
+ * Tests verifying behavior of {@link JournalingRegistryStorage}.
+ *
+ */
+@RunWith(VertxUnitRunner.class)
+public class JournalingRegistryStorageTest {
+
+    private static Vertx vertx;
+
+    /**
+     * Temporary folder for the snapshot and journal files.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File snapshotFile;
+    private File journalFile;
+
+    /**
+     * Creates the vert.x instance.
+     */
+    @BeforeClass
+    public static void createVertx() {
+        vertx = Vertx.vertx();
+    }
+
+    /**
+     * Closes the vert.x instance.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @AfterClass
+    public static void closeVertx(final TestContext ctx) {
+        vertx.close(ctx.asyncAssertSuccess());
+    }
+
+    /**
+     * Sets up the fixture.
+     */
+    @Before
+    public void setUp() {
+        snapshotFile = new File(folder.getRoot(), "registry.json");
+        journalFile = new File(folder.getRoot(), "registry.json" + JournalingRegistryStorage.JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Verifies that recorded mutations are appended to the journal
+     * and can be replayed in the order they have been recorded.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testReplayReturnsPersistedMutations(final TestContext ctx) {
+
+        // GIVEN a storage with a couple of mutations having been persisted in two batches
+        final JournalingRegistryStorage storage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 100);
+        storage.recordPut("tenant", "device-1", () -> new JsonObject().put("enabled", true));
+        storage.recordPut("tenant", "device-2", () -> new JsonObject().put("enabled", false));
+        storage.persist(this::failOnSnapshot).compose(ok -> {
+            storage.recordRemove("tenant", "device-1");
+            return storage.persist(this::failOnSnapshot);
+        }).compose(ok -> {
+            ctx.assertEquals(0, storage.getPendingRecords());
+            ctx.assertEquals(3L, storage.getJournalRecords());
+            // WHEN replaying the journal using a new storage instance
+            final List<String> mutations = new ArrayList<>();
+            final JournalingRegistryStorage newStorage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 100);
+            return newStorage.replay((op, tenant, id, value) -> mutations.add(op + ":" + tenant + ":" + id))
+                    .map(replayed -> {
+                        ctx.assertEquals(3L, newStorage.getJournalRecords());
+                        return mutations;
+                    });
+        }).setHandler(ctx.asyncAssertSuccess(mutations -> {
+            // THEN all mutations are replayed in order
+            ctx.assertEquals(3, mutations.size());
+            ctx.assertEquals("PUT:tenant:device-1", mutations.get(0));
+            ctx.assertEquals("PUT:tenant:device-2", mutations.get(1));
+            ctx.assertEquals("REMOVE:tenant:device-1", mutations.get(2));
+            // and the snapshot has not been written
+            ctx.assertFalse(snapshotFile.exists());
+        }));
+    }
+
+    /**
+     * Verifies that the journal is compacted into a snapshot once the number of
+     * records exceeds the compaction threshold.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testPersistCompactsJournal(final TestContext ctx) {
+
+        // GIVEN a storage with a compaction threshold of two records
+        // that already contains two records in its journal
+        final JournalingRegistryStorage storage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 2);
+        storage.recordPut("tenant", "device-1", () -> new JsonObject());
+        storage.recordPut("tenant", "device-2", () -> new JsonObject());
+        storage.persist(this::failOnSnapshot).compose(ok -> {
+            ctx.assertEquals(2L, storage.getJournalRecords());
+            // WHEN recording another mutation
+            storage.recordClear();
+            return storage.persist(() -> Buffer.buffer("snapshot"));
+        }).setHandler(ctx.asyncAssertSuccess(ok -> {
+            // THEN the snapshot has been written
+            ctx.assertEquals(0L, storage.getJournalRecords());
+            ctx.assertEquals("snapshot", vertx.fileSystem().readFileBlocking(snapshotFile.getPath()).toString());
+            // and the journal does not contain any records anymore
+            final JournalingRegistryStorage newStorage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 2);
+            newStorage.replay((op, tenant, id, value) -> ctx.fail("journal should be empty"))
+                .setHandler(ctx.asyncAssertSuccess(replayed -> ctx.assertEquals(0L, newStorage.getJournalRecords())));
+        }));
+    }
+
+    /**
+     * Verifies that a journal which has not been replaced after compaction, e.g. because
+     * of a crash, is not applied to the snapshot that already contains its records.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testReplayDiscardsJournalOfPreviousSnapshot(final TestContext ctx) {
+
+        // GIVEN a journal containing two records
+        final JournalingRegistryStorage storage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 2);
+        storage.recordPut("tenant", "device-1", () -> new JsonObject());
+        storage.recordRemove("tenant", "device-2");
+        final AtomicReference<Buffer> oldJournal = new AtomicReference<>();
+        storage.persist(this::failOnSnapshot).compose(ok -> {
+            oldJournal.set(vertx.fileSystem().readFileBlocking(journalFile.getPath()));
+            // which gets compacted into a new snapshot
+            storage.recordClear();
+            return storage.persist(() -> Buffer.buffer("snapshot"));
+        }).compose(ok -> {
+            // WHEN the old journal is still in place after the snapshot has been written
+            vertx.fileSystem().writeFileBlocking(journalFile.getPath(), oldJournal.get());
+            // and the journal is replayed
+            final List<String> mutations = new ArrayList<>();
+            return storage.replay((op, tenant, id, value) -> mutations.add(op + ":" + tenant + ":" + id))
+                    .map(replayed -> mutations);
+        }).setHandler(ctx.asyncAssertSuccess(mutations -> {
+            // THEN none of the old journal's records are replayed
+            ctx.assertTrue(mutations.isEmpty());
+            ctx.assertEquals(0L, storage.getJournalRecords());
+            // and the old journal has been removed
+            ctx.assertFalse(journalFile.exists());
+        }));
+    }
+
+    /**
+     * Verifies that an incomplete record at the end of the journal is ignored
+     * when replaying the journal.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testReplayIgnoresIncompleteRecord(final TestContext ctx) {
+
+        // GIVEN a journal whose last record has been written partially only
+        final JournalingRegistryStorage storage = new JournalingRegistryStorage(vertx, snapshotFile.getPath(), 100);
+        storage.recordPut("tenant", "device-1", () -> new JsonObject());
+        storage.persist(this::failOnSnapshot).compose(ok -> {
+            try {
+                Files.write(journalFile.toPath(), "{\"op\":\"put\",\"ten".getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.APPEND);
+            } catch (final IOException e) {
+                ctx.fail(e);
+            }
+            // WHEN replaying the journal
+            final List<String> mutations = new ArrayList<>();
+            return storage.replay((op, tenant, id, value) -> mutations.add(op + ":" + tenant + ":" + id))
+                    .map(replayed -> mutations);
+        }).setHandler(ctx.asyncAssertSuccess(mutations -> {
+            // THEN only the complete record is replayed
+            ctx.assertEquals(1, mutations.size());
+            ctx.assertEquals("PUT:tenant:device-1", mutations.get(0));
+            ctx.assertEquals(1L, storage.getJournalRecords());
+        }));
+    }
+
+    private Buffer failOnSnapshot() {
+        throw new AssertionError("snapshot should not have been requested");
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.deviceregistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Tests verifying behavior of {@link JsonArrayStreamParser}.
+ *
+ */
+public class JsonArrayStreamParserTest {
+
+    private ReadStream<Buffer> stream;
+    private Handler<Buffer> dataHandler;
+    private Handler<Void> endHandler;
+    private List<JsonObject> elements;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+
+        elements = new ArrayList<>();
+        stream = mock(ReadStream.class);
+        doAnswer(invocation -> {
+            dataHandler = invocation.getArgument(0);
+            return stream;
+        }).when(stream).handler(any(Handler.class));
+        doAnswer(invocation -> {
+            endHandler = invocation.getArgument(0);
+            return stream;
+        }).when(stream).endHandler(any(Handler.class));
+    }
+
+    /**
+     * Verifies that the parser passes each object contained in the array to the
+     * element handler, even if the objects are split across multiple chunks.
+     */
+    @Test
+    public void testParseSucceedsForDocumentSplitIntoChunks() {
+
+        final JsonArray expected = new JsonArray()
+                .add(new JsonObject().put("tenant", "one").put("devices", new JsonArray()
+                        .add(new JsonObject().put("device-id", "4711").put("data", new JsonObject().put("enabled", true)))
+                        .add(new JsonObject().put("device-id", "4712").putNull("data"))))
+                .add("ignored")
+                .add(new JsonObject().put("tenant", "two").put("count", 5).put("ratio", 0.5).put("big", Long.MAX_VALUE));
+        final Future<Long> result = JsonArrayStreamParser.parse("test", stream, elements::add);
+
+        // WHEN the document is passed in chunks of 7 bytes
+        final byte[] document = expected.encodePrettily().getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < document.length; offset += 7) {
+            final int length = Math.min(7, document.length - offset);
+            dataHandler.handle(Buffer.buffer().appendBytes(document, offset, length));
+        }
+        endHandler.handle(null);
+
+        // THEN all objects have been parsed
+        assertTrue(result.succeeded());
+        assertEquals(Long.valueOf(2), result.result());
+        assertEquals(2, elements.size());
+        assertEquals(expected.getJsonObject(0), elements.get(0));
+        assertEquals(expected.getJsonObject(2), elements.get(1));
+    }
+
+    /**
+     * Verifies that parsing an empty document succeeds.
+     */
+    @Test
+    public void testParseSucceedsForEmptyDocument() {
+
+        final Future<Long> result = JsonArrayStreamParser.parse("test", stream, elements::add);
+        endHandler.handle(null);
+        assertTrue(result.succeeded());
+        assertEquals(Long.valueOf(0), result.result());
+    }
+
+    /**
+     * Verifies that parsing fails for a document that does not contain a JSON array.
+     */
+    @Test
+    public void testParseFailsForNonArrayDocument() {
+
+        final Future<Long> result = JsonArrayStreamParser.parse("test", stream, elements::add);
+        dataHandler.handle(Buffer.buffer("{\"tenant\": \"one\"}"));
+        endHandler.handle(null);
+        assertTrue(result.failed());
+        assertTrue(result.cause() instanceof DecodeException);
+    }
+
+    /**
+     * Verifies that parsing fails for a truncated document but that the
+     * objects preceding the end of the document have been passed to the handler.
+     */
+    @Test
+    public void testParseFailsForTruncatedDocument() {
+
+        final Future<Long> result = JsonArrayStreamParser.parse("test", stream, elements::add);
+        dataHandler.handle(Buffer.buffer("[{\"tenant\": \"one\"}, {\"tenant\": \"tw"));
+        endHandler.handle(null);
+        assertTrue(result.failed());
+        assertTrue(result.cause() instanceof DecodeException);
+        assertEquals(1, elements.size());
+    }
+}
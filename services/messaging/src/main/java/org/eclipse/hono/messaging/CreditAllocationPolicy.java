@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.messaging;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A strategy for distributing the credit granted by the downstream container for a
+ * shared downstream sender among the upstream clients using the sender.
+ * <p>
+ * An instance is created for each shared downstream sender and is only ever invoked
+ * on the sender's event loop thread, i.e. implementations may keep per client state
+ * without synchronization.
+ */
+public interface CreditAllocationPolicy {
+
+    /**
+     * Invoked when a message has been received from an upstream client.
+     * <p>
+     * Policies may use this information to determine the clients' demand for credit.
+     * This default implementation does nothing.
+     * 
+     * @param client The client that has sent the message.
+     */
+    default void onMessage(final UpstreamReceiver client) {
+        // nothing to do
+    }
+
+    /**
+     * Invoked when an upstream client no longer uses the shared sender.
+     * <p>
+     * This default implementation does nothing.
+     * 
+     * @param client The client.
+     */
+    default void onClientRemoved(final UpstreamReceiver client) {
+        // nothing to do
+    }
+
+    /**
+     * Distributes credit among upstream clients.
+     * <p>
+     * The sum of the credit allocated to the clients must not exceed the available credit.
+     * 
+     * @param availableCredit The credit granted by the downstream container.
+     * @param clients The clients to distribute the credit among in the order in which
+     *                they have started to use the shared sender.
+     * @return The credit allocated to each of the clients.
+     */
+    Map<UpstreamReceiver, Integer> allocate(int availableCredit, Collection<UpstreamReceiver> clients);
+}
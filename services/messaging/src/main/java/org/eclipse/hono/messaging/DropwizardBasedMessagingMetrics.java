@@ -27,6 +27,11 @@ public class DropwizardBasedMessagingMetrics extends DropwizardBasedMetrics impl
     private static final String LINK_DOWNSTREAM_CREDITS  = "link.downstream.credits";
     private static final String SENDERS_DOWNSTREAM       = "senders.downstream";
     private static final String RECEIVERS_UPSTREAM_LINKS = "receivers.upstream.links";
+    private static final String OVERFLOW_BUFFER_DEPTH    = "overflow.buffer.depth";
+    private static final String OVERFLOW_BUFFER_AGE      = "overflow.buffer.age";
+    private static final String FORWARDING_LATENCY       = "forwarding.latency";
+    private static final String DISPOSITION_ROUND_TRIP   = "disposition.roundtrip";
+    private static final String DRAIN_DURATION           = "drain.duration";
 
     @Override
     protected String getScope() {
@@ -82,4 +87,29 @@ public class DropwizardBasedMessagingMetrics extends DropwizardBasedMetrics impl
     public final void incrementUndeliverableMessages(final String address) {
         counterService.increment(mergeAsMetric(SERVICE_PREFIX, MESSAGES, normalizeAddress(address), UNDELIVERABLE));
     }
+
+    @Override
+    public final void submitOverflowBufferDepth(final String address, final int messages) {
+        gaugeService.submit(mergeAsMetric(SERVICE_PREFIX, OVERFLOW_BUFFER_DEPTH, normalizeAddress(address)), messages);
+    }
+
+    @Override
+    public final void submitOverflowBufferAge(final String address, final long ageMillis) {
+        gaugeService.submit(mergeAsMetric(SERVICE_PREFIX, OVERFLOW_BUFFER_AGE, normalizeAddress(address)), ageMillis);
+    }
+
+    @Override
+    public final void submitForwardingLatency(final String address, final long millis) {
+        gaugeService.submit(mergeAsMetric(HISTOGRAM_PREFIX, SERVICE_PREFIX, FORWARDING_LATENCY, normalizeAddress(address)), millis);
+    }
+
+    @Override
+    public final void submitDispositionRoundTrip(final String address, final long millis) {
+        gaugeService.submit(mergeAsMetric(HISTOGRAM_PREFIX, SERVICE_PREFIX, DISPOSITION_ROUND_TRIP, normalizeAddress(address)), millis);
+    }
+
+    @Override
+    public final void submitDrainDuration(final String address, final long millis) {
+        gaugeService.submit(mergeAsMetric(TIMER_PREFIX, SERVICE_PREFIX, DRAIN_DURATION, normalizeAddress(address)), millis);
+    }
 }
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.messaging;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A policy that splits credit evenly among all upstream clients.
+ * <p>
+ * Any remaining credit is granted to one client each, starting at a position that rotates
+ * with every allocation so that no client is permanently favored.
+ */
+final class EvenCreditAllocationPolicy implements CreditAllocationPolicy {
+
+    private int remainderOffset = 0;
+
+    @Override
+    public Map<UpstreamReceiver, Integer> allocate(final int availableCredit, final Collection<UpstreamReceiver> clients) {
+
+        final Map<UpstreamReceiver, Integer> allocation = new LinkedHashMap<>();
+        final int numberOfClients = clients.size();
+        if (numberOfClients == 0) {
+            return allocation;
+        }
+        final int share = availableCredit / numberOfClients;
+        final int remainder = availableCredit % numberOfClients;
+        remainderOffset = (remainderOffset + 1) % numberOfClients;
+        int index = 0;
+        for (final UpstreamReceiver client : clients) {
+            final int position = (index - remainderOffset + numberOfClients) % numberOfClients;
+            allocation.put(client, position < remainder ? share + 1 : share);
+            index++;
+        }
+        return allocation;
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.messaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A policy that distributes credit among upstream clients according to their demand
+ * using max-min fair sharing.
+ * <p>
+ * The demand of a client is the number of messages it has sent since the last allocation
+ * but at least one, so that idle clients are always able to start sending. Clients whose
+ * demand is lower than an equal share of the available credit are granted their demand,
+ * the credit that is not needed by them is split evenly among the remaining clients.
+ * A single busy client can therefore not consume the credit needed by the other clients
+ * while credit not needed by the other clients is still put to use.
+ * <p>
+ * Credit that exceeds the overall demand is split evenly among all clients.
+ */
+final class FairShareCreditAllocationPolicy implements CreditAllocationPolicy {
+
+    private final Map<UpstreamReceiver, Integer> demand = new HashMap<>();
+    private final EvenCreditAllocationPolicy evenPolicy = new EvenCreditAllocationPolicy();
+
+    @Override
+    public void onMessage(final UpstreamReceiver client) {
+        demand.merge(client, 1, Integer::sum);
+    }
+
+    @Override
+    public void onClientRemoved(final UpstreamReceiver client) {
+        demand.remove(client);
+    }
+
+    @Override
+    public Map<UpstreamReceiver, Integer> allocate(final int availableCredit, final Collection<UpstreamReceiver> clients) {
+
+        final Map<UpstreamReceiver, Integer> allocation = new LinkedHashMap<>();
+        final List<UpstreamReceiver> unsatisfiedClients = new ArrayList<>(clients);
+        clients.forEach(client -> allocation.put(client, 0));
+        int remainingCredit = availableCredit;
+
+        while (remainingCredit > 0 && !unsatisfiedClients.isEmpty()) {
+            final int share = remainingCredit / unsatisfiedClients.size();
+            if (share == 0) {
+                // not enough credit left for all unsatisfied clients, let the even policy
+                // decide which of them get one more credit
+                evenPolicy.allocate(remainingCredit, unsatisfiedClients).forEach((client, extra) -> allocation.merge(client, extra, Integer::sum));
+                remainingCredit = 0;
+            } else {
+                final Iterator<UpstreamReceiver> it = unsatisfiedClients.iterator();
+                while (it.hasNext()) {
+                    final UpstreamReceiver client = it.next();
+                    final int allocated = allocation.get(client);
+                    final int granted = Math.min(share, getDemand(client) - allocated);
+                    allocation.put(client, allocated + granted);
+                    remainingCredit -= granted;
+                    if (allocated + granted >= getDemand(client)) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+
+        if (remainingCredit > 0) {
+            // all demand has been satisfied
+            evenPolicy.allocate(remainingCredit, clients).forEach((client, extra) -> allocation.merge(client, extra, Integer::sum));
+        }
+        demand.clear();
+        return allocation;
+    }
+
+    private int getDemand(final UpstreamReceiver client) {
+        return Math.max(1, demand.getOrDefault(client, 0));
+    }
+}
@@ -12,13 +12,19 @@
  *******************************************************************************/
 package org.eclipse.hono.messaging;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.connection.ConnectionFactory;
 import org.eclipse.hono.util.Constants;
@@ -29,7 +35,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import com.google.common.hash.Hashing;
+
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -47,6 +56,12 @@ import io.vertx.proton.ProtonSender;
 @Component
 public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
 
+    private static final int CONNECTION_RING_POINTS_PER_CONNECTION = 64;
+    /**
+     * The interval at which the metrics of non-empty overflow buffers are reported.
+     */
+    private static final long OVERFLOW_BUFFER_METRICS_INTERVAL_MILLIS = 1000;
+
     /**
      * A logger to be shared with subclasses.
      */
@@ -58,13 +73,18 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
 
     private final Map<UpstreamReceiver, ProtonSender> activeSenders          = new HashMap<>();
     private final Map<String, List<UpstreamReceiver>> receiversPerConnection = new HashMap<>();
-    private final List<Handler<AsyncResult<Void>>>    clientAttachHandlers   = new ArrayList<>();
+    private final Map<Handler<AsyncResult<Void>>, ProtonConnection> clientAttachHandlers = new HashMap<>();
+    private final Map<UpstreamReceiver, ProtonConnection> connectionPerReceiver = new HashMap<>();
+    private final Map<String, SharedSender>           sharedSenders          = new HashMap<>();
+    private final Map<ProtonSender, OverflowBuffer>   overflowBuffers        = new HashMap<>();
     private final Vertx                               vertx;
 
     private MessagingMetrics  metrics;
     private boolean           running                     = false;
+    private long              overflowBufferMetricsTimer  = -1;
     private boolean           retryOnFailedConnectAttempt = true;
-    private ProtonConnection  downstreamConnection;
+    private ProtonConnection[] downstreamConnections = new ProtonConnection[0];
+    private NavigableMap<Integer, Integer> connectionRing = new TreeMap<>();
     private final SenderFactory     senderFactory;
     private ConnectionFactory downstreamConnectionFactory;
 
@@ -125,6 +145,9 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
 
     /**
      * Connects to the downstream container.
+     * <p>
+     * The number of connections established is determined by the
+     * <em>downstreamConnectionPoolSize</em> configuration property.
      * 
      * @param startFuture The result of the connection attempt.
      * @throws IllegalStateException If the downstream container host is {@code null}
@@ -139,9 +162,19 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
             throw new IllegalStateException("downstream connection factory is not set");
         } else {
             running = true;
+            final int poolSize = honoConfig.getDownstreamConnectionPoolSize();
+            downstreamConnections = new ProtonConnection[poolSize];
+            connectionRing = createConnectionRing(poolSize);
             if (honoConfig.isWaitForDownstreamConnectionEnabled()) {
-                logger.info("waiting for connection to downstream container");
-                connectToDownstream(createClientOptions(), attempt -> {
+                logger.info("waiting for {} connection(s) to downstream container", poolSize);
+                @SuppressWarnings("rawtypes")
+                final List<Future> connectAttempts = new ArrayList<>();
+                for (int i = 0; i < poolSize; i++) {
+                    final Future<ProtonConnection> connectAttempt = Future.future();
+                    connectToDownstream(i, createClientOptions(), connectAttempt.completer());
+                    connectAttempts.add(connectAttempt);
+                }
+                CompositeFuture.all(connectAttempts).setHandler(attempt -> {
                     if (attempt.succeeded()) {
                         startFuture.complete();
                     } else {
@@ -149,14 +182,16 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
                     }
                 });
             } else {
-                connectToDownstream(createClientOptions());
+                for (int i = 0; i < poolSize; i++) {
+                    connectToDownstream(i, createClientOptions());
+                }
                 startFuture.complete();
             }
         }
     }
 
     /**
-     * Closes the connection with the downstream container.
+     * Closes the connections with the downstream container.
      * 
      * @param stopFuture Always succeeds.
      */
@@ -164,14 +199,17 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
     public final void stop(final Future<Void> stopFuture) {
 
         if (running) {
-            if (downstreamConnection != null && !downstreamConnection.isDisconnected()) {
-                final String container = downstreamConnection.getRemoteContainer();
-                logger.info("closing connection to downstream container [{}]", container);
-                downstreamConnection.closeHandler(null).disconnectHandler(null).close();
-                metrics.decrementDownStreamConnections();
-            } else {
-                logger.debug("downstream connection already closed");
+            for (final ProtonConnection downstreamConnection : downstreamConnections) {
+                if (downstreamConnection != null && !downstreamConnection.isDisconnected()) {
+                    final String container = downstreamConnection.getRemoteContainer();
+                    logger.info("closing connection to downstream container [{}]", container);
+                    downstreamConnection.closeHandler(null).disconnectHandler(null).close();
+                    metrics.decrementDownStreamConnections();
+                } else {
+                    logger.debug("downstream connection already closed");
+                }
             }
+            cancelOverflowBufferMetricsTimer();
             running = false;
         }
         stopFuture.complete();
@@ -183,11 +221,84 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
      * @return The name or {@code null} if this adapter is currently not connected.
      */
     protected final String getDownstreamContainer() {
-        if (downstreamConnection != null) {
-            return downstreamConnection.getRemoteContainer();
-        } else {
+        for (final ProtonConnection downstreamConnection : downstreamConnections) {
+            if (downstreamConnection != null) {
+                return downstreamConnection.getRemoteContainer();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a hash ring for assigning tenants to downstream connections.
+     * <p>
+     * Each connection is represented by several points on the ring in order to
+     * distribute the tenants evenly among the connections.
+     * 
+     * @param poolSize The number of downstream connections.
+     * @return The ring mapping hash values to connection indexes.
+     */
+    private static NavigableMap<Integer, Integer> createConnectionRing(final int poolSize) {
+
+        final NavigableMap<Integer, Integer> ring = new TreeMap<>();
+        for (int i = 0; i < poolSize; i++) {
+            for (int j = 0; j < CONNECTION_RING_POINTS_PER_CONNECTION; j++) {
+                ring.put(hash("connection-" + i + "-" + j), i);
+            }
+        }
+        return ring;
+    }
+
+    private static int hash(final String key) {
+        return Hashing.murmur3_32().hashString(key, StandardCharsets.UTF_8).asInt();
+    }
+
+    /**
+     * Gets the index of the downstream connection that a tenant is assigned to.
+     * 
+     * @param tenantId The tenant.
+     * @return The index of the connection.
+     */
+    final int getConnectionIndex(final String tenantId) {
+
+        if (connectionRing.isEmpty()) {
+            return 0;
+        }
+        final Map.Entry<Integer, Integer> entry = connectionRing.ceilingEntry(hash(String.valueOf(tenantId)));
+        return entry == null ? connectionRing.firstEntry().getValue() : entry.getValue();
+    }
+
+    /**
+     * Gets the downstream connection to use for a tenant's messages.
+     * <p>
+     * If the connection the tenant is assigned to is not available, the next
+     * available connection of the pool is used instead.
+     * 
+     * @param tenantId The tenant.
+     * @return The connection or {@code null} if no connection is available.
+     */
+    private ProtonConnection getDownstreamConnection(final String tenantId) {
+
+        final int poolSize = downstreamConnections.length;
+        if (poolSize == 0) {
             return null;
         }
+        final int assignedIndex = getConnectionIndex(tenantId);
+        for (int i = 0; i < poolSize; i++) {
+            final ProtonConnection con = downstreamConnections[(assignedIndex + i) % poolSize];
+            if (isConnected(con)) {
+                if (i > 0) {
+                    logger.debug("downstream connection #{} for tenant [{}] is not available, using connection #{} instead",
+                            assignedIndex, tenantId, (assignedIndex + i) % poolSize);
+                }
+                return con;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConnected(final ProtonConnection con) {
+        return con != null && !con.isDisconnected();
     }
 
     private ProtonClientOptions createClientOptions() {
@@ -197,19 +308,22 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
                 .setReconnectInterval(Constants.DEFAULT_RECONNECT_INTERVAL_MILLIS);
     }
 
-    private void connectToDownstream(final ProtonClientOptions options) {
-        connectToDownstream(options, null);
+    private void connectToDownstream(final int index, final ProtonClientOptions options) {
+        connectToDownstream(index, options, null);
     }
 
-    private void connectToDownstream(final ProtonClientOptions options, final Handler<AsyncResult<ProtonConnection>> connectResultHandler) {
+    private void connectToDownstream(
+            final int index,
+            final ProtonClientOptions options,
+            final Handler<AsyncResult<ProtonConnection>> connectResultHandler) {
 
         downstreamConnectionFactory.connect(
                 options,
-                this::onRemoteClose,
-                this::onDisconnectFromDownstreamContainer,
+                remoteClose -> onRemoteClose(index, remoteClose),
+                con -> onDisconnectFromDownstreamContainer(index, con),
                 connectAttempt -> {
                     if (connectAttempt.succeeded()) {
-                        this.downstreamConnection = connectAttempt.result();
+                        downstreamConnections[index] = connectAttempt.result();
                         metrics.incrementDownStreamConnections();
                         if (connectResultHandler != null) {
                             connectResultHandler.handle(Future.succeededFuture(connectAttempt.result()));
@@ -217,7 +331,7 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
                     } else {
                         logger.info("failed to connect to downstream container: {}", connectAttempt.cause().getMessage());
                         if (retryOnFailedConnectAttempt) {
-                            reconnect(connectResultHandler);
+                            reconnect(index, connectResultHandler);
                         } else if (connectResultHandler != null) {
                             connectResultHandler.handle(Future.failedFuture(connectAttempt.cause()));
                         }
@@ -225,8 +339,9 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
                 });
     }
 
-    private void onRemoteClose(final AsyncResult<ProtonConnection> remoteClose) {
+    private void onRemoteClose(final int index, final AsyncResult<ProtonConnection> remoteClose) {
 
+        final ProtonConnection downstreamConnection = downstreamConnections[index];
         if (remoteClose.succeeded()) {
             if (remoteClose.result() != downstreamConnection) {
                 logger.warn("downstream container closed unknown connection");
@@ -238,52 +353,88 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
             logger.info("downstream container [{}] has closed connection: {}", downstreamConnection.getRemoteContainer(), remoteClose.cause().getMessage());
         }
         downstreamConnection.close();
-        onDisconnectFromDownstreamContainer(downstreamConnection);
+        onDisconnectFromDownstreamContainer(index, downstreamConnection);
     }
 
     /**
      * Handles unexpected disconnection from downstream container.
      * <p>
      * Clears all internal state kept for the connection, e.g. open links etc, and then tries to
-     * reconnect.
+     * reconnect. Links using other connections of the pool are not affected.
      * 
+     * @param index The index of the connection in the pool.
      * @param con The failed connection.
      */
-    private void onDisconnectFromDownstreamContainer(final ProtonConnection con) {
+    private void onDisconnectFromDownstreamContainer(final int index, final ProtonConnection con) {
 
-        if (con != downstreamConnection) {
+        if (con != downstreamConnections[index]) {
             logger.warn("unknown connection to downstream container has been disconnected");
         } else {
             // all links to downstream host will now be stale and unusable
             logger.warn("lost connection to downstream container [{}], closing upstream receivers ...", con.getRemoteContainer());
 
-            for (final UpstreamReceiver client : activeSenders.keySet()) {
-                closeReceiver(client);
+            for (final Iterator<Map.Entry<UpstreamReceiver, ProtonConnection>> iter = connectionPerReceiver.entrySet().iterator(); iter.hasNext(); ) {
+                final Map.Entry<UpstreamReceiver, ProtonConnection> entry = iter.next();
+                if (entry.getValue() == con) {
+                    final UpstreamReceiver client = entry.getKey();
+                    iter.remove();
+                    closeReceiver(client);
+                    final ProtonSender sender = activeSenders.remove(client);
+                    if (!isSharedSenderReceiver(client)) {
+                        releaseOverflowBuffer(sender);
+                        onDownstreamSenderClosed(client.getTargetAddress());
+                    }
+                    removeFromReceiversPerConnection(client);
+                }
+            }
+            for (final Iterator<SharedSender> iter = sharedSenders.values().iterator(); iter.hasNext(); ) {
+                final SharedSender shared = iter.next();
+                if (shared.connection == con) {
+                    iter.remove();
+                    if (shared.sender != null) {
+                        releaseOverflowBuffer(shared.sender);
+                        onDownstreamSenderClosed(shared.address);
+                    }
+                }
             }
-            receiversPerConnection.clear();
-            activeSenders.clear();
-            downstreamConnection.attachments().clear();
-            downstreamConnection.disconnectHandler(null);
-            downstreamConnection.disconnect();
+            con.attachments().clear();
+            con.disconnectHandler(null);
+            con.disconnect();
             metrics.decrementDownStreamConnections();
 
-            for (final Iterator<Handler<AsyncResult<Void>>> iter = clientAttachHandlers.iterator(); iter.hasNext(); ) {
-                iter.next().handle(Future.failedFuture("connection to downstream container failed"));
-                iter.remove();
+            for (final Iterator<Map.Entry<Handler<AsyncResult<Void>>, ProtonConnection>> iter = clientAttachHandlers.entrySet().iterator(); iter.hasNext(); ) {
+                final Map.Entry<Handler<AsyncResult<Void>>, ProtonConnection> entry = iter.next();
+                if (entry.getValue() == con) {
+                    iter.remove();
+                    entry.getKey().handle(Future.failedFuture("connection to downstream container failed"));
+                }
             }
 
-            reconnect(null);
+            reconnect(index, null);
+        }
+    }
+
+    private void removeFromReceiversPerConnection(final UpstreamReceiver link) {
+        final List<UpstreamReceiver> receivers = receiversPerConnection.get(link.getConnectionId());
+        if (receivers != null) {
+            receivers.remove(link);
+            if (receivers.isEmpty()) {
+                receiversPerConnection.remove(link.getConnectionId());
+            }
         }
     }
 
     private void closeReceiver(final UpstreamReceiver receiver) {
         receiver.close(ErrorConditions.ERROR_NO_DOWNSTREAM_CONSUMER);
         metrics.decrementUpstreamLinks(receiver.getTargetAddress());
-        metrics.decrementDownstreamSenders(receiver.getTargetAddress());
-        metrics.submitDownstreamLinkCredits(receiver.getTargetAddress(), 0);
     }
 
-    private void reconnect(final Handler<AsyncResult<ProtonConnection>> resultHandler) {
+    private void onDownstreamSenderClosed(final String address) {
+        metrics.decrementDownstreamSenders(address);
+        metrics.submitDownstreamLinkCredits(address, 0);
+    }
+
+    private void reconnect(final int index, final Handler<AsyncResult<ProtonConnection>> resultHandler) {
 
         if (!running) {
             logger.info("adapter is stopped, will not re-connect to downstream container");
@@ -292,7 +443,7 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
             if (clientOptions.getReconnectAttempts() != 0) {
                 vertx.setTimer(Constants.DEFAULT_RECONNECT_INTERVAL_MILLIS, reconnect -> {
                     logger.info("attempting to re-connect to downstream container");
-                    connectToDownstream(clientOptions, resultHandler);
+                    connectToDownstream(index, clientOptions, resultHandler);
                 });
             }
         }
@@ -314,9 +465,11 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
             resultHandler.handle(Future.succeededFuture());
         } else {
             removeSender(client);
+            final ResourceIdentifier targetAddress = ResourceIdentifier.fromString(client.getTargetAddress());
+            final ProtonConnection connection = getDownstreamConnection(targetAddress.getTenantId());
             // register the result handler to be failed if the connection to the downstream container fails during
             // the attempt to create a downstream sender
-            clientAttachHandlers.add(resultHandler);
+            clientAttachHandlers.put(resultHandler, connection);
             final Future<Void> tracker = Future.future();
             tracker.setHandler(attempt -> {
                 if (attempt.succeeded()) {
@@ -328,17 +481,109 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
                 resultHandler.handle(attempt);
             });
 
-            final ResourceIdentifier targetAddress = ResourceIdentifier.fromString(client.getTargetAddress());
-            createSender(targetAddress, replenishedSender -> handleFlow(replenishedSender, client), closeHook -> {
-                removeSender(client);
-                closeReceiver(client);
-            }).compose(createdSender -> {
-                addSender(client, createdSender);
+            if (honoConfig.isDownstreamSenderSharingEnabled()) {
+                attachToSharedSender(client, connection, tracker);
+            } else {
+                createSender(connection, targetAddress, replenishedSender -> handleFlow(replenishedSender, client), closeHook -> {
+                    removeSender(client);
+                    closeReceiver(client);
+                    onDownstreamSenderClosed(client.getTargetAddress());
+                }).compose(createdSender -> {
+                    addSender(client, createdSender, connection);
+                    tracker.complete();
+                }, tracker);
+            }
+        }
+    }
+
+    /**
+     * Associates an upstream client with the downstream sender that is shared by all
+     * clients using the same target address.
+     * <p>
+     * The shared sender is created if it does not exist yet.
+     * 
+     * @param client The upstream client.
+     * @param connection The connection to create the sender on if it does not exist yet.
+     * @param tracker The future to complete once the client has been associated with the sender.
+     */
+    private void attachToSharedSender(final UpstreamReceiver client, final ProtonConnection connection, final Future<Void> tracker) {
+
+        final Handler<AsyncResult<ProtonSender>> attachHandler = creationAttempt -> {
+            if (creationAttempt.succeeded()) {
+                addSharedSender(client, creationAttempt.result());
                 tracker.complete();
-            }, tracker);
+            } else {
+                tracker.fail(creationAttempt.cause());
+            }
+        };
+
+        final SharedSender existingSender = sharedSenders.get(client.getTargetAddress());
+        if (existingSender == null) {
+            final SharedSender shared = new SharedSender(client.getTargetAddress(), connection, newCreditAllocationPolicy());
+            sharedSenders.put(shared.address, shared);
+            shared.creationHandlers.add(attachHandler);
+            logger.debug("creating shared downstream sender [address: {}]", shared.address);
+            createSender(
+                    connection,
+                    ResourceIdentifier.fromString(shared.address),
+                    replenishedSender -> handleFlow(replenishedSender, shared),
+                    closeHook -> onSharedSenderClosed(shared)).setHandler(creationAttempt -> {
+                        if (creationAttempt.succeeded()) {
+                            shared.sender = creationAttempt.result();
+                            // we need to propagate drain requests upstream and wait for the result
+                            shared.sender.setAutoDrained(false);
+                            metrics.incrementDownstreamSenders(shared.address);
+                        } else {
+                            sharedSenders.remove(shared.address, shared);
+                        }
+                        final List<Handler<AsyncResult<ProtonSender>>> handlers = new ArrayList<>(shared.creationHandlers);
+                        shared.creationHandlers.clear();
+                        handlers.forEach(handler -> handler.handle(creationAttempt));
+                    });
+        } else if (existingSender.sender == null) {
+            // creation of shared sender is still in progress
+            existingSender.creationHandlers.add(attachHandler);
+        } else {
+            attachHandler.handle(Future.succeededFuture(existingSender.sender));
         }
     }
 
+    private void addSharedSender(final UpstreamReceiver link, final ProtonSender sender) {
+
+        final SharedSender shared = sharedSenders.get(link.getTargetAddress());
+        shared.receivers.add(link);
+        activeSenders.put(link, sender);
+        connectionPerReceiver.put(link, shared.connection);
+        receiversPerConnection.computeIfAbsent(link.getConnectionId(), id -> new ArrayList<>()).add(link);
+        logger.debug("upstream client [con: {}, link: {}] is sharing downstream sender with {} other clients",
+                link.getConnectionId(), link.getLinkId(), shared.receivers.size() - 1);
+        handleFlow(sender, shared);
+    }
+
+    private void onSharedSenderClosed(final SharedSender shared) {
+
+        if (sharedSenders.remove(shared.address, shared)) {
+            logger.info("shared downstream sender [address: {}] has been closed, closing {} upstream receivers",
+                    shared.address, shared.receivers.size());
+            for (final UpstreamReceiver receiver : shared.receivers) {
+                activeSenders.remove(receiver);
+                connectionPerReceiver.remove(receiver);
+                removeFromReceiversPerConnection(receiver);
+                closeReceiver(receiver);
+            }
+            shared.receivers.clear();
+            if (shared.sender != null) {
+                releaseOverflowBuffer(shared.sender);
+                onDownstreamSenderClosed(shared.address);
+            }
+        }
+    }
+
+    private boolean isSharedSenderReceiver(final UpstreamReceiver link) {
+        final SharedSender shared = sharedSenders.get(link.getTargetAddress());
+        return shared != null && shared.receivers.contains(link);
+    }
+
     /**
      * Invoked when a downstream sender receives link credit and/or a drain request from the downstream container.
      * <p>
@@ -354,9 +599,12 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
         logger.trace("received FLOW from downstream container [con:{}, link: {}, sendQueueFull: {}, credits: {}, queued: {}, drain: {}",
                 client.getConnectionId(), client.getLinkId(), replenishedSender.sendQueueFull(), replenishedSender.getCredit(),
                 replenishedSender.getQueued(), replenishedSender.getDrain());
+        forwardBufferedMessages(replenishedSender);
         if (replenishedSender.getDrain()) {
             // send drain request upstream and act upon result of request to drain upstream client
+            final long drainStart = System.currentTimeMillis();
             client.drain(10000, drainAttempt -> {
+                metrics.submitDrainDuration(client.getTargetAddress(), System.currentTimeMillis() - drainStart);
                 if (drainAttempt.succeeded()) {
                     replenishedSender.drained();
                 }
@@ -368,19 +616,97 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
         }
     }
 
+    /**
+     * Invoked when a shared downstream sender receives link credit and/or a drain request from
+     * the downstream container.
+     * <p>
+     * The credit is distributed among all upstream clients sharing the sender using the
+     * sender's {@linkplain #newCreditAllocationPolicy() credit allocation policy}. Clients
+     * are only granted the difference between their share and the credit they still have
+     * available, and only as long as the credit held by all clients does not exceed the
+     * sender's credit. Credit that has already been granted to a client cannot be revoked,
+     * so a client holding more than its share does not get any more credit until it has
+     * used up the excess. A drain request
+     * is forwarded to all clients and the sender is marked as drained once all of them have been drained.
+     * 
+     * @param replenishedSender The downstream sender that has received the FLOW.
+     * @param shared The shared sender state.
+     */
+    private void handleFlow(final ProtonSender replenishedSender, final SharedSender shared) {
+
+        logger.trace("received FLOW from downstream container for shared sender [address: {}, receivers: {}, credits: {}, queued: {}, drain: {}",
+                shared.address, shared.receivers.size(), replenishedSender.getCredit(),
+                replenishedSender.getQueued(), replenishedSender.getDrain());
+        forwardBufferedMessages(replenishedSender);
+        if (shared.receivers.isEmpty()) {
+            return;
+        }
+        if (replenishedSender.getDrain()) {
+            @SuppressWarnings("rawtypes")
+            final List<Future> drainAttempts = new ArrayList<>();
+            for (final UpstreamReceiver client : shared.receivers) {
+                final Future<Void> drainAttempt = Future.future();
+                client.drain(10000, drainAttempt.completer());
+                drainAttempts.add(drainAttempt);
+            }
+            final long drainStart = System.currentTimeMillis();
+            CompositeFuture.all(drainAttempts).setHandler(drainAttempt -> {
+                metrics.submitDrainDuration(shared.address, System.currentTimeMillis() - drainStart);
+                if (drainAttempt.succeeded()) {
+                    replenishedSender.drained();
+                }
+            });
+        } else {
+            final int downstreamCredit = getAvailableDownstreamCredit(replenishedSender);
+            int unallocatedCredit = downstreamCredit;
+            for (final UpstreamReceiver client : shared.receivers) {
+                unallocatedCredit -= client.getCredit();
+            }
+            for (final Map.Entry<UpstreamReceiver, Integer> share : shared.creditAllocationPolicy
+                    .allocate(downstreamCredit, shared.receivers).entrySet()) {
+                final int availableCredit = share.getKey().getCredit();
+                final int grantedCredit = Math.min(share.getValue() - availableCredit, unallocatedCredit);
+                if (grantedCredit > 0) {
+                    share.getKey().replenish(availableCredit + grantedCredit);
+                    unallocatedCredit -= grantedCredit;
+                }
+            }
+            metrics.submitDownstreamLinkCredits(shared.address, downstreamCredit);
+        }
+    }
+
+    /**
+     * Creates the policy to use for distributing the credit of a shared downstream sender
+     * among the upstream clients using the sender.
+     * <p>
+     * This default implementation returns a policy based on the
+     * {@linkplain HonoMessagingConfigProperties#getDownstreamCreditAllocationPolicy() configured}
+     * policy name. Subclasses may override this method in order to use a custom policy.
+     * 
+     * @return The policy.
+     */
+    protected CreditAllocationPolicy newCreditAllocationPolicy() {
+        if (HonoMessagingConfigProperties.CREDIT_ALLOCATION_POLICY_FAIR_SHARE.equals(honoConfig.getDownstreamCreditAllocationPolicy())) {
+            return new FairShareCreditAllocationPolicy();
+        } else {
+            return new EvenCreditAllocationPolicy();
+        }
+    }
+
     private static int getAvailableDownstreamCredit(final ProtonSender downstreamSender) {
         return Math.max(0, downstreamSender.getCredit());
     }
 
     private Future<ProtonSender> createSender(
+            final ProtonConnection connection,
             final ResourceIdentifier targetAddress,
             final Handler<ProtonSender> sendQueueDrainHandler,
             final Handler<Void> closeHook) {
 
-        if (!isConnected()) {
+        if (!isConnected(connection)) {
             return Future.failedFuture("downstream connection must be opened before creating sender");
         } else {
-            return senderFactory.createSender(downstreamConnection, targetAddress, getDownstreamQos(),
+            return senderFactory.createSender(connection, targetAddress, getDownstreamQos(),
                     sendQueueDrainHandler, closeHook);
         }
     }
@@ -392,6 +718,11 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
      * @param sender The downstream sender.
      */
     public final void addSender(final UpstreamReceiver link, final ProtonSender sender) {
+        addSender(link, sender, getDownstreamConnection(ResourceIdentifier.fromString(link.getTargetAddress()).getTenantId()));
+    }
+
+    private void addSender(final UpstreamReceiver link, final ProtonSender sender, final ProtonConnection connection) {
+        connectionPerReceiver.put(link, connection);
         sender.attachments().set(Constants.KEY_CONNECTION_ID, String.class, link.getConnectionId());
         sender.setAutoDrained(false); // we need to propagate drain requests upstream and wait for the result
         activeSenders.put(link, sender);
@@ -450,11 +781,31 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
 
     private void closeSender(final UpstreamReceiver link) {
         final ProtonSender sender = activeSenders.remove(link);
-        if (sender != null && sender.isOpen()) {
-            logger.info("closing downstream sender [con: {}, link: {}]", link.getConnectionId(), link.getLinkId());
-            metrics.decrementDownstreamSenders(link.getTargetAddress());
-            metrics.submitDownstreamLinkCredits(link.getTargetAddress(), 0);
-            sender.close();
+        connectionPerReceiver.remove(link);
+        final SharedSender shared = sharedSenders.get(link.getTargetAddress());
+        if (shared != null && shared.receivers.remove(link)) {
+            shared.creditAllocationPolicy.onClientRemoved(link);
+            if (shared.receivers.isEmpty()) {
+                sharedSenders.remove(shared.address);
+                releaseOverflowBuffer(sender);
+                if (sender != null && sender.isOpen()) {
+                    logger.info("closing shared downstream sender [address: {}]", shared.address);
+                    metrics.decrementDownstreamSenders(shared.address);
+                    metrics.submitDownstreamLinkCredits(shared.address, 0);
+                    sender.close();
+                }
+            } else if (sender != null && sender.isOpen() && !sender.getDrain()) {
+                // redistribute the sender's credit among the remaining clients
+                handleFlow(sender, shared);
+            }
+        } else if (sender != null) {
+            releaseOverflowBuffer(sender);
+            if (sender.isOpen()) {
+                logger.info("closing downstream sender [con: {}, link: {}]", link.getConnectionId(), link.getLinkId());
+                metrics.decrementDownstreamSenders(link.getTargetAddress());
+                metrics.submitDownstreamLinkCredits(link.getTargetAddress(), 0);
+                sender.close();
+            }
         }
     }
 
@@ -468,13 +819,23 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
         Objects.requireNonNull(client);
         Objects.requireNonNull(msg);
         Objects.requireNonNull(upstreamDelivery);
+        final long arrivalTime = System.currentTimeMillis();
         final ProtonSender sender = activeSenders.get(client);
         if (sender == null) {
             logger.info("no downstream sender for link [{}] available, discarding message and closing link with client", client.getLinkId());
             client.close(ErrorConditions.ERROR_NO_DOWNSTREAM_CONSUMER);
         } else if (sender.isOpen()) {
+            final SharedSender shared = sharedSenders.get(client.getTargetAddress());
+            if (shared != null) {
+                shared.creditAllocationPolicy.onMessage(client);
+            }
+            // make sure that previously buffered messages are forwarded first
+            forwardBufferedMessages(sender);
             if (sender.sendQueueFull()) {
-                if (upstreamDelivery.remotelySettled()) {
+                if (bufferMessage(sender, msg, upstreamDelivery)) {
+                    logger.debug("no downstream credit available for link [{}], buffering message [{}]",
+                            client.getLinkId(), msg.getMessageId());
+                } else if (upstreamDelivery.remotelySettled()) {
                     // sender has sent the message pre-settled, i.e. we can simply discard the message
                     logger.debug("no downstream credit available for link [{}], discarding message [{}]",
                             client.getLinkId(), msg.getMessageId());
@@ -490,8 +851,7 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
             } else {
                 logger.trace("forwarding message [id: {}, to: {}, content-type: {}] to downstream container [{}], credit available: {}, queued: {}",
                         msg.getMessageId(), msg.getAddress(), msg.getContentType(), getDownstreamContainer(), sender.getCredit(), sender.getQueued());
-                forwardMessage(sender, msg, upstreamDelivery);
-                metrics.incrementProcessedMessages(sender.getTarget().getAddress());
+                forward(sender, msg, upstreamDelivery, arrivalTime);
             }
         } else {
             logger.warn("downstream sender for link [{}] is not open, discarding message and closing link with client", client.getLinkId());
@@ -501,14 +861,143 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
         }
     }
 
+    private void forward(final ProtonSender sender, final Message msg, final ProtonDelivery upstreamDelivery, final long arrivalTime) {
+
+        final String address = sender.getTarget().getAddress();
+        metrics.submitForwardingLatency(address, System.currentTimeMillis() - arrivalTime);
+        forwardMessage(sender, msg, upstreamDelivery);
+        metrics.incrementProcessedMessages(address);
+    }
+
+    private boolean bufferMessage(final ProtonSender sender, final Message msg, final ProtonDelivery upstreamDelivery) {
+
+        if (honoConfig.getOverflowBufferMaxMessages() <= 0) {
+            return false;
+        }
+        final OverflowBuffer buffer = overflowBuffers.computeIfAbsent(sender, s -> new OverflowBuffer(
+                honoConfig.getOverflowBufferMaxMessages(), honoConfig.getOverflowBufferMaxBytes()));
+        if (buffer.offer(msg, upstreamDelivery)) {
+            submitOverflowBufferMetrics(sender, buffer);
+            if (overflowBufferMetricsTimer == -1) {
+                overflowBufferMetricsTimer = vertx.setPeriodic(
+                        OVERFLOW_BUFFER_METRICS_INTERVAL_MILLIS,
+                        tid -> submitOverflowBufferMetrics(System.currentTimeMillis()));
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Forwards messages from a sender's overflow buffer as long as the sender has credit left.
+     * <p>
+     * Messages are forwarded in the order in which they have been added to the buffer.
+     * 
+     * @param sender The downstream sender.
+     */
+    private void forwardBufferedMessages(final ProtonSender sender) {
+
+        final OverflowBuffer buffer = overflowBuffers.get(sender);
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+        int forwarded = 0;
+        while (!buffer.isEmpty() && !sender.sendQueueFull()) {
+            final OverflowBuffer.Entry entry = buffer.poll();
+            forward(sender, entry.getMessage(), entry.getUpstreamDelivery(), entry.getTimestamp());
+            forwarded++;
+        }
+        if (forwarded > 0) {
+            logger.trace("forwarded {} buffered messages to downstream container [{}], remaining: {}",
+                    forwarded, getDownstreamContainer(), buffer.size());
+            submitOverflowBufferMetrics(sender, buffer);
+        }
+    }
+
+    /**
+     * Removes a sender's overflow buffer.
+     * <p>
+     * All unsettled messages contained in the buffer are released.
+     * 
+     * @param sender The downstream sender.
+     */
+    private void releaseOverflowBuffer(final ProtonSender sender) {
+
+        final OverflowBuffer buffer = sender == null ? null : overflowBuffers.remove(sender);
+        if (buffer == null) {
+            return;
+        }
+        if (!buffer.isEmpty()) {
+            logger.debug("releasing {} buffered messages for closed downstream sender", buffer.size());
+        }
+        final String address = sender.getTarget().getAddress();
+        OverflowBuffer.Entry entry = buffer.poll();
+        while (entry != null) {
+            if (entry.getUpstreamDelivery().remotelySettled()) {
+                metrics.incrementDiscardedMessages(address);
+            } else {
+                ProtonHelper.released(entry.getUpstreamDelivery(), true);
+                metrics.incrementUndeliverableMessages(address);
+            }
+            entry = buffer.poll();
+        }
+        submitOverflowBufferMetrics(sender, buffer);
+    }
+
+    /**
+     * Reports the depth and age of all non-empty overflow buffers.
+     * <p>
+     * The age of the oldest message contained in a buffer grows while no messages are
+     * added to or removed from the buffer. This method is therefore invoked periodically
+     * as long as any buffer contains messages so that the reported age does not get stale.
+     * The timer is cancelled once all buffers are empty.
+     * 
+     * @param now The current time in milliseconds since the epoch.
+     */
+    void submitOverflowBufferMetrics(final long now) {
+
+        boolean buffering = false;
+        for (final Map.Entry<ProtonSender, OverflowBuffer> entry : overflowBuffers.entrySet()) {
+            final OverflowBuffer buffer = entry.getValue();
+            if (!buffer.isEmpty()) {
+                buffering = true;
+                final String address = entry.getKey().getTarget().getAddress();
+                metrics.submitOverflowBufferDepth(address, buffer.size());
+                metrics.submitOverflowBufferAge(address, buffer.getOldestAge(now));
+            }
+        }
+        if (!buffering) {
+            cancelOverflowBufferMetricsTimer();
+        }
+    }
+
+    private void cancelOverflowBufferMetricsTimer() {
+        if (overflowBufferMetricsTimer != -1) {
+            vertx.cancelTimer(overflowBufferMetricsTimer);
+            overflowBufferMetricsTimer = -1;
+        }
+    }
+
+    private void submitOverflowBufferMetrics(final ProtonSender sender, final OverflowBuffer buffer) {
+        final String address = sender.getTarget().getAddress();
+        metrics.submitOverflowBufferDepth(address, buffer.size());
+        metrics.submitOverflowBufferAge(address, buffer.getOldestAge(System.currentTimeMillis()));
+    }
+
     /**
      * Checks if this adapter has an open connection to the downstream container.
      *
-     * @return {@code true} if the connection is open (and thus usable).
+     * @return {@code true} if at least one of the connections is open (and thus usable).
      */
     @Override
     public final boolean isConnected() {
-        return downstreamConnection != null && !downstreamConnection.isDisconnected();
+        for (final ProtonConnection con : downstreamConnections) {
+            if (isConnected(con)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     final void disableRetryOnFailedConnectAttempt() {
@@ -533,6 +1022,55 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
         return receiversPerConnection != null && receiversPerConnection.isEmpty();
     }
 
+    /**
+     * Creates a handler for forwarding the disposition of a message received from the
+     * downstream container to the upstream client.
+     * <p>
+     * The handler also reports the time between the creation of the handler, i.e. sending
+     * the message downstream, and the downstream container settling the message.
+     * 
+     * @param sender The link that the message is being sent on.
+     * @param upstreamDelivery The handle for settling the message with the client.
+     * @return The handler to pass in when sending the message downstream.
+     */
+    protected final Handler<ProtonDelivery> newDispositionHandler(final ProtonSender sender, final ProtonDelivery upstreamDelivery) {
+
+        final long sentAt = System.currentTimeMillis();
+        final String address = sender.getTarget().getAddress();
+        return downstreamDelivery -> {
+            if (downstreamDelivery.remotelySettled()) {
+                metrics.submitDispositionRoundTrip(address, System.currentTimeMillis() - sentAt);
+            }
+            forwardDisposition(downstreamDelivery, upstreamDelivery);
+        };
+    }
+
+    /**
+     * Forwards the disposition of a message received from the downstream container
+     * to the upstream client.
+     * <p>
+     * Updates which do not change the outcome that has already been conveyed to the client,
+     * e.g. updates without a delivery state that do not settle the delivery or repeated
+     * updates with the same (non-terminal) state, are not forwarded because each disposition
+     * results in a separate frame being written to the client's connection.
+     * 
+     * @param downstreamDelivery The updated downstream delivery.
+     * @param upstreamDelivery The handle for settling the message with the client.
+     */
+    private void forwardDisposition(final ProtonDelivery downstreamDelivery, final ProtonDelivery upstreamDelivery) {
+
+        final DeliveryState remoteState = downstreamDelivery.getRemoteState();
+        final boolean settled = downstreamDelivery.remotelySettled();
+        if (!settled) {
+            final DeliveryState localState = upstreamDelivery.getLocalState();
+            if (remoteState == null || (localState != null && localState.getClass() == remoteState.getClass())) {
+                logger.trace("ignoring downstream disposition update not affecting upstream client");
+                return;
+            }
+        }
+        upstreamDelivery.disposition(remoteState, settled);
+    }
+
     /**
      * Forwards the message to the downstream container.
      * <p>
@@ -551,4 +1089,24 @@ public abstract class ForwardingDownstreamAdapter implements DownstreamAdapter {
      * @return The QoS.
      */
     protected abstract ProtonQoS getDownstreamQos();
+
+    /**
+     * State kept for a downstream sender that is shared by all upstream clients
+     * using the same target address.
+     */
+    private static final class SharedSender {
+
+        private final String address;
+        private final ProtonConnection connection;
+        private final Set<UpstreamReceiver> receivers = new LinkedHashSet<>();
+        private final List<Handler<AsyncResult<ProtonSender>>> creationHandlers = new ArrayList<>();
+        private final CreditAllocationPolicy creditAllocationPolicy;
+        private ProtonSender sender;
+
+        private SharedSender(final String address, final ProtonConnection connection, final CreditAllocationPolicy creditAllocationPolicy) {
+            this.address = address;
+            this.connection = connection;
+            this.creditAllocationPolicy = Objects.requireNonNull(creditAllocationPolicy);
+        }
+    }
 }
@@ -13,6 +13,8 @@
 
 package org.eclipse.hono.messaging;
 
+import java.util.Objects;
+
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.config.SignatureSupportingConfigProperties;
 
@@ -27,10 +29,33 @@ public class HonoMessagingConfigProperties extends ServiceConfigProperties {
      * The default number of bytes that can be buffered unsettled per session created by a client.
      */
     public static final int DEFAULT_MAX_SESSION_WINDOW = 300 * 32 * 1024; // 300 frames of 32kb each
+    /**
+     * The default maximum number of validated registration assertions to cache.
+     */
+    public static final int DEFAULT_ASSERTION_CACHE_MAX_SIZE = 10000;
+    /**
+     * The default maximum number of bytes of message payload to buffer per downstream sender.
+     */
+    public static final int DEFAULT_OVERFLOW_BUFFER_MAX_BYTES = 1024 * 1024;
+    /**
+     * The name of the policy that splits the credit of a shared downstream sender evenly.
+     */
+    public static final String CREDIT_ALLOCATION_POLICY_EVEN = "even";
+    /**
+     * The name of the policy that distributes the credit of a shared downstream sender
+     * according to the upstream links' demand.
+     */
+    public static final String CREDIT_ALLOCATION_POLICY_FAIR_SHARE = "fair-share";
 
     private final SignatureSupportingConfigProperties registrationAssertionProperties = new SignatureSupportingConfigProperties();
     private int maxSessionWindow = DEFAULT_MAX_SESSION_WINDOW;
     private boolean assertionValidationRequired = true;
+    private int assertionCacheMaxSize = DEFAULT_ASSERTION_CACHE_MAX_SIZE;
+    private boolean downstreamSenderSharingEnabled = false;
+    private int downstreamConnectionPoolSize = 1;
+    private String downstreamCreditAllocationPolicy = CREDIT_ALLOCATION_POLICY_EVEN;
+    private int overflowBufferMaxMessages = 0;
+    private int overflowBufferMaxBytes = DEFAULT_OVERFLOW_BUFFER_MAX_BYTES;
 
     /**
      * Gets the properties for determining key material for validating registration assertion tokens.
@@ -96,4 +121,199 @@ public class HonoMessagingConfigProperties extends ServiceConfigProperties {
     public final void setAssertionValidationRequired(final boolean assertionRequired) {
         this.assertionValidationRequired = assertionRequired;
     }
+
+    /**
+     * Gets the maximum number of successfully validated registration assertions
+     * that are cached per endpoint.
+     * <p>
+     * Caching validated assertions prevents the signature of an assertion from being
+     * verified again for every message that contains the same assertion.
+     * Cached assertions are removed from the cache once they have expired.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_ASSERTION_CACHE_MAX_SIZE}.
+     * 
+     * @return The maximum number of cached assertions or 0 if assertions are not cached.
+     */
+    public final int getAssertionCacheMaxSize() {
+        return assertionCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of successfully validated registration assertions
+     * that are cached per endpoint.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_ASSERTION_CACHE_MAX_SIZE}.
+     * 
+     * @param maxSize The maximum number of cached assertions or 0 to disable caching.
+     * @throws IllegalArgumentException if max size is negative.
+     */
+    public final void setAssertionCacheMaxSize(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("max size must be >= 0");
+        }
+        this.assertionCacheMaxSize = maxSize;
+    }
+
+    /**
+     * Checks whether upstream links with the same target address share a single
+     * sender link to the downstream container.
+     * <p>
+     * If enabled, the number of links to the downstream container is proportional to the
+     * number of target addresses (i.e. tenants) instead of the number of upstream links.
+     * The credit granted by the downstream container is distributed among all
+     * upstream links sharing a sender according to the
+     * {@linkplain #getDownstreamCreditAllocationPolicy() credit allocation policy}.
+     * <p>
+     * The default value of this property is {@code false}.
+     * 
+     * @return {@code true} if downstream senders are shared.
+     */
+    public final boolean isDownstreamSenderSharingEnabled() {
+        return downstreamSenderSharingEnabled;
+    }
+
+    /**
+     * Sets whether upstream links with the same target address share a single
+     * sender link to the downstream container.
+     * <p>
+     * The default value of this property is {@code false}.
+     * 
+     * @param enabled {@code true} if downstream senders should be shared.
+     */
+    public final void setDownstreamSenderSharingEnabled(final boolean enabled) {
+        this.downstreamSenderSharingEnabled = enabled;
+    }
+
+    /**
+     * Gets the maximum number of messages to buffer per downstream sender while
+     * the downstream container has not granted any credit.
+     * <p>
+     * Messages received from upstream clients while a downstream sender has no credit
+     * are kept in a buffer and are forwarded in the order they have been received
+     * as soon as the downstream container grants more credit. Messages that do not fit
+     * into the buffer are released (if unsettled) or discarded (if pre-settled).
+     * <p>
+     * The default value of this property is 0, i.e. messages are not buffered.
+     * 
+     * @return The maximum number of buffered messages.
+     */
+    public final int getOverflowBufferMaxMessages() {
+        return overflowBufferMaxMessages;
+    }
+
+    /**
+     * Sets the maximum number of messages to buffer per downstream sender while
+     * the downstream container has not granted any credit.
+     * <p>
+     * The default value of this property is 0, i.e. messages are not buffered.
+     * 
+     * @param maxMessages The maximum number of buffered messages or 0 to disable buffering.
+     * @throws IllegalArgumentException if max messages is negative.
+     */
+    public final void setOverflowBufferMaxMessages(final int maxMessages) {
+        if (maxMessages < 0) {
+            throw new IllegalArgumentException("max messages must be >= 0");
+        }
+        this.overflowBufferMaxMessages = maxMessages;
+    }
+
+    /**
+     * Gets the maximum number of bytes of message payload to buffer per downstream sender
+     * while the downstream container has not granted any credit.
+     * <p>
+     * This property is only relevant if the maximum number of buffered messages is
+     * greater than zero.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_OVERFLOW_BUFFER_MAX_BYTES}.
+     * 
+     * @return The maximum number of bytes.
+     */
+    public final int getOverflowBufferMaxBytes() {
+        return overflowBufferMaxBytes;
+    }
+
+    /**
+     * Sets the maximum number of bytes of message payload to buffer per downstream sender
+     * while the downstream container has not granted any credit.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_OVERFLOW_BUFFER_MAX_BYTES}.
+     * 
+     * @param maxBytes The maximum number of bytes.
+     * @throws IllegalArgumentException if max bytes is not positive.
+     */
+    public final void setOverflowBufferMaxBytes(final int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("max bytes must be > 0");
+        }
+        this.overflowBufferMaxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the number of connections to establish to the downstream container.
+     * <p>
+     * Each tenant is assigned to one of the connections using consistent hashing so that
+     * all of a tenant's messages are forwarded via the same connection. If the connection
+     * a tenant is assigned to is not available, another connection of the pool is used
+     * for new links. Each connection is re-established independently of the others.
+     * <p>
+     * The default value of this property is 1.
+     * 
+     * @return The number of connections.
+     */
+    public final int getDownstreamConnectionPoolSize() {
+        return downstreamConnectionPoolSize;
+    }
+
+    /**
+     * Sets the number of connections to establish to the downstream container.
+     * <p>
+     * The default value of this property is 1.
+     * 
+     * @param poolSize The number of connections.
+     * @throws IllegalArgumentException if the pool size is not positive.
+     */
+    public final void setDownstreamConnectionPoolSize(final int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("pool size must be > 0");
+        }
+        this.downstreamConnectionPoolSize = poolSize;
+    }
+
+    /**
+     * Gets the name of the policy to use for distributing the credit of a shared
+     * downstream sender among the upstream links using the sender.
+     * <p>
+     * Supported values are
+     * <ul>
+     * <li>{@link #CREDIT_ALLOCATION_POLICY_EVEN} - the credit is split evenly among all links</li>
+     * <li>{@link #CREDIT_ALLOCATION_POLICY_FAIR_SHARE} - the credit is distributed according to the
+     * number of messages each link has recently sent using max-min fair sharing</li>
+     * </ul>
+     * This property is only relevant if downstream sender sharing is enabled.
+     * <p>
+     * The default value of this property is {@link #CREDIT_ALLOCATION_POLICY_EVEN}.
+     * 
+     * @return The name of the policy.
+     */
+    public final String getDownstreamCreditAllocationPolicy() {
+        return downstreamCreditAllocationPolicy;
+    }
+
+    /**
+     * Sets the name of the policy to use for distributing the credit of a shared
+     * downstream sender among the upstream links using the sender.
+     * <p>
+     * The default value of this property is {@link #CREDIT_ALLOCATION_POLICY_EVEN}.
+     * 
+     * @param policy The name of the policy.
+     * @throws NullPointerException if policy is {@code null}.
+     * @throws IllegalArgumentException if the policy is not supported.
+     */
+    public final void setDownstreamCreditAllocationPolicy(final String policy) {
+        Objects.requireNonNull(policy);
+        if (!CREDIT_ALLOCATION_POLICY_EVEN.equals(policy) && !CREDIT_ALLOCATION_POLICY_FAIR_SHARE.equals(policy)) {
+            throw new IllegalArgumentException("unsupported credit allocation policy: " + policy);
+        }
+        this.downstreamCreditAllocationPolicy = policy;
+    }
 }
@@ -15,6 +15,11 @@ package org.eclipse.hono.messaging;
 import static io.vertx.proton.ProtonHelper.condition;
 import static org.eclipse.hono.util.MessageHelper.getAnnotation;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -27,11 +32,15 @@ import org.eclipse.hono.service.amqp.AbstractAmqpEndpoint;
 import org.eclipse.hono.service.registration.RegistrationAssertionHelper;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.HonoProtonHelper;
+import org.eclipse.hono.util.JwtHelper;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.ResourceIdentifier;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
@@ -46,17 +55,29 @@ import io.vertx.proton.ProtonReceiver;
 /**
  * A base class for implementing Hono {@code Endpoint}s that forward messages
  * to a downstream container.
+ * <p>
+ * Registration assertions contained in messages that have been validated successfully
+ * are cached (keyed by their SHA-256 digest) until they expire so that the signature of
+ * an assertion is verified only once instead of for every message containing it.
  * 
  * @param <T> The type of configuration properties this endpoint understands.
  */
 public abstract class MessageForwardingEndpoint<T extends HonoMessagingConfigProperties> extends AbstractAmqpEndpoint<T> {
 
     private static final Symbol[] OFFERED_CAPS = new Symbol[] { Constants.CAP_REG_ASSERTION_VALIDATION };
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    });
 
     private MessagingMetrics            metrics;
     private DownstreamAdapter           downstreamAdapter;
     private MessageConsumer<String>     clientDisconnectListener;
     private RegistrationAssertionHelper registrationAssertionValidator;
+    private Cache<String, Instant>      validAssertions;
 
     /**
      * Creates an endpoint for a Vertx instance.
@@ -219,21 +240,77 @@ public abstract class MessageForwardingEndpoint<T extends HonoMessagingConfigPro
 
         if (config.isAssertionValidationRequired()) {
 
-            final ResourceIdentifier address = ResourceIdentifier.fromString(getAnnotation(msg, MessageHelper.APP_PROPERTY_RESOURCE, String.class));
             final String token = MessageHelper.getAndRemoveRegistrationAssertion(msg);
 
             if (token == null) {
                 logger.debug("registration assertion validation failed due to missing token");
                 return false;
-            } else {
-                return registrationAssertionValidator.isValid(token, address.getTenantId(), address.getResourceId());
             }
+            // prefer the annotations added during formal verification over
+            // parsing the resource annotation again
+            String tenantId = getAnnotation(msg, MessageHelper.APP_PROPERTY_TENANT_ID, String.class);
+            String deviceId = getAnnotation(msg, MessageHelper.APP_PROPERTY_DEVICE_ID, String.class);
+            if (tenantId == null || deviceId == null) {
+                final ResourceIdentifier address = ResourceIdentifier.fromString(
+                        getAnnotation(msg, MessageHelper.APP_PROPERTY_RESOURCE, String.class));
+                tenantId = address.getTenantId();
+                deviceId = address.getResourceId();
+            }
+            return isValidAssertion(token, tenantId, deviceId);
         } else {
             // validation has been disabled explicitly
             return true;
         }
     }
 
+    private boolean isValidAssertion(final String token, final String tenantId, final String deviceId) {
+
+        final Cache<String, Instant> cache = getValidAssertionsCache();
+        if (cache == null) {
+            return registrationAssertionValidator.isValid(token, tenantId, deviceId);
+        }
+
+        final String key = getAssertionKey(token, tenantId, deviceId);
+        final Instant expiration = cache.getIfPresent(key);
+        if (expiration != null && Instant.now().isBefore(expiration)) {
+            logger.trace("registration assertion has already been validated");
+            return true;
+        } else if (registrationAssertionValidator.isValid(token, tenantId, deviceId)) {
+            try {
+                cache.put(key, JwtHelper.getExpiration(token).toInstant());
+            } catch (final IllegalArgumentException e) {
+                // token does not expire, do not cache it
+                cache.invalidate(key);
+            }
+            return true;
+        } else {
+            cache.invalidate(key);
+            return false;
+        }
+    }
+
+    private Cache<String, Instant> getValidAssertionsCache() {
+
+        if (validAssertions == null && config.getAssertionCacheMaxSize() > 0) {
+            validAssertions = CacheBuilder.newBuilder()
+                    .maximumSize(config.getAssertionCacheMaxSize())
+                    .build();
+        }
+        return validAssertions;
+    }
+
+    private static String getAssertionKey(final String token, final String tenantId, final String deviceId) {
+
+        final MessageDigest digest = SHA_256.get();
+        digest.reset();
+        digest.update(tenantId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '/');
+        digest.update(deviceId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '/');
+        digest.update(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
     private void rejectMessage(final ProtonDelivery deliveryToReject, final ErrorCondition error, final UpstreamReceiver client) {
         MessageHelper.rejected(deliveryToReject, error);
         client.replenish(1);
@@ -93,4 +93,50 @@ public interface MessagingMetrics extends Metrics {
      * @param address The message's address.
      */
     void incrementUndeliverableMessages(String address);
+
+    /**
+     * Reports the number of messages contained in the overflow buffer of
+     * a sender link to the downstream AMQP 1.0 Messaging Network.
+     * 
+     * @param address The link's target address.
+     * @param messages The number of buffered messages.
+     */
+    void submitOverflowBufferDepth(String address, int messages);
+
+    /**
+     * Reports the time that the oldest message has been contained in the overflow
+     * buffer of a sender link to the downstream AMQP 1.0 Messaging Network.
+     * 
+     * @param address The link's target address.
+     * @param ageMillis The age of the oldest buffered message in milliseconds.
+     */
+    void submitOverflowBufferAge(String address, long ageMillis);
+
+    /**
+     * Reports the time between a message having been received from an upstream
+     * protocol adapter and the message having been sent downstream.
+     * 
+     * @param address The message's address.
+     * @param millis The time in milliseconds.
+     */
+    void submitForwardingLatency(String address, long millis);
+
+    /**
+     * Reports the time between a message having been sent downstream and
+     * the downstream AMQP 1.0 Messaging Network having settled the message.
+     * 
+     * @param address The message's address.
+     * @param millis The time in milliseconds.
+     */
+    void submitDispositionRoundTrip(String address, long millis);
+
+    /**
+     * Reports the time it took to drain upstream protocol adapters after
+     * the downstream AMQP 1.0 Messaging Network has requested a sender
+     * link to be drained.
+     * 
+     * @param address The link's target address.
+     * @param millis The time in milliseconds.
+     */
+    void submitDrainDuration(String address, long millis);
 }
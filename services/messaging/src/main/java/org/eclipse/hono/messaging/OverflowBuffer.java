@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.messaging;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.message.Message;
+
+import io.vertx.proton.ProtonDelivery;
+
+/**
+ * A bounded FIFO buffer for messages that cannot be forwarded downstream
+ * because the downstream sender has no credit.
+ * <p>
+ * The buffer is bounded by the number of messages and by the accumulated
+ * size of the messages' payload.
+ */
+final class OverflowBuffer {
+
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final int maxMessages;
+    private final long maxBytes;
+    private long bytes = 0;
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param maxMessages The maximum number of messages to buffer.
+     * @param maxBytes The maximum number of payload bytes to buffer.
+     * @throws IllegalArgumentException if any of the limits is not positive.
+     */
+    OverflowBuffer(final int maxMessages, final long maxBytes) {
+        if (maxMessages <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("limits must be > 0");
+        }
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds a message to the end of this buffer.
+     *
+     * @param message The message.
+     * @param upstreamDelivery The handle for settling the message with the upstream client.
+     * @return {@code true} if the message has been added or {@code false} if adding
+     *         the message would exceed any of the buffer's limits.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    boolean offer(final Message message, final ProtonDelivery upstreamDelivery) {
+
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(upstreamDelivery);
+
+        final int size = getPayloadSize(message);
+        if (entries.size() >= maxMessages || bytes + size > maxBytes) {
+            return false;
+        } else {
+            entries.addLast(new Entry(message, upstreamDelivery, size, System.currentTimeMillis()));
+            bytes += size;
+            return true;
+        }
+    }
+
+    /**
+     * Removes the oldest message from this buffer.
+     *
+     * @return The entry or {@code null} if this buffer is empty.
+     */
+    Entry poll() {
+
+        final Entry entry = entries.pollFirst();
+        if (entry != null) {
+            bytes -= entry.size;
+        }
+        return entry;
+    }
+
+    /**
+     * Checks if this buffer contains any messages.
+     *
+     * @return {@code true} if this buffer is empty.
+     */
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Gets the number of messages contained in this buffer.
+     *
+     * @return The number of messages.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the accumulated size of the payload of the messages contained in this buffer.
+     *
+     * @return The number of bytes.
+     */
+    long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the time that the oldest message has been contained in this buffer.
+     *
+     * @param now The current time in milliseconds since the epoch.
+     * @return The age in milliseconds or 0 if this buffer is empty.
+     */
+    long getOldestAge(final long now) {
+        final Entry oldest = entries.peekFirst();
+        return oldest == null ? 0 : Math.max(0, now - oldest.timestamp);
+    }
+
+    private static int getPayloadSize(final Message message) {
+        if (message.getBody() instanceof Data) {
+            return ((Data) message.getBody()).getValue().getLength();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * A buffered message.
+     */
+    static final class Entry {
+
+        private final Message message;
+        private final ProtonDelivery upstreamDelivery;
+        private final int size;
+        private final long timestamp;
+
+        private Entry(final Message message, final ProtonDelivery upstreamDelivery, final int size, final long timestamp) {
+            this.message = message;
+            this.upstreamDelivery = upstreamDelivery;
+            this.size = size;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Gets the buffered message.
+         *
+         * @return The message.
+         */
+        Message getMessage() {
+            return message;
+        }
+
+        /**
+         * Gets the handle for settling the message with the upstream client.
+         *
+         * @return The delivery.
+         */
+        ProtonDelivery getUpstreamDelivery() {
+            return upstreamDelivery;
+        }
+
+        /**
+         * Gets the point in time at which the message has been added to the buffer.
+         *
+         * @return The time in milliseconds since the epoch.
+         */
+        long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
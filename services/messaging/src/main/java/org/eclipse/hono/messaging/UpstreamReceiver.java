@@ -49,6 +49,13 @@ public interface UpstreamReceiver {
      */
     void replenish(int replenishedCredits);
 
+    /**
+     * Gets the credit that the client currently has available for sending messages.
+     *
+     * @return The number of credits that the client has been granted but has not used yet.
+     */
+    int getCredit();
+
     /**
      * Sends an AMQP 1.0 <em>flow</em> frame to the client with the <em>drain</em> flag set.
      * 
@@ -49,7 +49,7 @@ public class UpstreamReceiverImpl implements UpstreamReceiver {
     @Override
     public void replenish(final int downstreamCredit) {
 
-        final int remainingCredit = link.getCredit() - link.getQueued();
+        final int remainingCredit = getCredit();
         if (downstreamCredit > remainingCredit) {
             final int credit = downstreamCredit - remainingCredit;
             LOG.trace("replenishing client [{}] having {} credits with {} credits", id, remainingCredit, credit);
@@ -59,6 +59,11 @@ public class UpstreamReceiverImpl implements UpstreamReceiver {
         }
     }
 
+    @Override
+    public int getCredit() {
+        return Math.max(0, link.getCredit() - link.getQueued());
+    }
+
     @Override
     public void drain(final long timeoutMillis, final Handler<AsyncResult<Void>> drainCompletionHandler) {
         if (drainFlag.compareAndSet(false, true)) {
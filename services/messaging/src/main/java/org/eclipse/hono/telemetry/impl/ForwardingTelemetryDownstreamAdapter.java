@@ -63,11 +63,9 @@ public final class ForwardingTelemetryDownstreamAdapter extends ForwardingDownst
         } else {
             // client uses AT_LEAST_ONCE delivery semantics
             // forward message
-            sender.send(msg, updatedDownstreamDelivery -> {
-                // and forward disposition received from downstream AMQP Messaging Network
-                // to upstream client
-                upstreamDelivery.disposition(updatedDownstreamDelivery.getRemoteState(), updatedDownstreamDelivery.remotelySettled());
-            });
+            // and forward disposition received from downstream AMQP Messaging Network
+            // to upstream client
+            sender.send(msg, newDispositionHandler(sender, upstreamDelivery));
         }
     }
 
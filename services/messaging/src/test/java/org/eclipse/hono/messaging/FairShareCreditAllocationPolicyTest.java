@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.messaging;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests verifying behavior of {@link FairShareCreditAllocationPolicy}.
+ *
+ */
+public class FairShareCreditAllocationPolicyTest {
+
+    private FairShareCreditAllocationPolicy policy;
+    private UpstreamReceiver busyClient;
+    private UpstreamReceiver quietClient;
+    private UpstreamReceiver idleClient;
+    private List<UpstreamReceiver> clients;
+
+    /**
+     * Sets up the fixture.
+     */
+    @Before
+    public void setUp() {
+        policy = new FairShareCreditAllocationPolicy();
+        busyClient = mock(UpstreamReceiver.class);
+        quietClient = mock(UpstreamReceiver.class);
+        idleClient = mock(UpstreamReceiver.class);
+        clients = Arrays.asList(busyClient, quietClient, idleClient);
+    }
+
+    /**
+     * Verifies that a busy client does not get more than its fair share
+     * of the credit while the credit not needed by quieter clients is
+     * granted to the busy client.
+     */
+    @Test
+    public void testAllocateLimitsBusyClientToFairShare() {
+
+        // GIVEN a busy client that has sent 100 messages and a quiet client that has sent 2 messages
+        givenMessages(busyClient, 100);
+        givenMessages(quietClient, 2);
+
+        // WHEN 30 credits are distributed among the clients
+        final Map<UpstreamReceiver, Integer> allocation = policy.allocate(30, clients);
+
+        // THEN the quiet client gets the credit it needs
+        assertThat(allocation.get(quietClient), is(2));
+        // and the idle client is able to send a message
+        assertThat(allocation.get(idleClient), is(1));
+        // and the busy client gets the remaining credit
+        assertThat(allocation.get(busyClient), is(27));
+    }
+
+    /**
+     * Verifies that credit is split evenly among clients that all have
+     * a higher demand than available credit.
+     */
+    @Test
+    public void testAllocateSplitsCreditEvenlyUnderContention() {
+
+        // GIVEN three busy clients
+        givenMessages(busyClient, 50);
+        givenMessages(quietClient, 40);
+        givenMessages(idleClient, 30);
+
+        // WHEN 31 credits are distributed among the clients
+        final Map<UpstreamReceiver, Integer> allocation = policy.allocate(31, clients);
+
+        // THEN each client gets its fair share
+        assertThat(allocation.values().stream().mapToInt(Integer::intValue).sum(), is(31));
+        allocation.values().forEach(credit -> assertThat(credit >= 10 && credit <= 11, is(true)));
+    }
+
+    /**
+     * Verifies that credit exceeding the overall demand is split evenly among
+     * all clients and that the demand is reset after each allocation.
+     */
+    @Test
+    public void testAllocateSplitsExcessCreditEvenly() {
+
+        // GIVEN a client that has sent 10 messages
+        givenMessages(busyClient, 10);
+
+        // WHEN 30 credits are distributed among the clients
+        Map<UpstreamReceiver, Integer> allocation = policy.allocate(30, clients);
+
+        // THEN the credit exceeding the demand of 12 is split evenly
+        assertThat(allocation.get(busyClient), is(16));
+        assertThat(allocation.get(quietClient), is(7));
+        assertThat(allocation.get(idleClient), is(7));
+
+        // and a subsequent allocation without any messages having been sent splits the credit evenly
+        allocation = policy.allocate(30, clients);
+        allocation.values().forEach(credit -> assertThat(credit, is(10)));
+    }
+
+    private void givenMessages(final UpstreamReceiver client, final int numberOfMessages) {
+        for (int i = 0; i < numberOfMessages; i++) {
+            policy.onMessage(client);
+        }
+    }
+}
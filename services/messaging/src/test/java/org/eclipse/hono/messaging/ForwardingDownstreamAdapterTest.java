@@ -14,16 +14,24 @@
 package org.eclipse.hono.messaging;
 
 import static org.eclipse.hono.TestSupport.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
+import org.apache.qpid.proton.amqp.messaging.Released;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
 import org.apache.qpid.proton.engine.Record;
+import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.connection.ConnectionFactory;
 import org.eclipse.hono.util.Constants;
@@ -61,6 +69,8 @@ public class ForwardingDownstreamAdapterTest {
     private ConnectionFactory           connectionFactory;
     private Record                      attachments;
     private ProtonConnection            con;
+    private List<Message>               forwardedMessages;
+    private MessagingMetrics            metrics;
 
     /**
      * Initializes mocks etc.
@@ -74,6 +84,7 @@ public class ForwardingDownstreamAdapterTest {
         when(con.createSession()).thenReturn(session);
         when(con.attachments()).thenReturn(attachments);
         connectionFactory = newMockConnectionFactory(con, false);
+        forwardedMessages = new ArrayList<>();
     }
 
     /**
@@ -124,6 +135,257 @@ public class ForwardingDownstreamAdapterTest {
         verify(client).drain(anyLong(), any(Handler.class));
     }
 
+    /**
+     * Verifies that the time it takes to drain an upstream client is reported
+     * and that the downstream sender is marked as drained afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHandleFlowReportsDrainDuration() {
+
+        final UpstreamReceiver client = newClient();
+        final ProtonSender drainingSender = newMockSender(true);
+        doAnswer(invocation -> {
+            final Handler<AsyncResult<Void>> drainHandler = invocation.getArgument(1);
+            drainHandler.handle(Future.succeededFuture());
+            return null;
+        }).when(client).drain(anyLong(), any(Handler.class));
+
+        // GIVEN an adapter with a connection to the downstream container and a client attached
+        givenADownstreamAdapter();
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.addSender(client, drainingSender);
+
+        // WHEN the downstream sender drains the adapter
+        adapter.handleFlow(drainingSender, client);
+
+        // THEN the duration of draining the upstream client is reported
+        verify(metrics).submitDrainDuration(eq(client.getTargetAddress()), anyLong());
+        // and the downstream sender is marked as drained
+        verify(drainingSender).drained();
+    }
+
+    /**
+     * Verifies that upstream clients using the same target address share a single
+     * downstream sender if sharing is enabled and that the sender's credit is split
+     * among the clients.
+     */
+    @Test
+    public void testClientAttachSharesDownstreamSenderAmongClients() {
+
+        final UpstreamReceiver firstClient = newClient("link-1");
+        final UpstreamReceiver secondClient = newClient("link-2");
+        final ProtonSender downstreamSender = newMockSender(false);
+        final AtomicInteger createdSenders = new AtomicInteger();
+        final SenderFactory senderFactory = newMockSenderFactory(downstreamSender);
+
+        // GIVEN an adapter that shares downstream senders
+        givenADownstreamAdapter((connection, address, qos, drainHandler, closeHook) -> {
+            createdSenders.incrementAndGet();
+            return senderFactory.createSender(connection, address, qos, drainHandler, closeHook);
+        });
+        givenSharedDownstreamSenders();
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+
+        // WHEN two clients attach to the same target address
+        adapter.onClientAttach(firstClient, s -> {});
+        adapter.onClientAttach(secondClient, s -> {});
+
+        // THEN only a single downstream sender is created
+        assertEquals(1, createdSenders.get());
+        // and the first client has been given all credit initially
+        verify(firstClient).replenish(DEFAULT_CREDITS);
+        // and the credit has been split among both clients once the second client has attached
+        verify(firstClient).replenish(DEFAULT_CREDITS / 2);
+        verify(secondClient).replenish(DEFAULT_CREDITS / 2);
+    }
+
+    /**
+     * Verifies that the credit held by all clients sharing a downstream sender
+     * never exceeds the sender's credit.
+     */
+    @Test
+    public void testSharedSenderDoesNotGrantMoreCreditThanAvailableDownstream() {
+
+        final UpstreamReceiver firstClient = newClient("link-1");
+        final UpstreamReceiver secondClient = newClient("link-2");
+        final ProtonSender downstreamSender = newMockSender(false);
+        final AtomicReference<Handler<ProtonSender>> flowHandler = new AtomicReference<>();
+        final SenderFactory senderFactory = newMockSenderFactory(downstreamSender);
+
+        // GIVEN an adapter that shares downstream senders
+        givenADownstreamAdapter((connection, address, qos, drainHandler, closeHook) -> {
+            flowHandler.set(drainHandler);
+            return senderFactory.createSender(connection, address, qos, drainHandler, closeHook);
+        });
+        givenSharedDownstreamSenders();
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+
+        // and a client that has been granted all of the downstream sender's credit
+        adapter.onClientAttach(firstClient, s -> {});
+        verify(firstClient).replenish(DEFAULT_CREDITS);
+        when(firstClient.getCredit()).thenReturn(DEFAULT_CREDITS);
+
+        // WHEN another client attaches to the same target address
+        adapter.onClientAttach(secondClient, s -> {});
+
+        // THEN the second client is not granted any credit
+        verify(secondClient, never()).replenish(anyInt());
+
+        // WHEN the first client has used up most of its credit
+        when(firstClient.getCredit()).thenReturn(DEFAULT_CREDITS / 4);
+        // and the downstream sender receives a FLOW
+        flowHandler.get().handle(downstreamSender);
+
+        // THEN both clients are topped up to their share
+        verify(firstClient).replenish(DEFAULT_CREDITS / 2);
+        verify(secondClient).replenish(DEFAULT_CREDITS / 2);
+    }
+
+    /**
+     * Verifies that a shared downstream sender is closed only after the last
+     * upstream client using it has detached.
+     */
+    @Test
+    public void testClientDetachClosesSharedSenderAfterLastClientDetached() {
+
+        final UpstreamReceiver firstClient = newClient("link-1");
+        final UpstreamReceiver secondClient = newClient("link-2");
+        final ProtonSender downstreamSender = newMockSender(false);
+
+        // GIVEN an adapter with a downstream sender shared by two clients
+        givenADownstreamAdapter(downstreamSender);
+        givenSharedDownstreamSenders();
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.onClientAttach(firstClient, s -> {});
+        adapter.onClientAttach(secondClient, s -> {});
+
+        // WHEN the first client detaches
+        adapter.onClientDetach(firstClient);
+
+        // THEN the downstream sender is kept open
+        verify(downstreamSender, never()).close();
+        // and all of its credit is granted to the remaining client
+        verify(secondClient).replenish(DEFAULT_CREDITS);
+
+        // WHEN the second client detaches as well
+        adapter.onClientDetach(secondClient);
+
+        // THEN the downstream sender is closed
+        verify(downstreamSender).close();
+        assertTrue(adapter.isActiveSendersEmpty());
+    }
+
+    /**
+     * Verifies that messages received while the downstream sender has no credit are
+     * buffered and forwarded in order once the downstream container grants more credit.
+     */
+    @Test
+    public void testProcessMessageBuffersMessagesUntilCreditIsGranted() {
+
+        final UpstreamReceiver client = newClient();
+        final ProtonSender downstreamSender = newMockSender(false);
+        when(downstreamSender.sendQueueFull()).thenReturn(Boolean.TRUE);
+        final ProtonDelivery firstDelivery = mock(ProtonDelivery.class);
+        final ProtonDelivery secondDelivery = mock(ProtonDelivery.class);
+        final Message firstMessage = Proton.message();
+        final Message secondMessage = Proton.message();
+
+        // GIVEN an adapter that buffers messages while there is no downstream credit
+        givenADownstreamAdapter(downstreamSender);
+        givenOverflowBuffer(10);
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.addSender(client, downstreamSender);
+
+        // WHEN two messages are received while the downstream sender has no credit
+        adapter.processMessage(client, firstDelivery, firstMessage);
+        adapter.processMessage(client, secondDelivery, secondMessage);
+
+        // THEN the messages are neither forwarded nor released
+        assertTrue(forwardedMessages.isEmpty());
+        verify(firstDelivery, never()).disposition(any(), anyBoolean());
+        verify(secondDelivery, never()).disposition(any(), anyBoolean());
+
+        // WHEN the downstream container grants more credit
+        when(downstreamSender.sendQueueFull()).thenReturn(Boolean.FALSE);
+        adapter.handleFlow(downstreamSender, client);
+
+        // THEN the buffered messages are forwarded in the order they have been received
+        assertEquals(2, forwardedMessages.size());
+        assertEquals(firstMessage, forwardedMessages.get(0));
+        assertEquals(secondMessage, forwardedMessages.get(1));
+        // and the time the messages have been waiting for credit is reported
+        verify(metrics, times(2)).submitForwardingLatency(anyString(), anyLong());
+    }
+
+    /**
+     * Verifies that a message which does not fit into the overflow buffer is released
+     * and that buffered messages are released when the downstream sender is closed.
+     */
+    @Test
+    public void testProcessMessageReleasesMessagesNotFittingIntoBuffer() {
+
+        final UpstreamReceiver client = newClient();
+        final ProtonSender downstreamSender = newMockSender(false);
+        when(downstreamSender.sendQueueFull()).thenReturn(Boolean.TRUE);
+        final ProtonDelivery firstDelivery = mock(ProtonDelivery.class);
+        final ProtonDelivery secondDelivery = mock(ProtonDelivery.class);
+
+        // GIVEN an adapter with an overflow buffer for a single message
+        givenADownstreamAdapter(downstreamSender);
+        givenOverflowBuffer(1);
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.addSender(client, downstreamSender);
+
+        // WHEN two messages are received while the downstream sender has no credit
+        adapter.processMessage(client, firstDelivery, Proton.message());
+        adapter.processMessage(client, secondDelivery, Proton.message());
+
+        // THEN the second message is released
+        verify(firstDelivery, never()).disposition(any(), anyBoolean());
+        verify(secondDelivery).disposition(any(Released.class), eq(true));
+
+        // WHEN the client detaches
+        adapter.onClientDetach(client);
+
+        // THEN the buffered message is released as well
+        verify(firstDelivery).disposition(any(Released.class), eq(true));
+        assertTrue(forwardedMessages.isEmpty());
+    }
+
+    /**
+     * Verifies that the age of the oldest buffered message is reported while
+     * the message remains in the overflow buffer.
+     */
+    @Test
+    public void testSubmitOverflowBufferMetricsReportsCurrentAgeOfBufferedMessage() {
+
+        final UpstreamReceiver client = newClient();
+        final ProtonSender downstreamSender = newMockSender(false);
+        when(downstreamSender.sendQueueFull()).thenReturn(Boolean.TRUE);
+
+        // GIVEN an adapter that has buffered a message while there is no downstream credit
+        givenADownstreamAdapter(downstreamSender);
+        givenOverflowBuffer(10);
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.addSender(client, downstreamSender);
+        adapter.processMessage(client, mock(ProtonDelivery.class), Proton.message());
+
+        // WHEN the overflow buffer metrics are reported five seconds later
+        adapter.submitOverflowBufferMetrics(System.currentTimeMillis() + 5000);
+
+        // THEN the reported age includes the time the message has been waiting since
+        verify(metrics).submitOverflowBufferAge(anyString(), longThat(age -> age >= 5000));
+        adapter.onClientDetach(client);
+    }
+
     /**
      * Verifies that the adapter refuses to accept a link from an upstream client
      * when there is no connection to the downstream container.
@@ -315,6 +577,73 @@ public class ForwardingDownstreamAdapterTest {
         assertTrue(adapter.isActiveSendersEmpty());
     }
 
+    /**
+     * Verifies that the adapter establishes the configured number of downstream connections
+     * and that losing one of them only affects the upstream clients of tenants assigned to
+     * that connection.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDownstreamDisconnectClosesOnlyReceiversUsingFailedConnection() {
+
+        final ProtonConnection firstCon = newMockConnection();
+        final ProtonConnection secondCon = newMockConnection();
+        final List<Handler<ProtonConnection>> disconnectHandlers = new ArrayList<>();
+        final ConnectionFactory factory = mock(ConnectionFactory.class);
+        doAnswer(invocation -> {
+            disconnectHandlers.add(invocation.getArgument(2));
+            final Handler<AsyncResult<ProtonConnection>> resultHandler = invocation.getArgument(3);
+            resultHandler.handle(Future.succeededFuture(disconnectHandlers.size() == 1 ? firstCon : secondCon));
+            return null;
+        }).when(factory).connect(any(ProtonClientOptions.class), any(Handler.class), any(Handler.class), any(Handler.class));
+
+        // GIVEN an adapter with a pool of two downstream connections
+        givenADownstreamAdapter(newMockSenderFactory(newMockSender(false)));
+        final HonoMessagingConfigProperties config = new HonoMessagingConfigProperties();
+        config.setDownstreamConnectionPoolSize(2);
+        adapter.setHonoConfiguration(config);
+        adapter.setDownstreamConnectionFactory(factory);
+        adapter.start(Future.future());
+        assertEquals(2, disconnectHandlers.size());
+
+        // and two clients of tenants assigned to different connections
+        final String firstTenant = getTenantForConnection(0);
+        final String secondTenant = getTenantForConnection(1);
+        final UpstreamReceiver firstClient = newClient("link-1");
+        when(firstClient.getTargetAddress()).thenReturn(TelemetryConstants.TELEMETRY_ENDPOINT + "/" + firstTenant);
+        final UpstreamReceiver secondClient = newClient("link-2");
+        when(secondClient.getTargetAddress()).thenReturn(TelemetryConstants.TELEMETRY_ENDPOINT + "/" + secondTenant);
+        adapter.onClientAttach(firstClient, s -> {});
+        adapter.onClientAttach(secondClient, s -> {});
+
+        // WHEN the first connection fails
+        disconnectHandlers.get(0).handle(firstCon);
+
+        // THEN only the client using the first connection is closed
+        verify(firstClient).close(any(ErrorCondition.class));
+        verify(secondClient, never()).close(any(ErrorCondition.class));
+        // and the adapter is still connected
+        assertTrue(adapter.isConnected());
+        assertFalse(adapter.isActiveSendersEmpty());
+    }
+
+    private String getTenantForConnection(final int index) {
+        for (int i = 0; i < 1000; i++) {
+            final String tenant = "tenant-" + i;
+            if (adapter.getConnectionIndex(tenant) == index) {
+                return tenant;
+            }
+        }
+        throw new AssertionError("no tenant is assigned to connection #" + index);
+    }
+
+    private ProtonConnection newMockConnection() {
+        final ProtonConnection connection = mock(ProtonConnection.class);
+        when(connection.getRemoteContainer()).thenReturn("downstream");
+        when(connection.attachments()).thenReturn(mock(Record.class));
+        return connection;
+    }
+
     /**
      * Verifies that all requests from upstream clients to attach are failed when the connection to the
      * downstream container is lost.
@@ -379,6 +708,18 @@ public class ForwardingDownstreamAdapterTest {
         givenADownstreamAdapter(newMockSender(false));
     }
 
+    private void givenOverflowBuffer(final int maxMessages) {
+        final HonoMessagingConfigProperties config = new HonoMessagingConfigProperties();
+        config.setOverflowBufferMaxMessages(maxMessages);
+        adapter.setHonoConfiguration(config);
+    }
+
+    private void givenSharedDownstreamSenders() {
+        final HonoMessagingConfigProperties config = new HonoMessagingConfigProperties();
+        config.setDownstreamSenderSharingEnabled(true);
+        adapter.setHonoConfiguration(config);
+    }
+
     private void givenADownstreamAdapter(final ProtonSender senderToCreate) {
         givenADownstreamAdapter(newMockSenderFactory(senderToCreate));
     }
@@ -394,10 +735,11 @@ public class ForwardingDownstreamAdapterTest {
 
             @Override
             protected void forwardMessage(final ProtonSender sender, final Message msg, final ProtonDelivery delivery) {
-                // nothing to do
+                forwardedMessages.add(msg);
             }
         };
-        adapter.setMetrics(mock(MessagingMetrics.class));
+        metrics = mock(MessagingMetrics.class);
+        adapter.setMetrics(metrics);
     }
 
     /**
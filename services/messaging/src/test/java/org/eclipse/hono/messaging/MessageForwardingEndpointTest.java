@@ -220,6 +220,50 @@ public class MessageForwardingEndpointTest {
                 MessageHelper.getRegistrationAssertion(msg), is(nullValue()));
     }
 
+    /**
+     * Verifies that the signature of a registration assertion is verified only once
+     * for multiple messages containing the same (not yet expired) assertion.
+     */
+    @Test
+    public void testForwardMessageValidatesRegistrationAssertionOnlyOnce() {
+
+        // GIVEN an endpoint that has already forwarded a message with a valid assertion
+        final String validToken = getToken(SECRET, "tenant", "4711");
+        final UpstreamReceiver client = mock(UpstreamReceiver.class);
+        final DownstreamAdapter adapter = mock(DownstreamAdapter.class);
+        when(tokenValidator.isValid(validToken, "tenant", "4711")).thenReturn(Boolean.TRUE);
+        final MessageForwardingEndpoint<HonoMessagingConfigProperties> endpoint = getEndpoint();
+        endpoint.setRegistrationAssertionValidator(tokenValidator);
+        endpoint.setDownstreamAdapter(adapter);
+
+        final Message firstMsg = ProtonHelper.message();
+        MessageHelper.addRegistrationAssertion(firstMsg, validToken);
+        MessageHelper.addAnnotation(firstMsg, MessageHelper.APP_PROPERTY_RESOURCE, "telemetry/tenant/4711");
+        final ProtonDelivery firstDelivery = mock(ProtonDelivery.class);
+        endpoint.forwardMessage(client, firstDelivery, firstMsg);
+
+        // WHEN processing another message bearing the same assertion
+        final Message secondMsg = ProtonHelper.message();
+        MessageHelper.addRegistrationAssertion(secondMsg, validToken);
+        MessageHelper.addAnnotation(secondMsg, MessageHelper.APP_PROPERTY_RESOURCE, "telemetry/tenant/4711");
+        final ProtonDelivery secondDelivery = mock(ProtonDelivery.class);
+        endpoint.forwardMessage(client, secondDelivery, secondMsg);
+
+        // THEN both messages are sent downstream
+        verify(adapter).processMessage(client, firstDelivery, firstMsg);
+        verify(adapter).processMessage(client, secondDelivery, secondMsg);
+        // but the assertion has been validated once only
+        verify(tokenValidator, times(1)).isValid(validToken, "tenant", "4711");
+
+        // and the cached assertion is not accepted for another device
+        final Message otherDeviceMsg = ProtonHelper.message();
+        MessageHelper.addRegistrationAssertion(otherDeviceMsg, validToken);
+        MessageHelper.addAnnotation(otherDeviceMsg, MessageHelper.APP_PROPERTY_RESOURCE, "telemetry/tenant/other");
+        final ProtonDelivery otherDelivery = mock(ProtonDelivery.class);
+        endpoint.forwardMessage(client, otherDelivery, otherDeviceMsg);
+        verify(otherDelivery).disposition(any(Rejected.class), anyBoolean());
+    }
+
     /**
      * Verifies that a message that does not contain a registration assertion is
      * forwarded to the downstream adapter if the adapter is configured to not
@@ -147,6 +147,53 @@ public class ForwardingTelemetryDownstreamAdapterTest {
         verify(upstreamDelivery).disposition(any(Rejected.class), eq(Boolean.TRUE));
     }
 
+    /**
+     * Verifies that downstream disposition updates which neither contain a delivery state
+     * nor settle the delivery are not forwarded to the upstream client.
+     * 
+     * @param ctx The test context.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testProcessMessageIgnoresDownstreamDispositionWithoutOutcome(final TestContext ctx) {
+
+        final UpstreamReceiver client = TestSupport.newClient();
+
+        // GIVEN an adapter with a connection to a downstream container
+        final ProtonSender sender = TestSupport.newMockSender(false);
+        final ForwardingTelemetryDownstreamAdapter adapter = new ForwardingTelemetryDownstreamAdapter(
+                vertx, TestSupport.newMockSenderFactory(sender));
+        adapter.setMetrics(mock(MessagingMetrics.class));
+        adapter.setDownstreamConnectionFactory(connectionFactory);
+        adapter.start(Future.future());
+        adapter.addSender(client, sender);
+
+        // WHEN processing an unsettled telemetry message
+        final Message msg = ProtonHelper.message(TELEMETRY_MSG_CONTENT);
+        MessageHelper.addDeviceId(msg, DEVICE_ID);
+        final ProtonDelivery upstreamDelivery = mock(ProtonDelivery.class);
+        when(upstreamDelivery.remotelySettled()).thenReturn(Boolean.FALSE);
+        adapter.processMessage(client, upstreamDelivery, msg);
+        final ArgumentCaptor<Handler> deliveryHandler = ArgumentCaptor.forClass(Handler.class);
+        verify(sender).send(eq(msg), deliveryHandler.capture());
+
+        // and the downstream container updates the delivery without an outcome
+        final ProtonDelivery downstreamDelivery = mock(ProtonDelivery.class);
+        when(downstreamDelivery.remotelySettled()).thenReturn(Boolean.FALSE);
+        deliveryHandler.getValue().handle(downstreamDelivery);
+
+        // THEN the update is not forwarded to the upstream client
+        verify(upstreamDelivery, never()).disposition(any(), anyBoolean());
+
+        // but when the downstream container accepts and settles the message
+        when(downstreamDelivery.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(downstreamDelivery.getRemoteState()).thenReturn(Accepted.getInstance());
+        deliveryHandler.getValue().handle(downstreamDelivery);
+
+        // then the upstream delivery is settled with the accepted outcome
+        verify(upstreamDelivery).disposition(any(Accepted.class), eq(Boolean.TRUE));
+    }
+
     /**
      * Verifies that telemetry data is discarded if no downstream credit is available.
      * 